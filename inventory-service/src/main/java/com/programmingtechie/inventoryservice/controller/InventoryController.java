@@ -1,5 +1,8 @@
 package com.programmingtechie.inventoryservice.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.programmingtechie.inventoryservice.dto.InventoryCheckItem;
 import com.programmingtechie.inventoryservice.dto.InventoryResponse;
 import com.programmingtechie.inventoryservice.service.InventoryService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -7,10 +10,15 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * REST Controller for inventory management operations.
@@ -19,6 +27,7 @@ import java.util.List;
  */
 @RestController // Marks this class as a REST controller that handles HTTP requests
 @RequestMapping("/api/inventory") // Base URL mapping for all endpoints in this controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) // Served by ReactiveInventoryController in the reactive profile
 @RequiredArgsConstructor // Lombok annotation to generate constructor for final fields
 @Slf4j // Lombok annotation for logging support
 @Tag(name = "Inventory", description = "Inventory management APIs") // OpenAPI documentation tag
@@ -26,6 +35,8 @@ public class InventoryController {
 
     // Dependency injection of InventoryService to handle business logic
     private final InventoryService inventoryService;
+    // Used to write the check response incrementally
+    private final ObjectMapper objectMapper;
 
     /**
      * Checks inventory availability for multiple products by their SKU codes.
@@ -49,5 +60,35 @@ public class InventoryController {
         // Delegate to service layer for business logic execution
         return inventoryService.isInStock(skuCode);
     }
-}
 
+    /**
+     * Checks availability of SKU/quantity pairs sent in the request body.
+     * Large carts do not hit URL length limits, every item gets an entry (unknown SKUs are reported as not in
+     * stock) and the JSON array is written to the response as the results are produced.
+     *
+     * @param items SKU codes with the quantity required of each
+     * @return JSON array with one InventoryResponse per item, in request order
+     */
+    @PostMapping(value = "/check", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Check inventory for quantities",
+            description = "Checks if each SKU has at least the requested quantity; unknown SKUs are reported as not in stock")
+    public ResponseEntity<StreamingResponseBody> check(@RequestBody List<InventoryCheckItem> items) {
+        log.info("Received inventory check request for {} items", items.size());
+        // Validation happens here, so bad requests are rejected before the response is committed
+        Stream<InventoryResponse> responses = inventoryService.check(items);
+
+        StreamingResponseBody body = outputStream -> {
+            try (responses; JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                for (InventoryResponse response : (Iterable<InventoryResponse>) responses::iterator) {
+                    generator.writeObject(response);
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
@@ -0,0 +1,55 @@
+package com.programmingtechie.inventoryservice.controller;
+
+import com.programmingtechie.inventoryservice.dto.InventoryCheckItem;
+import com.programmingtechie.inventoryservice.dto.InventoryResponse;
+import com.programmingtechie.inventoryservice.service.ReactiveInventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * WebFlux variant of {@link InventoryController}, active when the application runs as a reactive web
+ * application (the reactive profile). Serves the same read endpoints with the same contract; the JSON array
+ * is written as the results are emitted. Reservations and stock imports are only served by the servlet stack.
+ */
+@RestController
+@RequestMapping("/api/inventory")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveInventoryController {
+
+    private final ReactiveInventoryService reactiveInventoryService;
+
+    /**
+     * Checks inventory availability for multiple products by their SKU codes.
+     *
+     * @param skuCode List of SKU codes to check for availability
+     * @return InventoryResponse DTOs indicating stock status for each SKU
+     */
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public Flux<InventoryResponse> isInStock(@RequestParam List<String> skuCode) {
+        log.info("Received inventory check request for skuCode: {}", skuCode);
+        return reactiveInventoryService.isInStock(skuCode);
+    }
+
+    /**
+     * Checks availability of SKU/quantity pairs sent in the request body.
+     *
+     * @param items SKU codes with the quantity required of each
+     * @return one InventoryResponse per item, in request order
+     */
+    @PostMapping(value = "/check", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<InventoryResponse> check(@RequestBody List<InventoryCheckItem> items) {
+        log.info("Received inventory check request for {} items", items.size());
+        return reactiveInventoryService.check(items);
+    }
+}
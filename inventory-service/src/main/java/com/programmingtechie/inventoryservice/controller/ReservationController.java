@@ -0,0 +1,71 @@
+package com.programmingtechie.inventoryservice.controller;
+
+import com.programmingtechie.inventoryservice.dto.ReservationRequest;
+import com.programmingtechie.inventoryservice.dto.ReservationResponse;
+import com.programmingtechie.inventoryservice.service.ReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * REST Controller for stock reservations.
+ * Reserving takes stock out of inventory until the reservation is confirmed, released or expires, so that
+ * concurrent orders cannot sell the same units twice.
+ */
+@RestController // Marks this class as a REST controller that handles HTTP requests
+@RequestMapping("/api/inventory/reservations") // Base URL mapping for all endpoints in this controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) // Not served by the read-only reactive profile
+@RequiredArgsConstructor // Lombok annotation to generate constructor for final fields
+@Slf4j // Lombok annotation for logging support
+@Tag(name = "Reservation", description = "Stock reservation APIs") // OpenAPI documentation tag
+public class ReservationController {
+
+    // Dependency injection of ReservationService to handle business logic
+    private final ReservationService reservationService;
+
+    /**
+     * Reserves the requested quantities of one or more SKUs, all or nothing.
+     *
+     * @param reservationRequest SKUs and quantities to reserve
+     * @return the pending reservation; 409 if any SKU is short of stock
+     */
+    @PostMapping // Maps HTTP POST requests to this method
+    @ResponseStatus(HttpStatus.CREATED) // Returns 201 status code on success
+    @Operation(summary = "Reserve stock", description = "Atomically reserves quantities for several SKUs")
+    public ReservationResponse reserve(@RequestBody ReservationRequest reservationRequest) {
+        log.info("Received reservation request for {} items", reservationRequest.getItems() == null
+                ? 0 : reservationRequest.getItems().size());
+        return reservationService.reserve(reservationRequest);
+    }
+
+    /**
+     * Confirms a pending reservation once the order has been placed.
+     *
+     * @param reservationId reservation to confirm
+     */
+    @PostMapping("/{reservationId}/confirm")
+    @ResponseStatus(HttpStatus.NO_CONTENT) // Returns 204 status code on success
+    @Operation(summary = "Confirm a reservation", description = "Keeps the reserved stock for good")
+    public void confirm(@Parameter(description = "Reservation ID") @PathVariable UUID reservationId) {
+        reservationService.confirm(reservationId);
+    }
+
+    /**
+     * Releases a pending reservation and returns its stock.
+     *
+     * @param reservationId reservation to release
+     */
+    @DeleteMapping("/{reservationId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT) // Returns 204 status code on success
+    @Operation(summary = "Release a reservation", description = "Returns the reserved stock to inventory")
+    public void release(@Parameter(description = "Reservation ID") @PathVariable UUID reservationId) {
+        reservationService.release(reservationId);
+    }
+}
@@ -0,0 +1,51 @@
+package com.programmingtechie.inventoryservice.controller;
+
+import com.programmingtechie.inventoryservice.dto.StockImportResult;
+import com.programmingtechie.inventoryservice.service.StockImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * REST Controller for bulk stock imports.
+ * Accepts files of any size: the upload is streamed into the database in batches rather than read into memory.
+ */
+@RestController // Marks this class as a REST controller that handles HTTP requests
+@RequestMapping("/api/inventory/import") // Base URL mapping for all endpoints in this controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET) // Not served by the read-only reactive profile
+@RequiredArgsConstructor // Lombok annotation to generate constructor for final fields
+@Slf4j // Lombok annotation for logging support
+@Tag(name = "Stock Import", description = "Bulk stock import APIs") // OpenAPI documentation tag
+public class StockImportController {
+
+    // Dependency injection of StockImportService to handle business logic
+    private final StockImportService stockImportService;
+
+    /**
+     * Imports absolute stock levels from a CSV or NDJSON upload.
+     *
+     * Example: curl -X POST -H 'Content-Type: text/csv' --data-binary @stock.csv http://localhost:8082/api/inventory/import
+     *
+     * @param contentType text/csv or application/x-ndjson
+     * @param upload request body, read as a stream
+     * @return counts and duration of the import
+     */
+    @PostMapping(consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @ResponseStatus(HttpStatus.OK) // Returns 200 status code on success
+    @Operation(summary = "Import stock levels",
+            description = "Upserts skuCode/quantity rows from a CSV or NDJSON upload in JDBC batches")
+    public StockImportResult importStock(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                         InputStream upload) throws IOException {
+        log.info("Received stock import as {}", contentType);
+        return stockImportService.importStock(upload, StockImportService.Format.of(contentType));
+    }
+}
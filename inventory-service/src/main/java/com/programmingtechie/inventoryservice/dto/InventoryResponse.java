@@ -17,4 +17,7 @@ public class InventoryResponse {
     
     @Schema(description = "Stock availability status", example = "true")
     private boolean isInStock;
+
+    @Schema(description = "Quantity currently available", example = "100")
+    private Integer quantity;
 }
@@ -0,0 +1,18 @@
+package com.programmingtechie.inventoryservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Quantity of one SKU to reserve")
+public class ReservationItemDto {
+    @Schema(description = "Product SKU code", example = "iphone-13")
+    private String skuCode;
+
+    @Schema(description = "Quantity to reserve", example = "2")
+    private Integer quantity;
+}
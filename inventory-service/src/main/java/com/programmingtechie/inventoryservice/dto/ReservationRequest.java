@@ -0,0 +1,17 @@
+package com.programmingtechie.inventoryservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Stock reservation request")
+public class ReservationRequest {
+    @Schema(description = "SKUs and quantities to reserve; all of them are reserved or none")
+    private List<ReservationItemDto> items;
+}
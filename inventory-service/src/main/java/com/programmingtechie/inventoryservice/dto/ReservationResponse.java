@@ -0,0 +1,31 @@
+package com.programmingtechie.inventoryservice.dto;
+
+import com.programmingtechie.inventoryservice.model.ReservationStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Schema(description = "Stock reservation")
+public class ReservationResponse {
+    @Schema(description = "Reservation ID, used to confirm or release it")
+    private UUID reservationId;
+
+    @Schema(description = "Reservation status", example = "PENDING")
+    private ReservationStatus status;
+
+    @Schema(description = "Time after which an unconfirmed reservation is released")
+    private Instant expiresAt;
+
+    @Schema(description = "Reserved SKUs and quantities")
+    private List<ReservationItemDto> items;
+}
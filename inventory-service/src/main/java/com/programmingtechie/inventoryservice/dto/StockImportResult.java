@@ -0,0 +1,24 @@
+package com.programmingtechie.inventoryservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Outcome of a bulk stock import")
+public class StockImportResult {
+    @Schema(description = "Data rows read, header excluded", example = "1000000")
+    private long rows;
+
+    @Schema(description = "Rows written to inventory", example = "999998")
+    private long imported;
+
+    @Schema(description = "Rows skipped because they could not be parsed or had no SKU code or a negative quantity", example = "2")
+    private long invalid;
+
+    @Schema(description = "Wall-clock duration of the import in milliseconds", example = "42000")
+    private long durationMillis;
+}
@@ -0,0 +1,25 @@
+package com.programmingtechie.inventoryservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Published inside the transaction that changes the stock of a SKU, with the signed quantity change.
+ * The events sent to Kafka also carry the stock level read when they were sent. A delta can reach consumers twice
+ * when a send is retried, so consumers keeping a view of stock levels should take the quantity rather than add
+ * up deltas.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockChangedEvent {
+    private String skuCode;
+    private int delta;
+    // Stock level after the change; null for in-process events and for SKUs that no longer exist
+    private Integer quantity;
+
+    public StockChangedEvent(String skuCode, int delta) {
+        this(skuCode, delta, null);
+    }
+}
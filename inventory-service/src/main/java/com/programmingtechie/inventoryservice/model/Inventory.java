@@ -8,7 +8,8 @@ import lombok.Setter;
 import jakarta.persistence.*;
 
 @Entity
-@Table
+// Every lookup is by SKU code; created by the V2 migration
+@Table(indexes = @Index(name = "ux_inventory_sku_code", columnList = "skuCode", unique = true))
 @Getter
 @Setter
 @AllArgsConstructor
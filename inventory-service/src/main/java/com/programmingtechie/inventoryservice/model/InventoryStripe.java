@@ -0,0 +1,31 @@
+package com.programmingtechie.inventoryservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.*;
+
+/**
+ * Part of a hot SKU's stock, split off the {@link Inventory} row so that concurrent decrements spread over
+ * several rows instead of queueing on one. The SKU's stock is the inventory row plus all of its stripes.
+ */
+@Entity
+// One row per stripe; also backs the per-SKU lookups and sums
+@Table(name = "t_inventory_stripes",
+        uniqueConstraints = @UniqueConstraint(name = "ux_inventory_stripes_sku_code_stripe",
+                columnNames = {"skuCode", "stripe"}))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryStripe {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String skuCode;
+    private Integer stripe;
+    private Integer quantity;
+}
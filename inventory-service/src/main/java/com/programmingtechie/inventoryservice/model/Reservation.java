@@ -0,0 +1,32 @@
+package com.programmingtechie.inventoryservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Entity
+// Backs the scan for expired reservations
+@Table(name = "t_inventory_reservations",
+        indexes = @Index(name = "ix_reservations_status_expires_at", columnList = "status, expiresAt"))
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class Reservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    @Enumerated(EnumType.STRING)
+    private ReservationStatus status;
+    private Instant expiresAt;
+    @ElementCollection
+    @CollectionTable(name = "t_inventory_reservation_items", joinColumns = @JoinColumn(name = "reservation_id"))
+    private List<ReservationItem> items;
+}
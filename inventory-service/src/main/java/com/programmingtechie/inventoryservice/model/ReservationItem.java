@@ -0,0 +1,18 @@
+package com.programmingtechie.inventoryservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.Embeddable;
+
+@Embeddable
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationItem {
+    private String skuCode;
+    private Integer quantity;
+}
@@ -0,0 +1,12 @@
+package com.programmingtechie.inventoryservice.model;
+
+public enum ReservationStatus {
+    // Stock is held until the reservation is confirmed, released or expires
+    PENDING,
+    // The held stock has been sold
+    CONFIRMED,
+    // Released by the client; the held stock was returned
+    RELEASED,
+    // Not confirmed in time; the held stock was returned
+    EXPIRED
+}
@@ -1,10 +1,70 @@
 package com.programmingtechie.inventoryservice.repository;
 
 import com.programmingtechie.inventoryservice.model.Inventory;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     List<Inventory> findBySkuCodeIn(List<String> skuCode);
+
+    /**
+     * Reads only the stock level of the given SKUs, without loading the entities into the persistence context.
+     * The stock of striped SKUs includes their {@link com.programmingtechie.inventoryservice.model.InventoryStripe} rows.
+     */
+    @Query("select new com.programmingtechie.inventoryservice.repository.SkuQuantity(i.skuCode, cast(i.quantity + coalesce(sum(s.quantity), 0) as Integer)) " +
+            "from Inventory i left join InventoryStripe s on s.skuCode = i.skuCode " +
+            "where i.skuCode in :skuCodes group by i.id, i.skuCode, i.quantity")
+    List<SkuQuantity> findSkuQuantitiesBySkuCodeIn(Collection<String> skuCodes);
+
+    /**
+     * Reads the stock level of the given SKUs from their inventory rows alone; used instead of
+     * {@link #findSkuQuantitiesBySkuCodeIn(Collection)} when striping is disabled and there are no stripes to add.
+     */
+    @Query("select new com.programmingtechie.inventoryservice.repository.SkuQuantity(i.skuCode, i.quantity) " +
+            "from Inventory i where i.skuCode in :skuCodes")
+    List<SkuQuantity> findInventoryQuantitiesBySkuCodeIn(Collection<String> skuCodes);
+
+    /**
+     * Locks the inventory row of a SKU for rebalancing its stripes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Inventory> findForUpdateBySkuCode(String skuCode);
+
+    boolean existsBySkuCode(String skuCode);
+
+    /**
+     * Takes the quantity out of stock if, and only if, enough is available. The check and the decrement are a
+     * single conditional UPDATE, so concurrent reservations cannot oversell and no row is read or locked up front.
+     *
+     * @return 1 if the stock was reserved, 0 if the SKU is unknown or has too little stock
+     */
+    @Modifying
+    @Query("update Inventory i set i.quantity = i.quantity - :quantity where i.skuCode = :skuCode and i.quantity >= :quantity")
+    int decrementIfAvailable(String skuCode, int quantity);
+
+    @Modifying
+    @Query("update Inventory i set i.quantity = i.quantity + :quantity where i.skuCode = :skuCode")
+    int increment(String skuCode, int quantity);
+
+    /**
+     * Streams the stock level of every SKU, stripes included; must be consumed inside a transaction.
+     */
+    @Query("select new com.programmingtechie.inventoryservice.repository.SkuQuantity(i.skuCode, cast(i.quantity + coalesce(sum(s.quantity), 0) as Integer)) " +
+            "from Inventory i left join InventoryStripe s on s.skuCode = i.skuCode group by i.id, i.skuCode, i.quantity")
+    Stream<SkuQuantity> streamAllSkuQuantities();
+
+    /**
+     * Streams the stock level of every SKU from its inventory row alone, for when striping is disabled; must be
+     * consumed inside a transaction.
+     */
+    @Query("select new com.programmingtechie.inventoryservice.repository.SkuQuantity(i.skuCode, i.quantity) from Inventory i")
+    Stream<SkuQuantity> streamAllInventoryQuantities();
 }
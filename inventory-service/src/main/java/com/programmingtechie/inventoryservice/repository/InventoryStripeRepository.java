@@ -0,0 +1,44 @@
+package com.programmingtechie.inventoryservice.repository;
+
+import com.programmingtechie.inventoryservice.model.InventoryStripe;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface InventoryStripeRepository extends JpaRepository<InventoryStripe, Long> {
+
+    /**
+     * Takes the quantity out of one stripe if that stripe alone has enough; same single conditional UPDATE as
+     * {@link InventoryRepository#decrementIfAvailable(String, int)}.
+     *
+     * @return 1 if the stock was taken, 0 if the stripe does not exist or has too little stock
+     */
+    @Modifying
+    @Query("update InventoryStripe s set s.quantity = s.quantity - :quantity where s.skuCode = :skuCode and s.stripe = :stripe and s.quantity >= :quantity")
+    int decrementIfAvailable(String skuCode, int stripe, int quantity);
+
+    @Modifying
+    @Query("update InventoryStripe s set s.quantity = s.quantity + :quantity where s.skuCode = :skuCode and s.stripe = :stripe")
+    int increment(String skuCode, int stripe, int quantity);
+
+    /**
+     * Locks every stripe of a SKU, in stripe order, for rebalancing.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<InventoryStripe> findForUpdateBySkuCodeOrderByStripe(String skuCode);
+
+    @Query("select distinct s.skuCode from InventoryStripe s")
+    List<String> findStripedSkuCodes();
+
+    /**
+     * Sums the stripes of each of the given SKUs; SKUs without stripes are left out.
+     */
+    @Query("select new com.programmingtechie.inventoryservice.repository.SkuQuantity(s.skuCode, cast(sum(s.quantity) as Integer)) " +
+            "from InventoryStripe s where s.skuCode in :skuCodes group by s.skuCode")
+    List<SkuQuantity> sumQuantitiesBySkuCodeIn(Collection<String> skuCodes);
+}
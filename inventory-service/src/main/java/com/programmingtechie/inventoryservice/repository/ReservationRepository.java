@@ -0,0 +1,28 @@
+package com.programmingtechie.inventoryservice.repository;
+
+import com.programmingtechie.inventoryservice.model.Reservation;
+import com.programmingtechie.inventoryservice.model.ReservationStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface ReservationRepository extends JpaRepository<Reservation, UUID> {
+
+    /**
+     * Moves a reservation from one status to another. Only one of several concurrent transitions out of the
+     * same status can succeed, which decides whether a confirm, release or expiry wins.
+     *
+     * @return 1 if the reservation was in the expected status, 0 otherwise
+     */
+    @Modifying
+    @Query("update Reservation r set r.status = :to where r.id = :id and r.status = :from")
+    int transition(UUID id, ReservationStatus from, ReservationStatus to);
+
+    @Query("select r.id from Reservation r where r.status = :status and r.expiresAt < :now order by r.expiresAt")
+    List<UUID> findIdsByStatusAndExpiresAtBefore(ReservationStatus status, Instant now, Limit limit);
+}
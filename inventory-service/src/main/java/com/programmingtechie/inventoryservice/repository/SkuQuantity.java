@@ -0,0 +1,7 @@
+package com.programmingtechie.inventoryservice.repository;
+
+/**
+ * Stock level of a SKU, read without hydrating the Inventory entity.
+ */
+public record SkuQuantity(String skuCode, int quantity) {
+}
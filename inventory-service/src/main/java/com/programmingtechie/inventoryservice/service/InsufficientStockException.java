@@ -0,0 +1,19 @@
+package com.programmingtechie.inventoryservice.service;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Thrown when a SKU of a reservation is unknown or has less stock than requested; answered with 409 Conflict.
+ */
+@Getter
+public class InsufficientStockException extends ResponseStatusException {
+
+    private final String skuCode;
+
+    public InsufficientStockException(String skuCode) {
+        super(HttpStatus.CONFLICT, "Insufficient stock for " + skuCode);
+        this.skuCode = skuCode;
+    }
+}
@@ -1,14 +1,25 @@
 package com.programmingtechie.inventoryservice.service;
 
+import com.programmingtechie.inventoryservice.dto.InventoryCheckItem;
 import com.programmingtechie.inventoryservice.dto.InventoryResponse;
 import com.programmingtechie.inventoryservice.repository.InventoryRepository;
-import lombok.RequiredArgsConstructor;
+import com.programmingtechie.inventoryservice.repository.SkuQuantity;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Service layer for inventory management operations.
@@ -16,35 +27,138 @@ import java.util.List;
  * Provides efficient bulk inventory checking for microservice communication.
  */
 @Service // Marks this class as a Spring service component
-@RequiredArgsConstructor // Generates constructor for final fields (dependency injection)
 @Slf4j // Lombok annotation for logging support
 public class InventoryService {
 
+    // Largest IN-list sent in one query; longer SKU lists are looked up in several queries
+    static final int MAX_IN_LIST_SIZE = 500;
+
     // Repository for database operations on Inventory entities
     private final InventoryRepository inventoryRepository;
+    // In-memory stock index, available when inventory.serving-mode=index
+    private final ObjectProvider<SkuStockIndex> skuStockIndex;
+    // Without striping there are no stripes to add, so stock levels are read from the inventory rows alone
+    private final boolean stripingEnabled;
+
+    public InventoryService(InventoryRepository inventoryRepository,
+                            ObjectProvider<SkuStockIndex> skuStockIndex,
+                            @Value("${inventory.striping.enabled:false}") boolean stripingEnabled) {
+        this.inventoryRepository = inventoryRepository;
+        this.skuStockIndex = skuStockIndex;
+        this.stripingEnabled = stripingEnabled;
+    }
 
     /**
      * Checks inventory availability for multiple products efficiently.
-     * Uses a single database query to fetch all requested SKUs and determines
-     * stock availability based on quantity greater than zero.
+     * Uses a single projection query over the unique SKU code index (one per {@value #MAX_IN_LIST_SIZE} SKUs)
+     * to read only the stock levels, and determines stock availability based on quantity greater than zero.
+     * In index serving mode the check is answered from the in-memory {@link SkuStockIndex} once it is
+     * loaded, without a database round-trip; no transaction is opened here so that no connection is taken
+     * for it (the repository query runs in its own read-only transaction).
      * 
      * @param skuCode List of SKU codes to check for availability
      * @return List of InventoryResponse DTOs with stock status for each SKU
      */
-    @Transactional(readOnly = true) // Read-only transaction for better performance and consistency
     @SneakyThrows // Lombok annotation to handle checked exceptions (if any)
     public List<InventoryResponse> isInStock(List<String> skuCode) {
         log.info("Checking Inventory");
-        
-        // Fetch inventory records for all requested SKU codes in a single query
-        // Transform entities to response DTOs using stream API and builder pattern
-        return inventoryRepository.findBySkuCodeIn(skuCode).stream()
-                .map(inventory ->
+
+        SkuStockIndex index = skuStockIndex.getIfAvailable();
+        if (index != null && index.isLoaded()) {
+            return index.isInStock(skuCode);
+        }
+
+        // Fetch the stock level of all requested SKU codes in a single query; striped SKUs include their stripes
+        // Transform projections to response DTOs using stream API and builder pattern
+        return findSkuQuantities(skuCode).stream()
+                .map(skuQuantity ->
                         InventoryResponse.builder()
-                                .skuCode(inventory.getSkuCode())
+                                .skuCode(skuQuantity.skuCode())
                                 // Determine stock availability: quantity > 0 means in stock
-                                .isInStock(inventory.getQuantity() > 0)
+                                .isInStock(skuQuantity.quantity() > 0)
+                                // Expose the available quantity so callers can cache and compare against it
+                                .quantity(skuQuantity.quantity())
                                 .build()
                 ).toList();
     }
+
+    /**
+     * Checks whether each SKU has at least the requested quantity available.
+     * Unlike {@link #isInStock(List)}, every requested item gets an entry: unknown SKUs are reported as not in
+     * stock with no quantity rather than being left out, so callers cannot mistake them for available products.
+     * The request is validated and stock levels are read eagerly; the returned stream only maps them to
+     * responses, in request order, so the controller can serialize it without building a response list.
+     *
+     * @param items SKU codes with the quantity required of each
+     * @return one response per requested item
+     * @throws ResponseStatusException 400 if an item has no SKU code or a quantity below one
+     */
+    public Stream<InventoryResponse> check(List<InventoryCheckItem> items) {
+        Set<String> skuCodes = validateCheckItems(items);
+        log.info("Checking Inventory for {} items", items.size());
+
+        SkuStockIndex index = skuStockIndex.getIfAvailable();
+        if (index != null && index.isLoaded()) {
+            return items.stream().map(item -> {
+                int quantity = index.getQuantity(item.getSkuCode());
+                return toCheckResponse(item, quantity == SkuStockIndex.MISSING ? null : quantity);
+            });
+        }
+
+        // One projection query for the distinct SKUs; entities are not needed to answer a check
+        Map<String, Integer> quantitiesBySkuCode = new HashMap<>(skuCodes.size() * 2);
+        for (SkuQuantity skuQuantity : findSkuQuantities(skuCodes)) {
+            quantitiesBySkuCode.put(skuQuantity.skuCode(), skuQuantity.quantity());
+        }
+        return items.stream().map(item -> toCheckResponse(item, quantitiesBySkuCode.get(item.getSkuCode())));
+    }
+
+    /**
+     * Validates the items of an inventory check, shared with {@link ReactiveInventoryService}.
+     *
+     * @return the distinct SKU codes of the items, in request order
+     * @throws ResponseStatusException 400 if an item has no SKU code or a quantity below one
+     */
+    static Set<String> validateCheckItems(List<InventoryCheckItem> items) {
+        Set<String> skuCodes = new LinkedHashSet<>();
+        for (InventoryCheckItem item : items) {
+            if (item.getSkuCode() == null || item.getSkuCode().isBlank()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Every item needs a SKU code");
+            }
+            if (item.getQuantity() != null && item.getQuantity() < 1) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantity must be at least 1");
+            }
+            skuCodes.add(item.getSkuCode());
+        }
+        return skuCodes;
+    }
+
+    private List<SkuQuantity> findSkuQuantities(Collection<String> skuCodes) {
+        List<String> distinctSkuCodes = List.copyOf(new LinkedHashSet<>(skuCodes));
+        if (distinctSkuCodes.size() <= MAX_IN_LIST_SIZE) {
+            return findSkuQuantitiesChunk(distinctSkuCodes);
+        }
+        List<SkuQuantity> skuQuantities = new ArrayList<>(distinctSkuCodes.size());
+        for (int from = 0; from < distinctSkuCodes.size(); from += MAX_IN_LIST_SIZE) {
+            skuQuantities.addAll(findSkuQuantitiesChunk(
+                    distinctSkuCodes.subList(from, Math.min(from + MAX_IN_LIST_SIZE, distinctSkuCodes.size()))));
+        }
+        return skuQuantities;
+    }
+
+    private List<SkuQuantity> findSkuQuantitiesChunk(List<String> skuCodes) {
+        return stripingEnabled
+                ? inventoryRepository.findSkuQuantitiesBySkuCodeIn(skuCodes)
+                : inventoryRepository.findInventoryQuantitiesBySkuCodeIn(skuCodes);
+    }
+
+    static InventoryResponse toCheckResponse(InventoryCheckItem item, Integer available) {
+        int required = item.getQuantity() == null ? 1 : item.getQuantity();
+        return InventoryResponse.builder()
+                .skuCode(item.getSkuCode())
+                // Unknown SKUs (no available quantity) are never in stock
+                .isInStock(available != null && available >= required)
+                .quantity(available)
+                .build();
+    }
 }
@@ -0,0 +1,122 @@
+package com.programmingtechie.inventoryservice.service;
+
+import com.programmingtechie.inventoryservice.dto.InventoryCheckItem;
+import com.programmingtechie.inventoryservice.dto.InventoryResponse;
+import com.programmingtechie.inventoryservice.repository.SkuQuantity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Non-blocking counterpart of {@link InventoryService} for the reactive profile.
+ * Answers the same availability checks with the same results, reading stock levels over R2DBC instead of
+ * JPA so that no request thread waits on the database. In index serving mode the checks are answered from
+ * the in-memory {@link SkuStockIndex} once it is loaded, exactly as in the servlet stack.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactiveInventoryService {
+
+    // Same projection as InventoryRepository#findSkuQuantitiesBySkuCodeIn: striped SKUs include their stripes
+    private static final String SKU_QUANTITIES_SQL =
+            "select i.sku_code, i.quantity + coalesce(sum(s.quantity), 0) as quantity " +
+            "from inventory i left join t_inventory_stripes s on s.sku_code = i.sku_code " +
+            "where i.sku_code in (:skuCodes) group by i.id, i.sku_code, i.quantity";
+    // Same projection as InventoryRepository#findInventoryQuantitiesBySkuCodeIn, used when striping is disabled
+    private static final String INVENTORY_QUANTITIES_SQL =
+            "select i.sku_code, i.quantity from inventory i where i.sku_code in (:skuCodes)";
+
+    private final DatabaseClient databaseClient;
+    // In-memory stock index, available when inventory.serving-mode=index
+    private final ObjectProvider<SkuStockIndex> skuStockIndex;
+    private final String skuQuantitiesSql;
+
+    public ReactiveInventoryService(DatabaseClient databaseClient,
+                                    ObjectProvider<SkuStockIndex> skuStockIndex,
+                                    @Value("${inventory.striping.enabled:false}") boolean stripingEnabled) {
+        this.databaseClient = databaseClient;
+        this.skuStockIndex = skuStockIndex;
+        this.skuQuantitiesSql = stripingEnabled ? SKU_QUANTITIES_SQL : INVENTORY_QUANTITIES_SQL;
+    }
+
+    /**
+     * Checks inventory availability for multiple products.
+     *
+     * @param skuCode List of SKU codes to check for availability
+     * @return one InventoryResponse per known SKU
+     * @see InventoryService#isInStock(List)
+     */
+    public Flux<InventoryResponse> isInStock(List<String> skuCode) {
+        log.info("Checking Inventory");
+
+        SkuStockIndex index = skuStockIndex.getIfAvailable();
+        if (index != null && index.isLoaded()) {
+            return Flux.fromIterable(index.isInStock(skuCode));
+        }
+
+        return findSkuQuantities(skuCode)
+                .map(skuQuantity -> InventoryResponse.builder()
+                        .skuCode(skuQuantity.skuCode())
+                        .isInStock(skuQuantity.quantity() > 0)
+                        .quantity(skuQuantity.quantity())
+                        .build());
+    }
+
+    /**
+     * Checks whether each SKU has at least the requested quantity available.
+     * The request is validated before anything is subscribed to, so invalid requests fail with a 400 before the
+     * response is committed.
+     *
+     * @param items SKU codes with the quantity required of each
+     * @return one response per requested item, in request order
+     * @throws ResponseStatusException 400 if an item has no SKU code or a quantity below one
+     * @see InventoryService#check(List)
+     */
+    public Flux<InventoryResponse> check(List<InventoryCheckItem> items) {
+        Set<String> skuCodes = InventoryService.validateCheckItems(items);
+        log.info("Checking Inventory for {} items", items.size());
+
+        SkuStockIndex index = skuStockIndex.getIfAvailable();
+        if (index != null && index.isLoaded()) {
+            return Flux.fromIterable(items).map(item -> {
+                int quantity = index.getQuantity(item.getSkuCode());
+                return InventoryService.toCheckResponse(item, quantity == SkuStockIndex.MISSING ? null : quantity);
+            });
+        }
+
+        // Items are answered in request order, so the stock levels of all SKUs are needed before the first one
+        return findSkuQuantities(skuCodes)
+                .collectMap(SkuQuantity::skuCode, SkuQuantity::quantity)
+                .flatMapMany(quantitiesBySkuCode -> Flux.fromIterable(items)
+                        .map(item -> InventoryService.toCheckResponse(item, quantitiesBySkuCode.get(item.getSkuCode()))));
+    }
+
+    private Flux<SkuQuantity> findSkuQuantities(Collection<String> skuCodes) {
+        List<String> distinctSkuCodes = List.copyOf(new LinkedHashSet<>(skuCodes));
+        if (distinctSkuCodes.isEmpty()) {
+            return Flux.empty();
+        }
+        // One query per InventoryService.MAX_IN_LIST_SIZE SKUs, run one after the other
+        int chunks = (distinctSkuCodes.size() + InventoryService.MAX_IN_LIST_SIZE - 1) / InventoryService.MAX_IN_LIST_SIZE;
+        return Flux.range(0, chunks)
+                .map(chunk -> distinctSkuCodes.subList(chunk * InventoryService.MAX_IN_LIST_SIZE,
+                        Math.min((chunk + 1) * InventoryService.MAX_IN_LIST_SIZE, distinctSkuCodes.size())))
+                .concatMap(chunk -> databaseClient.sql(skuQuantitiesSql)
+                        .bind("skuCodes", chunk)
+                        // The sum's type differs between databases (BIGINT, DECIMAL), so it is read as a Number
+                        .map(row -> new SkuQuantity(row.get("sku_code", String.class),
+                                ((Number) row.get("quantity")).intValue()))
+                        .all());
+    }
+}
@@ -0,0 +1,232 @@
+package com.programmingtechie.inventoryservice.service;
+
+import com.programmingtechie.inventoryservice.dto.ReservationItemDto;
+import com.programmingtechie.inventoryservice.dto.ReservationRequest;
+import com.programmingtechie.inventoryservice.dto.ReservationResponse;
+import com.programmingtechie.inventoryservice.event.StockChangedEvent;
+import com.programmingtechie.inventoryservice.model.Reservation;
+import com.programmingtechie.inventoryservice.model.ReservationItem;
+import com.programmingtechie.inventoryservice.model.ReservationStatus;
+import com.programmingtechie.inventoryservice.repository.InventoryRepository;
+import com.programmingtechie.inventoryservice.repository.ReservationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Service layer for stock reservations.
+ * A reservation takes stock out of inventory with one conditional UPDATE per SKU, all in one transaction:
+ * either every SKU has enough stock and all of them are decremented, or the transaction is rolled back.
+ * Nothing is read or locked beforehand, so concurrent orders for the same SKU only wait for each other's
+ * single-row update. Unconfirmed reservations are returned to stock when released or when they expire.
+ * When striping is enabled, hot SKUs are decremented through the {@link StripedStockService} instead, which
+ * spreads that single row over several.
+ */
+@Service
+@Slf4j
+public class ReservationService {
+
+    private final InventoryRepository inventoryRepository;
+    private final ReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    // Stock changes are published inside the transaction and observed after commit
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final MeterRegistry meterRegistry;
+    // Null unless inventory.striping.enabled=true
+    private final StripedStockService stripedStockService;
+    private final Duration ttl;
+    private final int expiryBatchSize;
+
+    public ReservationService(InventoryRepository inventoryRepository,
+                              ReservationRepository reservationRepository,
+                              TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher applicationEventPublisher,
+                              MeterRegistry meterRegistry,
+                              ObjectProvider<StripedStockService> stripedStockService,
+                              @Value("${inventory.reservation.ttl:10m}") Duration ttl,
+                              @Value("${inventory.reservation.expiry-batch-size:100}") int expiryBatchSize) {
+        this.inventoryRepository = inventoryRepository;
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.stripedStockService = stripedStockService.getIfAvailable();
+        this.ttl = ttl;
+        this.expiryBatchSize = expiryBatchSize;
+    }
+
+    /**
+     * Reserves all requested quantities, or none of them.
+     *
+     * @param reservationRequest SKUs and quantities to reserve
+     * @return the pending reservation
+     * @throws InsufficientStockException with 409 if a SKU is unknown or short of stock
+     */
+    public ReservationResponse reserve(ReservationRequest reservationRequest) {
+        // Sum duplicate SKUs and update in SKU order, so that two multi-SKU reservations always take their row
+        // locks in the same order and cannot deadlock
+        Map<String, Integer> quantitiesBySkuCode = new TreeMap<>();
+        for (ReservationItemDto item : validate(reservationRequest)) {
+            quantitiesBySkuCode.merge(item.getSkuCode(), item.getQuantity(), Integer::sum);
+        }
+        try {
+            return transactionTemplate.execute(status -> reserve(quantitiesBySkuCode));
+        } catch (InsufficientStockException e) {
+            // A striped SKU may have enough stock in total but not in the rows the decrement tried; once the
+            // failed transaction has released its locks, gather the stock into one row and try once more
+            if (stripedStockService == null || !stripedStockService.consolidate(e.getSkuCode())) {
+                count("rejected");
+                throw e;
+            }
+        }
+        try {
+            return transactionTemplate.execute(status -> reserve(quantitiesBySkuCode));
+        } catch (InsufficientStockException e) {
+            count("rejected");
+            throw e;
+        }
+    }
+
+    private ReservationResponse reserve(Map<String, Integer> quantitiesBySkuCode) {
+        quantitiesBySkuCode.forEach((skuCode, quantity) -> {
+            if (!decrement(skuCode, quantity)) {
+                // Rolls back the SKUs already decremented
+                throw new InsufficientStockException(skuCode);
+            }
+            applicationEventPublisher.publishEvent(new StockChangedEvent(skuCode, -quantity));
+        });
+
+        List<ReservationItem> items = quantitiesBySkuCode.entrySet().stream()
+                .map(entry -> new ReservationItem(entry.getKey(), entry.getValue()))
+                .toList();
+        Reservation reservation = reservationRepository.save(
+                new Reservation(null, ReservationStatus.PENDING, Instant.now().plus(ttl), items));
+        count("reserved");
+        return mapToResponse(reservation);
+    }
+
+    /**
+     * Confirms a pending reservation; its stock stays taken.
+     *
+     * @param reservationId reservation to confirm
+     */
+    @Transactional
+    public void confirm(UUID reservationId) {
+        if (reservationRepository.transition(reservationId, ReservationStatus.PENDING, ReservationStatus.CONFIRMED) == 0) {
+            throw notPending(reservationId);
+        }
+        count("confirmed");
+    }
+
+    /**
+     * Releases a pending reservation and returns its stock.
+     *
+     * @param reservationId reservation to release
+     */
+    @Transactional
+    public void release(UUID reservationId) {
+        if (!returnToStock(reservationId, ReservationStatus.RELEASED)) {
+            throw notPending(reservationId);
+        }
+        count("released");
+    }
+
+    /**
+     * Returns the stock of reservations that were neither confirmed nor released in time.
+     * Each reservation is expired in its own transaction, so one failure does not hold back the others.
+     */
+    @Scheduled(fixedDelayString = "${inventory.reservation.expiry-interval-ms:10000}")
+    public void releaseExpired() {
+        List<UUID> expiredIds = reservationRepository.findIdsByStatusAndExpiresAtBefore(ReservationStatus.PENDING,
+                Instant.now(), Limit.of(expiryBatchSize));
+        for (UUID reservationId : expiredIds) {
+            Boolean expired = transactionTemplate.execute(status ->
+                    returnToStock(reservationId, ReservationStatus.EXPIRED));
+            // Not expired if it was confirmed or released in the meantime
+            if (Boolean.TRUE.equals(expired)) {
+                count("expired");
+            }
+        }
+        if (!expiredIds.isEmpty()) {
+            log.info("Processed {} expired reservations", expiredIds.size());
+        }
+    }
+
+    private boolean returnToStock(UUID reservationId, ReservationStatus status) {
+        if (reservationRepository.transition(reservationId, ReservationStatus.PENDING, status) == 0) {
+            return false;
+        }
+        Reservation reservation = reservationRepository.findById(reservationId).orElseThrow();
+        reservation.getItems().stream()
+                .sorted(Comparator.comparing(ReservationItem::getSkuCode))
+                .forEach(item -> {
+                    increment(item.getSkuCode(), item.getQuantity());
+                    applicationEventPublisher.publishEvent(new StockChangedEvent(item.getSkuCode(), item.getQuantity()));
+                });
+        return true;
+    }
+
+    private boolean decrement(String skuCode, int quantity) {
+        if (stripedStockService != null) {
+            return stripedStockService.decrement(skuCode, quantity);
+        }
+        return inventoryRepository.decrementIfAvailable(skuCode, quantity) == 1;
+    }
+
+    private void increment(String skuCode, int quantity) {
+        if (stripedStockService != null) {
+            stripedStockService.increment(skuCode, quantity);
+        } else {
+            inventoryRepository.increment(skuCode, quantity);
+        }
+    }
+
+    private List<ReservationItemDto> validate(ReservationRequest reservationRequest) {
+        List<ReservationItemDto> items = reservationRequest.getItems();
+        if (items == null || items.isEmpty() || items.stream().anyMatch(item -> item == null
+                || item.getSkuCode() == null || item.getQuantity() == null || item.getQuantity() <= 0)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A reservation needs at least one item with a SKU code and a positive quantity");
+        }
+        return items;
+    }
+
+    private ResponseStatusException notPending(UUID reservationId) {
+        if (!reservationRepository.existsById(reservationId)) {
+            return new ResponseStatusException(HttpStatus.NOT_FOUND, "Reservation not found");
+        }
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Reservation is no longer pending");
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("inventory.reservations", "outcome", outcome).increment();
+    }
+
+    private ReservationResponse mapToResponse(Reservation reservation) {
+        return ReservationResponse.builder()
+                .reservationId(reservation.getId())
+                .status(reservation.getStatus())
+                .expiresAt(reservation.getExpiresAt())
+                .items(reservation.getItems().stream()
+                        .map(item -> new ReservationItemDto(item.getSkuCode(), item.getQuantity()))
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,300 @@
+package com.programmingtechie.inventoryservice.service;
+
+import com.programmingtechie.inventoryservice.dto.InventoryResponse;
+import com.programmingtechie.inventoryservice.event.StockChangedEvent;
+import com.programmingtechie.inventoryservice.repository.InventoryRepository;
+import com.programmingtechie.inventoryservice.repository.SkuQuantity;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of the stock level of every SKU, used when inventory.serving-mode=index.
+ * SKU codes and quantities live in two parallel arrays with open addressing, so a lookup hashes the
+ * (cached) String hash code, probes an array and returns a primitive int without allocating. Lookups use
+ * optimistic reads of a {@link StampedLock} and never block each other.
+ * The index is loaded once the application is ready and kept current write-through from committed
+ * {@link StockChangedEvent}s. It is rebuilt from the database periodically to pick up changes made
+ * elsewhere, such as by another replica.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.serving-mode", havingValue = "index")
+@Slf4j
+public class SkuStockIndex {
+
+    // Returned by getQuantity for SKUs that are not in the index
+    public static final int MISSING = -1;
+    // Object layout assumed by the memory estimate: compressed references, String plus its byte[] header
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int STRING_OVERHEAD_BYTES = 24 + ARRAY_HEADER_BYTES;
+
+    private final InventoryRepository inventoryRepository;
+    // Without striping the snapshot is read from the inventory rows alone
+    private final boolean stripingEnabled;
+    private final Timer lookupTimer;
+    private final StampedLock lock = new StampedLock();
+    // Replaced on resize and reload; mutated in place only under the write lock
+    private Table table = new Table(16);
+    // Stock changes applied while a reload reads the database, replayed onto the reloaded table; guarded by the
+    // write lock
+    private List<StockChangedEvent> changedDuringReload;
+    private volatile boolean loaded;
+
+    public SkuStockIndex(InventoryRepository inventoryRepository, MeterRegistry meterRegistry,
+                         @Value("${inventory.striping.enabled:false}") boolean stripingEnabled) {
+        this.inventoryRepository = inventoryRepository;
+        this.stripingEnabled = stripingEnabled;
+        this.lookupTimer = Timer.builder("inventory.index.lookups")
+                .description("Availability checks answered from the in-memory stock index")
+                .register(meterRegistry);
+        Gauge.builder("inventory.index.size", this, SkuStockIndex::size)
+                .description("SKUs held in the in-memory stock index")
+                .register(meterRegistry);
+        Gauge.builder("inventory.index.memory", this, SkuStockIndex::estimatedMemoryBytes)
+                .description("Estimated heap used by the in-memory stock index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the quantity in stock for a SKU.
+     *
+     * @param skuCode SKU code to look up
+     * @return quantity in stock, or {@link #MISSING} if the SKU is unknown
+     */
+    public int getQuantity(String skuCode) {
+        long stamp = lock.tryOptimisticRead();
+        int quantity = table.find(skuCode);
+        if (!lock.validate(stamp)) {
+            // A write overlapped the lookup; repeat it under the read lock
+            stamp = lock.readLock();
+            try {
+                quantity = table.find(skuCode);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return quantity;
+    }
+
+    /**
+     * Answers an availability check from the index.
+     *
+     * @param skuCodes SKU codes to check
+     * @return one response per SKU known to the index
+     */
+    public List<InventoryResponse> isInStock(List<String> skuCodes) {
+        long startNanos = System.nanoTime();
+        List<InventoryResponse> responses = new ArrayList<>(skuCodes.size());
+        for (String skuCode : skuCodes) {
+            int quantity = getQuantity(skuCode);
+            if (quantity != MISSING) {
+                responses.add(new InventoryResponse(skuCode, quantity > 0, quantity));
+            }
+        }
+        lookupTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        return responses;
+    }
+
+    /**
+     * @return true once the index has been loaded and can answer lookups
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Rebuilds the index from the database and swaps it in.
+     * Runs once the application is ready, after the data loaders, and then periodically.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${inventory.index.reload-interval-ms:60000}",
+            fixedDelayString = "${inventory.index.reload-interval-ms:60000}")
+    @Transactional(readOnly = true)
+    public synchronized void reload() {
+        // Buffering starts before the query takes its snapshot, so every change the snapshot misses is replayed.
+        // A change committed just before the snapshot whose event arrives just after is counted twice until the
+        // next reload.
+        long stamp = lock.writeLock();
+        try {
+            changedDuringReload = new ArrayList<>();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        Table reloaded = new Table(16);
+        try (Stream<SkuQuantity> skuQuantities = stripingEnabled
+                ? inventoryRepository.streamAllSkuQuantities()
+                : inventoryRepository.streamAllInventoryQuantities()) {
+            Iterator<SkuQuantity> iterator = skuQuantities.iterator();
+            while (iterator.hasNext()) {
+                SkuQuantity skuQuantity = iterator.next();
+                reloaded = reloaded.put(skuQuantity.skuCode(), skuQuantity.quantity());
+            }
+        } catch (RuntimeException e) {
+            stamp = lock.writeLock();
+            try {
+                changedDuringReload = null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            throw e;
+        }
+        stamp = lock.writeLock();
+        try {
+            for (StockChangedEvent change : changedDuringReload) {
+                reloaded.add(change.getSkuCode(), change.getDelta());
+            }
+            changedDuringReload = null;
+            table = reloaded;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        loaded = true;
+        log.info("Loaded {} SKUs into the stock index", reloaded.size);
+    }
+
+    /**
+     * Applies a committed stock change. Unknown SKUs are left to the next reload.
+     */
+    @TransactionalEventListener
+    public void onStockChanged(StockChangedEvent event) {
+        add(event.getSkuCode(), event.getDelta());
+    }
+
+    void put(String skuCode, int quantity) {
+        long stamp = lock.writeLock();
+        try {
+            table = table.put(skuCode, quantity);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void add(String skuCode, int delta) {
+        long stamp = lock.writeLock();
+        try {
+            table.add(skuCode, delta);
+            if (changedDuringReload != null) {
+                changedDuringReload.add(new StockChangedEvent(skuCode, delta));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        long stamp = lock.readLock();
+        try {
+            return table.size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Estimates the heap held by the index: both arrays plus the SKU code strings, assuming compressed
+     * references and Latin-1 strings.
+     */
+    long estimatedMemoryBytes() {
+        long stamp = lock.readLock();
+        try {
+            return 2 * ARRAY_HEADER_BYTES + (long) table.keys.length * (REFERENCE_BYTES + Integer.BYTES)
+                    + table.stringBytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Open addressing hash table with linear probing, kept at most half full so that probes stay short and
+     * an optimistic reader always reaches an empty slot.
+     */
+    private static final class Table {
+        private final String[] keys;
+        private final int[] quantities;
+        private final int mask;
+        private int size;
+        private long stringBytes;
+
+        private Table(int capacity) {
+            this.keys = new String[capacity];
+            this.quantities = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private int find(String skuCode) {
+            String[] keys = this.keys;
+            for (int slot = slot(skuCode); ; slot = (slot + 1) & mask) {
+                String key = keys[slot];
+                if (key == null) {
+                    return MISSING;
+                }
+                if (key.equals(skuCode)) {
+                    return quantities[slot];
+                }
+            }
+        }
+
+        /**
+         * @return this table, or a larger copy if it had to grow
+         */
+        private Table put(String skuCode, int quantity) {
+            if ((size + 1) * 2 > keys.length) {
+                return grow().put(skuCode, quantity);
+            }
+            int slot = slot(skuCode);
+            while (keys[slot] != null && !keys[slot].equals(skuCode)) {
+                slot = (slot + 1) & mask;
+            }
+            quantities[slot] = quantity;
+            if (keys[slot] == null) {
+                keys[slot] = skuCode;
+                size++;
+                stringBytes += STRING_OVERHEAD_BYTES + skuCode.length();
+            }
+            return this;
+        }
+
+        private void add(String skuCode, int delta) {
+            for (int slot = slot(skuCode); keys[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot].equals(skuCode)) {
+                    quantities[slot] += delta;
+                    return;
+                }
+            }
+        }
+
+        private Table grow() {
+            Table grown = new Table(keys.length * 2);
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != null) {
+                    grown.put(keys[slot], quantities[slot]);
+                }
+            }
+            return grown;
+        }
+
+        private int slot(String skuCode) {
+            int hash = skuCode.hashCode();
+            // Spread the high bits, since the mask only keeps the low ones
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.programmingtechie.inventoryservice.service;
+
+import com.programmingtechie.inventoryservice.event.StockChangedEvent;
+import com.programmingtechie.inventoryservice.repository.InventoryRepository;
+import com.programmingtechie.inventoryservice.repository.SkuQuantity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes committed stock changes to stockChangeTopic, keyed by SKU code so that the changes of one SKU stay
+ * in order within a partition.
+ * Changes are not sent one by one: they are summed per SKU and flushed every coalescing window, so a burst of
+ * reservations for a hot SKU becomes a single event carrying the net delta, and changes that cancel out are not
+ * sent at all. Every event also carries the stock level of its SKU, read when the event is sent. A send that
+ * fails may still have reached the broker, and its delta is sent again with the next flush, so consumers should
+ * take the quantity, which converges, rather than add up deltas. Pending deltas are flushed on shutdown, but
+ * they live in memory and are lost if the service dies; consumers keeping a view of stock levels should also
+ * reload it periodically, as the {@link SkuStockIndex} does.
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.stock-events.enabled", havingValue = "true")
+@Slf4j
+public class StockEventPublisher {
+
+    static final String TOPIC = "stockChangeTopic";
+
+    private final KafkaTemplate<String, StockChangedEvent> kafkaTemplate;
+    private final InventoryRepository inventoryRepository;
+    // Without striping the stock level is read from the inventory rows alone
+    private final boolean stripingEnabled;
+    private final Counter changesCounter;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    // Net delta per SKU not yet sent
+    private final Map<String, Integer> pendingDeltas = new ConcurrentHashMap<>();
+    // SKUs whose last send failed; they are sent with the next flush even if their delta cancels out, so that
+    // consumers get their current stock level
+    private final Set<String> failedSkus = ConcurrentHashMap.newKeySet();
+
+    public StockEventPublisher(KafkaTemplate<String, StockChangedEvent> kafkaTemplate,
+                               InventoryRepository inventoryRepository, MeterRegistry meterRegistry,
+                               @Value("${inventory.striping.enabled:false}") boolean stripingEnabled) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.inventoryRepository = inventoryRepository;
+        this.stripingEnabled = stripingEnabled;
+        this.changesCounter = Counter.builder("inventory.stock-events.changes")
+                .description("Committed stock changes collected for publishing")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("inventory.stock-events.published")
+                .description("Coalesced stock change events sent to Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("inventory.stock-events.failed")
+                .description("Stock change events Kafka did not confirm; their SKU is sent again with the next flush")
+                .register(meterRegistry);
+        meterRegistry.gauge("inventory.stock-events.pending", pendingDeltas, Map::size);
+    }
+
+    @TransactionalEventListener
+    public void onStockChanged(StockChangedEvent event) {
+        pendingDeltas.merge(event.getSkuCode(), event.getDelta(), Integer::sum);
+        changesCounter.increment();
+    }
+
+    /**
+     * Sends one event per SKU whose stock changed since the last flush, with the current stock level of the SKU.
+     *
+     * @return number of events sent
+     */
+    @Scheduled(fixedDelayString = "${inventory.stock-events.coalesce-window-ms:100}")
+    public int flush() {
+        Set<String> skuCodes = new LinkedHashSet<>(pendingDeltas.keySet());
+        skuCodes.addAll(failedSkus);
+        if (skuCodes.isEmpty()) {
+            return 0;
+        }
+        Map<String, Integer> deltas = new HashMap<>();
+        for (String skuCode : skuCodes) {
+            // Changes arriving after the removal start a new pending delta for the next flush
+            Integer delta = pendingDeltas.remove(skuCode);
+            boolean failedBefore = failedSkus.remove(skuCode);
+            if (failedBefore || (delta != null && delta != 0)) {
+                deltas.put(skuCode, delta == null ? 0 : delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        // Read after the deltas were taken, so the quantity includes at least every change in them
+        Map<String, Integer> quantities = new HashMap<>();
+        try {
+            for (SkuQuantity skuQuantity : findQuantities(List.copyOf(deltas.keySet()))) {
+                quantities.put(skuQuantity.skuCode(), skuQuantity.quantity());
+            }
+        } catch (RuntimeException e) {
+            // Keep the changes for the next flush
+            deltas.forEach((skuCode, delta) -> {
+                pendingDeltas.merge(skuCode, delta, Integer::sum);
+                failedSkus.add(skuCode);
+            });
+            throw e;
+        }
+        for (Map.Entry<String, Integer> entry : deltas.entrySet()) {
+            String skuCode = entry.getKey();
+            int delta = entry.getValue();
+            kafkaTemplate.send(TOPIC, skuCode, new StockChangedEvent(skuCode, delta, quantities.get(skuCode)))
+                    .whenComplete((result, e) -> {
+                        if (e != null) {
+                            failedCounter.increment();
+                            log.warn("Error while sending StockChangedEvent for {} to Kafka, retrying with the next flush",
+                                    skuCode, e);
+                            pendingDeltas.merge(skuCode, delta, Integer::sum);
+                            failedSkus.add(skuCode);
+                        }
+                    });
+        }
+        publishedCounter.increment(deltas.size());
+        return deltas.size();
+    }
+
+    /**
+     * Sends the changes of the last coalescing window before the service stops and waits for Kafka to take them.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        int sent = flush();
+        kafkaTemplate.flush();
+        log.info("Flushed {} pending stock change events on shutdown", sent);
+    }
+
+    private List<SkuQuantity> findQuantities(List<String> skuCodes) {
+        return stripingEnabled
+                ? inventoryRepository.findSkuQuantitiesBySkuCodeIn(skuCodes)
+                : inventoryRepository.findInventoryQuantitiesBySkuCodeIn(skuCodes);
+    }
+}
@@ -0,0 +1,286 @@
+package com.programmingtechie.inventoryservice.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.programmingtechie.inventoryservice.dto.StockImportResult;
+import com.programmingtechie.inventoryservice.event.StockChangedEvent;
+import com.programmingtechie.inventoryservice.repository.InventoryRepository;
+import com.programmingtechie.inventoryservice.repository.InventoryStripeRepository;
+import com.programmingtechie.inventoryservice.repository.SkuQuantity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports absolute stock levels, e.g. from the nightly warehouse sync.
+ * The file is read line by line and upserted in JDBC batches of {@code inventory.import.batch-size} rows, each
+ * batch in its own transaction, so memory use is bounded by one batch whatever the file size and a failure only
+ * loses the batch it happened in. Rows longer than {@code inventory.import.max-row-length} characters are counted
+ * as invalid without being read into memory. The upsert uses the database's native statement (ON DUPLICATE KEY UPDATE,
+ * ON CONFLICT or MERGE) on the unique SKU code index.
+ * Imported quantities replace the SKU's whole stock: the stripes of striped SKUs are emptied, and the change
+ * against the previous level is published as a {@link StockChangedEvent} so that the stock index and Kafka
+ * consumers follow along.
+ */
+@Service
+@Slf4j
+public class StockImportService {
+
+    // Progress is logged every this many rows
+    private static final long PROGRESS_INTERVAL = 100_000;
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format of(MediaType mediaType) {
+            if (MediaType.APPLICATION_NDJSON.isCompatibleWith(mediaType)) {
+                return NDJSON;
+            }
+            if (MediaType.parseMediaType("text/csv").isCompatibleWith(mediaType)) {
+                return CSV;
+            }
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Stock can be imported from CSV or NDJSON");
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryStripeRepository inventoryStripeRepository;
+    private final TransactionTemplate transactionTemplate;
+    // Stock changes are published inside each batch's transaction and observed after commit
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ObjectProvider<SkuStockIndex> skuStockIndex;
+    private final ObjectReader rowReader;
+    private final int batchSize;
+    private final int maxRowLength;
+    private final Counter importedCounter;
+    private final Counter invalidCounter;
+    private final Timer batchTimer;
+    // Resolved from the database on first use
+    private volatile String upsertSql;
+
+    public StockImportService(JdbcTemplate jdbcTemplate,
+                              InventoryRepository inventoryRepository,
+                              InventoryStripeRepository inventoryStripeRepository,
+                              TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher applicationEventPublisher,
+                              ObjectProvider<SkuStockIndex> skuStockIndex,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${inventory.import.batch-size:1000}") int batchSize,
+                              @Value("${inventory.import.max-row-length:4096}") int maxRowLength) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.inventoryRepository = inventoryRepository;
+        this.inventoryStripeRepository = inventoryStripeRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.skuStockIndex = skuStockIndex;
+        this.rowReader = objectMapper.readerFor(ImportRow.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.batchSize = batchSize;
+        this.maxRowLength = maxRowLength;
+        this.importedCounter = Counter.builder("inventory.import.rows")
+                .description("Stock import rows by outcome")
+                .tag("outcome", "imported")
+                .register(meterRegistry);
+        this.invalidCounter = Counter.builder("inventory.import.rows")
+                .description("Stock import rows by outcome")
+                .tag("outcome", "invalid")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("inventory.import.batch")
+                .description("Time to upsert one batch of imported stock levels")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Imports stock levels from a CSV ({@code skuCode,quantity} per line, optional header) or NDJSON
+     * ({@code {"skuCode":"...","quantity":n}} per line) stream. Invalid rows are counted and skipped.
+     *
+     * @param upload stream to read; not closed
+     * @param format format of the stream
+     * @return counts and duration of the import
+     */
+    public StockImportResult importStock(InputStream upload, Format format) throws IOException {
+        long startNanos = System.nanoTime();
+        // Few SKUs are striped, so their codes are loaded once rather than checked per row
+        Set<String> stripedSkuCodes = new HashSet<>(inventoryStripeRepository.findStripedSkuCodes());
+        Map<String, Integer> batch = new LinkedHashMap<>();
+        long rows = 0;
+        long invalid = 0;
+        long imported = 0;
+
+        BoundedLineReader reader = new BoundedLineReader(new InputStreamReader(upload, StandardCharsets.UTF_8),
+                maxRowLength);
+        boolean firstLine = true;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (reader.isTruncated()) {
+                firstLine = false;
+                rows++;
+                invalid++;
+                invalidCounter.increment();
+                continue;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            ImportRow row = parse(line, format);
+            if (row == null && firstLine && format == Format.CSV) {
+                // Header line
+                firstLine = false;
+                continue;
+            }
+            firstLine = false;
+            rows++;
+            if (row == null) {
+                invalid++;
+                invalidCounter.increment();
+                continue;
+            }
+            // A SKU repeated within the batch keeps its last quantity
+            batch.put(row.skuCode(), row.quantity());
+            if (batch.size() >= batchSize) {
+                imported += writeBatch(batch, stripedSkuCodes);
+                batch.clear();
+            }
+            if (rows % PROGRESS_INTERVAL == 0) {
+                log.info("Stock import progress: {} rows read, {} imported, {} invalid", rows, imported, invalid);
+            }
+        }
+        if (!batch.isEmpty()) {
+            imported += writeBatch(batch, stripedSkuCodes);
+        }
+
+        // The index only follows changes of SKUs it already knows; pick up the new ones
+        SkuStockIndex index = skuStockIndex.getIfAvailable();
+        if (index != null && imported > 0) {
+            index.reload();
+        }
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        log.info("Imported {} of {} stock rows in {} ms ({} invalid)", imported, rows, durationMillis, invalid);
+        return new StockImportResult(rows, imported, invalid, durationMillis);
+    }
+
+    private int writeBatch(Map<String, Integer> quantitiesBySkuCode, Set<String> stripedSkuCodes) {
+        return batchTimer.record(() -> transactionTemplate.execute(status -> {
+            Map<String, Integer> previousQuantities = findQuantities(List.copyOf(quantitiesBySkuCode.keySet()),
+                    stripedSkuCodes);
+
+            List<Map.Entry<String, Integer>> rows = List.copyOf(quantitiesBySkuCode.entrySet());
+            jdbcTemplate.batchUpdate(upsertSql(), rows, rows.size(), (statement, row) -> {
+                statement.setString(1, row.getKey());
+                statement.setInt(2, row.getValue());
+            });
+            List<String> striped = rows.stream()
+                    .map(Map.Entry::getKey)
+                    .filter(stripedSkuCodes::contains)
+                    .toList();
+            if (!striped.isEmpty()) {
+                jdbcTemplate.batchUpdate("update t_inventory_stripes set quantity = 0 where sku_code = ?", striped,
+                        striped.size(), (statement, skuCode) -> statement.setString(1, skuCode));
+            }
+
+            rows.forEach(row -> {
+                int delta = row.getValue() - previousQuantities.getOrDefault(row.getKey(), 0);
+                if (delta != 0) {
+                    applicationEventPublisher.publishEvent(new StockChangedEvent(row.getKey(), delta));
+                }
+            });
+            importedCounter.increment(rows.size());
+            return rows.size();
+        }));
+    }
+
+    /**
+     * Reads the current stock of the given SKUs. The inventory rows are read without joining the stripes, which
+     * are only summed for the few SKUs known to be striped.
+     */
+    private Map<String, Integer> findQuantities(List<String> skuCodes, Set<String> stripedSkuCodes) {
+        Map<String, Integer> quantities = new HashMap<>(skuCodes.size() * 2);
+        for (int from = 0; from < skuCodes.size(); from += InventoryService.MAX_IN_LIST_SIZE) {
+            List<String> chunk = skuCodes.subList(from, Math.min(from + InventoryService.MAX_IN_LIST_SIZE, skuCodes.size()));
+            for (SkuQuantity skuQuantity : inventoryRepository.findInventoryQuantitiesBySkuCodeIn(chunk)) {
+                quantities.put(skuQuantity.skuCode(), skuQuantity.quantity());
+            }
+        }
+        List<String> striped = skuCodes.stream().filter(stripedSkuCodes::contains).toList();
+        if (!striped.isEmpty()) {
+            for (SkuQuantity stripes : inventoryStripeRepository.sumQuantitiesBySkuCodeIn(striped)) {
+                quantities.merge(stripes.skuCode(), stripes.quantity(), Integer::sum);
+            }
+        }
+        return quantities;
+    }
+
+    private String upsertSql() {
+        String sql = upsertSql;
+        if (sql == null) {
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            sql = switch (String.valueOf(database)) {
+                case "MySQL", "MariaDB" ->
+                        "insert into inventory (sku_code, quantity) values (?, ?) on duplicate key update quantity = values(quantity)";
+                case "PostgreSQL" ->
+                        "insert into inventory (sku_code, quantity) values (?, ?) on conflict (sku_code) do update set quantity = excluded.quantity";
+                case "H2" -> "merge into inventory (sku_code, quantity) key (sku_code) values (?, ?)";
+                default -> throw new IllegalStateException("Stock import does not support " + database);
+            };
+            upsertSql = sql;
+        }
+        return sql;
+    }
+
+    private ImportRow parse(String line, Format format) {
+        ImportRow row;
+        try {
+            row = format == Format.NDJSON ? rowReader.readValue(line) : parseCsv(line);
+        } catch (IOException | NumberFormatException e) {
+            return null;
+        }
+        if (row == null || row.skuCode() == null || row.skuCode().isBlank()
+                || row.quantity() == null || row.quantity() < 0) {
+            return null;
+        }
+        return row;
+    }
+
+    private ImportRow parseCsv(String line) {
+        // The quantity is the last column, so SKU codes may contain commas
+        int separator = line.lastIndexOf(',');
+        if (separator < 0) {
+            return null;
+        }
+        String skuCode = line.substring(0, separator).trim();
+        if (skuCode.length() >= 2 && skuCode.startsWith("\"") && skuCode.endsWith("\"")) {
+            skuCode = skuCode.substring(1, skuCode.length() - 1);
+        }
+        return new ImportRow(skuCode, Integer.valueOf(line.substring(separator + 1).trim()));
+    }
+
+    record ImportRow(String skuCode, Integer quantity) {
+    }
+}
@@ -0,0 +1,232 @@
+package com.programmingtechie.inventoryservice.service;
+
+import com.programmingtechie.inventoryservice.model.Inventory;
+import com.programmingtechie.inventoryservice.model.InventoryStripe;
+import com.programmingtechie.inventoryservice.repository.InventoryRepository;
+import com.programmingtechie.inventoryservice.repository.InventoryStripeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Spreads the stock of hot SKUs over several stripe rows so that flash-sale decrements do not all queue on the
+ * SKU's single inventory row.
+ * A decrement of a striped SKU tries one random stripe and falls back to the inventory row, so a reservation
+ * touches at most two rows per SKU and always in the same order (stripe, then inventory row); that order is
+ * also the one the rebalancer locks in, so neither can deadlock the other. Stripes that run dry are refilled
+ * in the background by spreading the SKU's whole stock evenly again. Once too little is left to be worth
+ * spreading, all of it goes back to the inventory row, so the last units are never stranded in a stripe that
+ * requests happen not to pick. A request larger than any single row can take is rejected by the decrement;
+ * the caller can then {@link #consolidate(String) gather} the stripes into the inventory row and retry.
+ * SKUs are striped automatically once their decrement rate crosses the hot threshold; the striped set is
+ * shared through the database, and a replica that has not yet seen a new stripe keeps using the inventory row,
+ * which stays correct.
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.striping.enabled", havingValue = "true")
+@Slf4j
+public class StripedStockService {
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryStripeRepository inventoryStripeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int stripes;
+    private final double hotThreshold;
+    private final int minQuantityPerStripe;
+    private final Counter stripeDecrements;
+    private final Counter inventoryRowDecrements;
+    private final Counter rebalances;
+
+    // SKUs known to have stripe rows
+    private final Set<String> stripedSkus = ConcurrentHashMap.newKeySet();
+    // Striped SKUs with a stripe that ran dry since the last rebalance
+    private final Set<String> drySkus = ConcurrentHashMap.newKeySet();
+    // Decrement requests per SKU since the last detection run; swapped out by each run
+    private volatile Map<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+    private long lastDetectionNanos = System.nanoTime();
+
+    public StripedStockService(InventoryRepository inventoryRepository,
+                               InventoryStripeRepository inventoryStripeRepository,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${inventory.striping.stripes:8}") int stripes,
+                               @Value("${inventory.striping.hot-threshold:200}") double hotThreshold,
+                               @Value("${inventory.striping.min-quantity-per-stripe:10}") int minQuantityPerStripe) {
+        this.inventoryRepository = inventoryRepository;
+        this.inventoryStripeRepository = inventoryStripeRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.stripes = stripes;
+        this.hotThreshold = hotThreshold;
+        this.minQuantityPerStripe = minQuantityPerStripe;
+        this.stripeDecrements = Counter.builder("inventory.striping.decrements")
+                .description("Decrements by the row that served them")
+                .tag("row", "stripe")
+                .register(meterRegistry);
+        this.inventoryRowDecrements = Counter.builder("inventory.striping.decrements")
+                .description("Decrements by the row that served them")
+                .tag("row", "inventory")
+                .register(meterRegistry);
+        this.rebalances = Counter.builder("inventory.striping.rebalances")
+                .description("Times a striped SKU's stock was spread over its stripes again")
+                .register(meterRegistry);
+        meterRegistry.gauge("inventory.striping.hot-skus", stripedSkus, Set::size);
+    }
+
+    /**
+     * Takes the quantity out of stock if enough is available in the row it is routed to. Must be called inside
+     * the caller's transaction, like {@link InventoryRepository#decrementIfAvailable(String, int)}.
+     *
+     * @return true if the stock was taken
+     */
+    public boolean decrement(String skuCode, int quantity) {
+        requestCounts.computeIfAbsent(skuCode, key -> new LongAdder()).increment();
+        if (stripedSkus.contains(skuCode)) {
+            int stripe = ThreadLocalRandom.current().nextInt(stripes);
+            if (inventoryStripeRepository.decrementIfAvailable(skuCode, stripe, quantity) == 1) {
+                stripeDecrements.increment();
+                return true;
+            }
+            drySkus.add(skuCode);
+        }
+        if (inventoryRepository.decrementIfAvailable(skuCode, quantity) == 1) {
+            inventoryRowDecrements.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns stock to a random stripe of a striped SKU, or to its inventory row otherwise.
+     */
+    public void increment(String skuCode, int quantity) {
+        if (stripedSkus.contains(skuCode) && inventoryStripeRepository.increment(skuCode,
+                ThreadLocalRandom.current().nextInt(stripes), quantity) == 1) {
+            return;
+        }
+        inventoryRepository.increment(skuCode, quantity);
+    }
+
+    /**
+     * Stripes every SKU whose decrement rate since the last run reached the hot threshold, and picks up SKUs
+     * striped by other replicas.
+     */
+    @Scheduled(fixedDelayString = "${inventory.striping.detection-interval-ms:1000}")
+    public void detectHotSkus() {
+        long now = System.nanoTime();
+        double elapsedSeconds = Math.max(now - lastDetectionNanos, 1) / 1e9;
+        lastDetectionNanos = now;
+        // Increments racing with the swap may land in the old map and be missed, which a rate estimate tolerates
+        Map<String, LongAdder> counts = requestCounts;
+        requestCounts = new ConcurrentHashMap<>();
+
+        refreshStripedSkus();
+        counts.forEach((skuCode, count) -> {
+            if (!stripedSkus.contains(skuCode) && count.sum() / elapsedSeconds >= hotThreshold) {
+                stripe(skuCode);
+            }
+        });
+    }
+
+    /**
+     * Refills the stripes that ran dry since the last run.
+     */
+    @Scheduled(fixedDelayString = "${inventory.striping.rebalance-interval-ms:200}")
+    public void rebalanceDrySkus() {
+        for (String skuCode : List.copyOf(drySkus)) {
+            drySkus.remove(skuCode);
+            rebalance(skuCode);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadStripedSkus() {
+        refreshStripedSkus();
+        log.info("Loaded {} striped SKUs", stripedSkus.size());
+    }
+
+    private void refreshStripedSkus() {
+        Set<String> current = new HashSet<>(inventoryStripeRepository.findStripedSkuCodes());
+        stripedSkus.addAll(current);
+        stripedSkus.retainAll(current);
+    }
+
+    /**
+     * Splits a SKU into stripes and spreads its stock over them.
+     */
+    public void stripe(String skuCode) {
+        // Unknown SKUs can be requested just as often, but have no stock to spread
+        if (!inventoryRepository.existsBySkuCode(skuCode)) {
+            return;
+        }
+        try {
+            inventoryStripeRepository.saveAll(IntStream.range(0, stripes)
+                    .mapToObj(stripe -> new InventoryStripe(null, skuCode, stripe, 0))
+                    .toList());
+            log.info("Striped hot SKU {} into {} stripes", skuCode, stripes);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("SKU {} was already striped by another replica", skuCode);
+        }
+        stripedSkus.add(skuCode);
+        rebalance(skuCode);
+    }
+
+    /**
+     * Spreads the SKU's stock evenly over its stripes and inventory row, or moves all of it to the inventory row
+     * when there is too little left to spread.
+     */
+    public void rebalance(String skuCode) {
+        redistribute(skuCode, false);
+        rebalances.increment();
+    }
+
+    /**
+     * Moves all of a striped SKU's stock to its inventory row. Must not be called while holding locks on the
+     * SKU's rows, i.e. outside the transaction whose decrement failed.
+     *
+     * @return true if any stock was moved out of the stripes
+     */
+    public boolean consolidate(String skuCode) {
+        return stripedSkus.contains(skuCode) && redistribute(skuCode, true);
+    }
+
+    private boolean redistribute(String skuCode, boolean consolidate) {
+        Boolean moved = transactionTemplate.execute(status -> {
+            // Stripes first, then the inventory row: the order decrements take their locks in
+            List<InventoryStripe> stripeRows = inventoryStripeRepository.findForUpdateBySkuCodeOrderByStripe(skuCode);
+            Optional<Inventory> inventory = inventoryRepository.findForUpdateBySkuCode(skuCode);
+            if (stripeRows.isEmpty() || inventory.isEmpty()) {
+                return false;
+            }
+            int striped = stripeRows.stream().mapToInt(InventoryStripe::getQuantity).sum();
+            int total = inventory.get().getQuantity() + striped;
+            int rows = stripeRows.size() + 1;
+            int share = !consolidate && total >= rows * minQuantityPerStripe ? total / rows : 0;
+            stripeRows.forEach(stripeRow -> stripeRow.setQuantity(share));
+            inventory.get().setQuantity(total - share * stripeRows.size());
+            return striped != share * stripeRows.size();
+        });
+        return Boolean.TRUE.equals(moved);
+    }
+
+    boolean isStriped(String skuCode) {
+        return stripedSkus.contains(skuCode);
+    }
+}
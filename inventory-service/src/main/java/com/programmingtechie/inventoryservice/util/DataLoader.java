@@ -12,15 +12,19 @@ public class DataLoader implements CommandLineRunner {
     private final InventoryRepository inventoryRepository;
     @Override
     public void run(String... args) throws Exception {
-        Inventory inventory = new Inventory();
-        inventory.setSkuCode("iphone_13");
-        inventory.setQuantity(100);
+        // SKU codes are unique, so sample data is only inserted once
+        if (!inventoryRepository.existsBySkuCode("iphone_13")) {
+            Inventory inventory = new Inventory();
+            inventory.setSkuCode("iphone_13");
+            inventory.setQuantity(100);
+            inventoryRepository.save(inventory);
+        }
 
-        Inventory inventory1 = new Inventory();
-        inventory1.setSkuCode("iphone_13_red");
-        inventory1.setQuantity(0);
-
-        inventoryRepository.save(inventory);
-        inventoryRepository.save(inventory1);
+        if (!inventoryRepository.existsBySkuCode("iphone_13_red")) {
+            Inventory inventory1 = new Inventory();
+            inventory1.setSkuCode("iphone_13_red");
+            inventory1.setQuantity(0);
+            inventoryRepository.save(inventory1);
+        }
     }
 }
@@ -0,0 +1,57 @@
+package com.programmingtechie.inventoryservice.util;
+
+import com.programmingtechie.inventoryservice.dto.StockImportResult;
+import com.programmingtechie.inventoryservice.service.StockImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Imports a stock file given on the command line and exits, for batch jobs such as the nightly warehouse sync:
+ * java -jar inventory-service.jar --spring.main.web-application-type=none --inventory.import.file=stock.csv
+ * Files ending in .ndjson or .jsonl are read as NDJSON, anything else as CSV.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.import.file")
+@Slf4j
+public class StockImportRunner implements CommandLineRunner {
+
+    private final StockImportService stockImportService;
+    private final ConfigurableApplicationContext applicationContext;
+    private final Path file;
+
+    public StockImportRunner(StockImportService stockImportService,
+                             ConfigurableApplicationContext applicationContext,
+                             @Value("${inventory.import.file}") Path file) {
+        this.stockImportService = stockImportService;
+        this.applicationContext = applicationContext;
+        this.file = file;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        String fileName = file.getFileName().toString();
+        StockImportService.Format format = fileName.endsWith(".ndjson") || fileName.endsWith(".jsonl")
+                ? StockImportService.Format.NDJSON
+                : StockImportService.Format.CSV;
+        int exitCode;
+        try (InputStream upload = Files.newInputStream(file)) {
+            StockImportResult result = stockImportService.importStock(upload, format);
+            log.info("Stock import of {} finished: {}", file, result);
+            exitCode = 0;
+        } catch (Exception e) {
+            log.error("Stock import of {} failed", file, e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(applicationContext, () -> code));
+    }
+}
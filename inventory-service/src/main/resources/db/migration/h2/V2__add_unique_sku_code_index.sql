@@ -0,0 +1,5 @@
+delete from inventory duplicate
+    where exists (select 1 from inventory original
+                  where original.sku_code = duplicate.sku_code and original.id < duplicate.id);
+
+create unique index ux_inventory_sku_code on inventory (sku_code);
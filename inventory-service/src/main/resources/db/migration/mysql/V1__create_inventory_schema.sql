@@ -0,0 +1,31 @@
+-- Schema as previously generated by Hibernate; "if not exists" lets databases created that way be baselined
+create table if not exists inventory (
+    id bigint not null auto_increment,
+    quantity integer,
+    sku_code varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table if not exists t_inventory_reservations (
+    id binary(16) not null,
+    expires_at datetime(6),
+    status enum ('PENDING','CONFIRMED','RELEASED','EXPIRED'),
+    primary key (id),
+    index ix_reservations_status_expires_at (status, expires_at)
+) engine=InnoDB;
+
+create table if not exists t_inventory_reservation_items (
+    reservation_id binary(16) not null,
+    quantity integer,
+    sku_code varchar(255),
+    constraint fk_reservation_items_reservation foreign key (reservation_id) references t_inventory_reservations (id)
+) engine=InnoDB;
+
+create table if not exists t_inventory_stripes (
+    id bigint not null auto_increment,
+    quantity integer,
+    sku_code varchar(255),
+    stripe integer,
+    primary key (id),
+    constraint ux_inventory_stripes_sku_code_stripe unique (sku_code, stripe)
+) engine=InnoDB;
@@ -0,0 +1,32 @@
+-- Schema as previously generated by Hibernate; "if not exists" lets databases created that way be baselined
+create table if not exists inventory (
+    id bigint generated by default as identity,
+    quantity integer,
+    sku_code varchar(255),
+    primary key (id)
+);
+
+create table if not exists t_inventory_reservations (
+    id uuid not null,
+    expires_at timestamp(6) with time zone,
+    status varchar(255) check (status in ('PENDING','CONFIRMED','RELEASED','EXPIRED')),
+    primary key (id)
+);
+
+create index if not exists ix_reservations_status_expires_at on t_inventory_reservations (status, expires_at);
+
+create table if not exists t_inventory_reservation_items (
+    reservation_id uuid not null,
+    quantity integer,
+    sku_code varchar(255),
+    constraint fk_reservation_items_reservation foreign key (reservation_id) references t_inventory_reservations (id)
+);
+
+create table if not exists t_inventory_stripes (
+    id bigint generated by default as identity,
+    quantity integer,
+    sku_code varchar(255),
+    stripe integer,
+    primary key (id),
+    constraint ux_inventory_stripes_sku_code_stripe unique (sku_code, stripe)
+);
@@ -0,0 +1,7 @@
+-- The sample data loader used to insert its SKUs again on every start. Every update matched all copies of a
+-- SKU, so the copies hold the same quantity; keep the oldest one
+delete from inventory duplicate
+    using inventory original
+    where original.sku_code = duplicate.sku_code and original.id < duplicate.id;
+
+create unique index ux_inventory_sku_code on inventory (sku_code);
@@ -1,15 +1,20 @@
 package com.programmingtechie.inventoryservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.programmingtechie.inventoryservice.dto.InventoryCheckItem;
 import com.programmingtechie.inventoryservice.dto.InventoryResponse;
 import com.programmingtechie.inventoryservice.service.InventoryService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -20,6 +25,8 @@ class InventoryControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
     @MockBean
     private InventoryService inventoryService;
 
@@ -66,6 +73,29 @@ class InventoryControllerTest {
                 .andExpect(jsonPath("$[0].inStock").value(true));
     }
 
+    @Test
+    void shouldStreamCheckResultsIncludingUnknownSkus() throws Exception {
+        List<InventoryCheckItem> items = List.of(new InventoryCheckItem("SKU001", 2), new InventoryCheckItem("UNKNOWN", 1));
+        when(inventoryService.check(items)).thenReturn(Stream.of(
+                new InventoryResponse("SKU001", true, 10),
+                new InventoryResponse("UNKNOWN", false, null)));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/api/inventory/check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(items)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].skuCode").value("SKU001"))
+                .andExpect(jsonPath("$[0].quantity").value(10))
+                .andExpect(jsonPath("$[1].skuCode").value("UNKNOWN"))
+                .andExpect(jsonPath("$[1].inStock").value(false));
+    }
+
     private InventoryResponse createInventoryResponse(String skuCode, boolean inStock) {
         return InventoryResponse.builder()
                 .skuCode(skuCode)
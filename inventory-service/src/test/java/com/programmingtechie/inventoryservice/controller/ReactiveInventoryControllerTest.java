@@ -0,0 +1,114 @@
+package com.programmingtechie.inventoryservice.controller;
+
+import com.programmingtechie.inventoryservice.dto.InventoryCheckItem;
+import com.programmingtechie.inventoryservice.dto.InventoryResponse;
+import com.programmingtechie.inventoryservice.service.ReactiveInventoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Same contract as {@link InventoryControllerTest}, served by the reactive profile.
+ */
+@WebFluxTest(ReactiveInventoryController.class)
+class ReactiveInventoryControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @MockBean
+    private ReactiveInventoryService reactiveInventoryService;
+
+    @Test
+    void shouldCheckInventoryStock() {
+        when(reactiveInventoryService.isInStock(any(List.class))).thenReturn(Flux.just(
+                createInventoryResponse("SKU001", true),
+                createInventoryResponse("SKU002", false)));
+
+        webTestClient.get().uri("/api/inventory?skuCode=SKU001&skuCode=SKU002")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].skuCode").isEqualTo("SKU001")
+                .jsonPath("$[0].inStock").isEqualTo(true)
+                .jsonPath("$[1].skuCode").isEqualTo("SKU002")
+                .jsonPath("$[1].inStock").isEqualTo(false);
+
+        verify(reactiveInventoryService, times(1)).isInStock(any(List.class));
+    }
+
+    @Test
+    void shouldHandleEmptySkuList() {
+        when(reactiveInventoryService.isInStock(any(List.class))).thenReturn(Flux.empty());
+
+        webTestClient.get().uri("/api/inventory?skuCode=")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(0);
+    }
+
+    @Test
+    void shouldHandleSingleSku() {
+        when(reactiveInventoryService.isInStock(any(List.class))).thenReturn(Flux.just(createInventoryResponse("SKU001", true)));
+
+        webTestClient.get().uri("/api/inventory?skuCode=SKU001")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].skuCode").isEqualTo("SKU001")
+                .jsonPath("$[0].inStock").isEqualTo(true);
+    }
+
+    @Test
+    void shouldStreamCheckResultsIncludingUnknownSkus() {
+        List<InventoryCheckItem> items = List.of(new InventoryCheckItem("SKU001", 2), new InventoryCheckItem("UNKNOWN", 1));
+        when(reactiveInventoryService.check(items)).thenReturn(Flux.just(
+                new InventoryResponse("SKU001", true, 10),
+                new InventoryResponse("UNKNOWN", false, null)));
+
+        webTestClient.post().uri("/api/inventory/check")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(items)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].skuCode").isEqualTo("SKU001")
+                .jsonPath("$[0].quantity").isEqualTo(10)
+                .jsonPath("$[1].skuCode").isEqualTo("UNKNOWN")
+                .jsonPath("$[1].inStock").isEqualTo(false);
+    }
+
+    @Test
+    void shouldRejectInvalidCheckItems() {
+        when(reactiveInventoryService.check(any(List.class)))
+                .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantity must be at least 1"));
+
+        webTestClient.post().uri("/api/inventory/check")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(new InventoryCheckItem("SKU001", 0)))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private InventoryResponse createInventoryResponse(String skuCode, boolean inStock) {
+        return InventoryResponse.builder()
+                .skuCode(skuCode)
+                .isInStock(inStock)
+                .build();
+    }
+}
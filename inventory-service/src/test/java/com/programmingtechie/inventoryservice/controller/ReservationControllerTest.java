@@ -0,0 +1,79 @@
+package com.programmingtechie.inventoryservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.programmingtechie.inventoryservice.dto.ReservationItemDto;
+import com.programmingtechie.inventoryservice.dto.ReservationRequest;
+import com.programmingtechie.inventoryservice.dto.ReservationResponse;
+import com.programmingtechie.inventoryservice.model.ReservationStatus;
+import com.programmingtechie.inventoryservice.service.InsufficientStockException;
+import com.programmingtechie.inventoryservice.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReservationController.class)
+class ReservationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @MockBean
+    private ReservationService reservationService;
+
+    @Test
+    void shouldCreateReservation() throws Exception {
+        UUID reservationId = UUID.randomUUID();
+        when(reservationService.reserve(any(ReservationRequest.class))).thenReturn(ReservationResponse.builder()
+                .reservationId(reservationId)
+                .status(ReservationStatus.PENDING)
+                .items(List.of(new ReservationItemDto("iphone-13", 2)))
+                .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/inventory/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.reservationId").value(reservationId.toString()))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    void shouldReturnConflictWhenStockIsInsufficient() throws Exception {
+        when(reservationService.reserve(any(ReservationRequest.class)))
+                .thenThrow(new InsufficientStockException("iphone-13"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/inventory/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest())))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void shouldConfirmAndReleaseReservation() throws Exception {
+        UUID reservationId = UUID.randomUUID();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/inventory/reservations/{id}/confirm", reservationId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/inventory/reservations/{id}", reservationId))
+                .andExpect(status().isNoContent());
+
+        verify(reservationService).confirm(reservationId);
+        verify(reservationService).release(reservationId);
+    }
+
+    private ReservationRequest createRequest() {
+        return new ReservationRequest(List.of(new ReservationItemDto("iphone-13", 2)));
+    }
+}
@@ -0,0 +1,48 @@
+package com.programmingtechie.inventoryservice.controller;
+
+import com.programmingtechie.inventoryservice.dto.StockImportResult;
+import com.programmingtechie.inventoryservice.service.StockImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(StockImportController.class)
+class StockImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private StockImportService stockImportService;
+
+    @Test
+    void shouldImportCsvUpload() throws Exception {
+        when(stockImportService.importStock(any(), eq(StockImportService.Format.CSV)))
+                .thenReturn(new StockImportResult(2, 2, 0, 15));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/inventory/import")
+                        .contentType("text/csv")
+                        .content("iphone-13,10\nsamsung-s21,5\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.invalid").value(0));
+    }
+
+    @Test
+    void shouldRejectUnsupportedFormat() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/inventory/import")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<stock/>"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(stockImportService);
+    }
+}
@@ -0,0 +1,69 @@
+package com.programmingtechie.inventoryservice.repository;
+
+import com.programmingtechie.inventoryservice.model.Inventory;
+import com.programmingtechie.inventoryservice.model.InventoryStripe;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The schema comes from the Flyway migrations; validation checks that they match the entities
+@DataJpaTest(properties = {"spring.sql.init.mode=never", "spring.jpa.hibernate.ddl-auto=validate"})
+class InventoryRepositoryTest {
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    @Autowired
+    private InventoryStripeRepository inventoryStripeRepository;
+
+    @Test
+    void shouldRejectDuplicateSkuCode() {
+        inventoryRepository.saveAndFlush(createInventory("iphone-13", 10));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> inventoryRepository.saveAndFlush(createInventory("iphone-13", 5)));
+    }
+
+    @Test
+    void shouldReadStockLevelsOfRequestedSkusOnly() {
+        inventoryRepository.saveAll(List.of(createInventory("iphone-13", 10), createInventory("samsung-s21", 0),
+                createInventory("pixel-8", 3)));
+        inventoryStripeRepository.saveAll(List.of(new InventoryStripe(null, "iphone-13", 0, 4),
+                new InventoryStripe(null, "iphone-13", 1, 6)));
+
+        List<SkuQuantity> skuQuantities = inventoryRepository.findSkuQuantitiesBySkuCodeIn(
+                List.of("iphone-13", "samsung-s21", "unknown"));
+
+        assertEquals(2, skuQuantities.size());
+        assertTrue(skuQuantities.contains(new SkuQuantity("iphone-13", 20)));
+        assertTrue(skuQuantities.contains(new SkuQuantity("samsung-s21", 0)));
+    }
+
+    @Test
+    void shouldReadInventoryRowsAndStripesSeparately() {
+        inventoryRepository.saveAll(List.of(createInventory("iphone-13", 10), createInventory("samsung-s21", 0)));
+        inventoryStripeRepository.saveAll(List.of(new InventoryStripe(null, "iphone-13", 0, 4),
+                new InventoryStripe(null, "iphone-13", 1, 6)));
+
+        List<SkuQuantity> inventoryQuantities = inventoryRepository.findInventoryQuantitiesBySkuCodeIn(
+                List.of("iphone-13", "samsung-s21", "unknown"));
+        List<SkuQuantity> stripeQuantities = inventoryStripeRepository.sumQuantitiesBySkuCodeIn(
+                List.of("iphone-13", "samsung-s21"));
+
+        assertEquals(2, inventoryQuantities.size());
+        assertTrue(inventoryQuantities.contains(new SkuQuantity("iphone-13", 10)));
+        assertTrue(inventoryQuantities.contains(new SkuQuantity("samsung-s21", 0)));
+        assertEquals(List.of(new SkuQuantity("iphone-13", 10)), stripeQuantities);
+    }
+
+    private Inventory createInventory(String skuCode, Integer quantity) {
+        Inventory inventory = new Inventory();
+        inventory.setSkuCode(skuCode);
+        inventory.setQuantity(quantity);
+        return inventory;
+    }
+}
@@ -1,15 +1,19 @@
 package com.programmingtechie.inventoryservice.service;
 
+import com.programmingtechie.inventoryservice.dto.InventoryCheckItem;
 import com.programmingtechie.inventoryservice.dto.InventoryResponse;
-import com.programmingtechie.inventoryservice.model.Inventory;
 import com.programmingtechie.inventoryservice.repository.InventoryRepository;
+import com.programmingtechie.inventoryservice.repository.SkuQuantity;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -20,29 +24,35 @@ class InventoryServiceTest {
 
     @Mock
     private InventoryRepository inventoryRepository;
-    @InjectMocks
+    @Mock
+    private ObjectProvider<SkuStockIndex> skuStockIndex;
     private InventoryService inventoryService;
 
+    @BeforeEach
+    void setUp() {
+        inventoryService = new InventoryService(inventoryRepository, skuStockIndex, true);
+    }
+
     @Test
     void shouldReturnInStockForAvailableProducts() {
-        List<Inventory> inventories = List.of(
+        List<SkuQuantity> inventories = List.of(
             createInventory("SKU001", 10),
             createInventory("SKU002", 5)
         );
-        when(inventoryRepository.findBySkuCodeIn(any(List.class))).thenReturn(inventories);
+        when(inventoryRepository.findSkuQuantitiesBySkuCodeIn(any(List.class))).thenReturn(inventories);
         
         List<InventoryResponse> responses = inventoryService.isInStock(List.of("SKU001", "SKU002"));
         
         assertEquals(2, responses.size());
         assertTrue(responses.get(0).isInStock());
         assertTrue(responses.get(1).isInStock());
-        verify(inventoryRepository, times(1)).findBySkuCodeIn(any(List.class));
+        verify(inventoryRepository, times(1)).findSkuQuantitiesBySkuCodeIn(any(List.class));
     }
 
     @Test
     void shouldReturnOutOfStockForZeroQuantity() {
-        List<Inventory> inventories = List.of(createInventory("SKU001", 0));
-        when(inventoryRepository.findBySkuCodeIn(any(List.class))).thenReturn(inventories);
+        List<SkuQuantity> inventories = List.of(createInventory("SKU001", 0));
+        when(inventoryRepository.findSkuQuantitiesBySkuCodeIn(any(List.class))).thenReturn(inventories);
         
         List<InventoryResponse> responses = inventoryService.isInStock(List.of("SKU001"));
         
@@ -53,7 +63,7 @@ class InventoryServiceTest {
 
     @Test
     void shouldHandleEmptyInventoryList() {
-        when(inventoryRepository.findBySkuCodeIn(any(List.class))).thenReturn(List.of());
+        when(inventoryRepository.findSkuQuantitiesBySkuCodeIn(any(List.class))).thenReturn(List.of());
         
         List<InventoryResponse> responses = inventoryService.isInStock(List.of("NON_EXISTENT"));
         
@@ -62,12 +72,12 @@ class InventoryServiceTest {
 
     @Test
     void shouldHandleMixedStockLevels() {
-        List<Inventory> inventories = List.of(
+        List<SkuQuantity> inventories = List.of(
             createInventory("SKU001", 10),
             createInventory("SKU002", 0),
             createInventory("SKU003", 1)
         );
-        when(inventoryRepository.findBySkuCodeIn(any(List.class))).thenReturn(inventories);
+        when(inventoryRepository.findSkuQuantitiesBySkuCodeIn(any(List.class))).thenReturn(inventories);
         
         List<InventoryResponse> responses = inventoryService.isInStock(List.of("SKU001", "SKU002", "SKU003"));
         
@@ -77,10 +87,88 @@ class InventoryServiceTest {
         assertTrue(responses.stream().anyMatch(r -> r.getSkuCode().equals("SKU003") && r.isInStock()));
     }
 
-    private Inventory createInventory(String skuCode, Integer quantity) {
-        Inventory inventory = new Inventory();
-        inventory.setSkuCode(skuCode);
-        inventory.setQuantity(quantity);
-        return inventory;
+    @Test
+    void shouldAnswerFromStockIndexOnceLoaded() {
+        SkuStockIndex index = mock(SkuStockIndex.class);
+        List<InventoryResponse> indexed = List.of(new InventoryResponse("SKU001", true, 10));
+        when(skuStockIndex.getIfAvailable()).thenReturn(index);
+        when(index.isLoaded()).thenReturn(true);
+        when(index.isInStock(List.of("SKU001"))).thenReturn(indexed);
+
+        assertEquals(indexed, inventoryService.isInStock(List.of("SKU001")));
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    void shouldCheckRequestedQuantitiesAndReportUnknownSkus() {
+        when(inventoryRepository.findSkuQuantitiesBySkuCodeIn(any()))
+                .thenReturn(List.of(new SkuQuantity("SKU001", 5), new SkuQuantity("SKU002", 1)));
+
+        List<InventoryResponse> responses = inventoryService.check(List.of(
+                new InventoryCheckItem("SKU001", 5),
+                new InventoryCheckItem("SKU002", 2),
+                new InventoryCheckItem("UNKNOWN", 1))).toList();
+
+        assertEquals(List.of(
+                new InventoryResponse("SKU001", true, 5),
+                new InventoryResponse("SKU002", false, 1),
+                new InventoryResponse("UNKNOWN", false, null)), responses);
+    }
+
+    @Test
+    void shouldCheckAgainstStockIndexOnceLoaded() {
+        SkuStockIndex index = mock(SkuStockIndex.class);
+        when(skuStockIndex.getIfAvailable()).thenReturn(index);
+        when(index.isLoaded()).thenReturn(true);
+        when(index.getQuantity("SKU001")).thenReturn(3);
+        when(index.getQuantity("UNKNOWN")).thenReturn(SkuStockIndex.MISSING);
+
+        List<InventoryResponse> responses = inventoryService.check(List.of(
+                new InventoryCheckItem("SKU001", null),
+                new InventoryCheckItem("UNKNOWN", 1))).toList();
+
+        assertEquals(List.of(
+                new InventoryResponse("SKU001", true, 3),
+                new InventoryResponse("UNKNOWN", false, null)), responses);
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    void shouldRejectCheckItemWithoutSkuCode() {
+        List<InventoryCheckItem> items = List.of(new InventoryCheckItem(" ", 1));
+
+        assertThrows(ResponseStatusException.class, () -> inventoryService.check(items));
+    }
+
+    @Test
+    void shouldSplitLongSkuListsIntoChunkedQueries() {
+        List<String> skuCodes = IntStream.range(0, InventoryService.MAX_IN_LIST_SIZE * 2 + 1)
+                .mapToObj(i -> "SKU" + i)
+                .toList();
+        when(inventoryRepository.findSkuQuantitiesBySkuCodeIn(any(List.class)))
+                .thenAnswer(invocation -> ((List<String>) invocation.getArgument(0)).stream()
+                        .map(skuCode -> createInventory(skuCode, 1))
+                        .toList());
+
+        List<InventoryResponse> responses = inventoryService.isInStock(skuCodes);
+
+        assertEquals(skuCodes.size(), responses.size());
+        verify(inventoryRepository, times(3)).findSkuQuantitiesBySkuCodeIn(any(List.class));
+    }
+
+    @Test
+    void shouldReadInventoryRowsOnlyWhenStripingIsDisabled() {
+        InventoryService unstriped = new InventoryService(inventoryRepository, skuStockIndex, false);
+        when(inventoryRepository.findInventoryQuantitiesBySkuCodeIn(any(List.class)))
+                .thenReturn(List.of(createInventory("SKU001", 3)));
+
+        List<InventoryResponse> responses = unstriped.isInStock(List.of("SKU001"));
+
+        assertEquals(List.of(new InventoryResponse("SKU001", true, 3)), responses);
+        verify(inventoryRepository, never()).findSkuQuantitiesBySkuCodeIn(any());
+    }
+
+    private SkuQuantity createInventory(String skuCode, int quantity) {
+        return new SkuQuantity(skuCode, quantity);
     }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.programmingtechie.inventoryservice.service;
+
+import com.programmingtechie.inventoryservice.dto.InventoryCheckItem;
+import com.programmingtechie.inventoryservice.dto.InventoryResponse;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReactiveInventoryServiceTest {
+
+    private static final ConnectionFactory connectionFactory =
+            ConnectionFactories.get("r2dbc:h2:mem:///reactive-inventory;DB_CLOSE_DELAY=-1");
+    private static final DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<SkuStockIndex> skuStockIndex = mock(ObjectProvider.class);
+    private final ReactiveInventoryService reactiveInventoryService =
+            new ReactiveInventoryService(databaseClient, skuStockIndex, true);
+
+    @BeforeAll
+    static void createSchema() {
+        // The same migrations Flyway applies to H2
+        new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/h2/V1__create_inventory_schema.sql"),
+                new ClassPathResource("db/migration/h2/V2__add_unique_sku_code_index.sql"))
+                .populate(connectionFactory)
+                .block();
+    }
+
+    @BeforeEach
+    void setUp() {
+        execute("delete from t_inventory_stripes");
+        execute("delete from inventory");
+        insertInventory("SKU001", 10);
+        insertInventory("SKU002", 0);
+    }
+
+    @Test
+    void shouldReturnStockLevelsOfKnownSkus() {
+        List<InventoryResponse> responses = reactiveInventoryService.isInStock(List.of("SKU001", "SKU002", "UNKNOWN"))
+                .collectSortedList((a, b) -> a.getSkuCode().compareTo(b.getSkuCode()))
+                .block();
+
+        assertEquals(List.of(new InventoryResponse("SKU001", true, 10), new InventoryResponse("SKU002", false, 0)),
+                responses);
+    }
+
+    @Test
+    void shouldIncludeStripesInStockLevel() {
+        execute("insert into t_inventory_stripes (sku_code, stripe, quantity) values ('SKU002', 0, 3), ('SKU002', 1, 4)");
+
+        StepVerifier.create(reactiveInventoryService.isInStock(List.of("SKU002")))
+                .expectNext(new InventoryResponse("SKU002", true, 7))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReadInventoryRowsOnlyWhenStripingIsDisabled() {
+        ReactiveInventoryService unstriped = new ReactiveInventoryService(databaseClient, skuStockIndex, false);
+
+        StepVerifier.create(unstriped.isInStock(List.of("SKU001", "SKU002", "UNKNOWN"))
+                        .collectSortedList((a, b) -> a.getSkuCode().compareTo(b.getSkuCode())))
+                .expectNext(List.of(new InventoryResponse("SKU001", true, 10), new InventoryResponse("SKU002", false, 0)))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldCheckItemsInRequestOrderIncludingUnknownSkus() {
+        List<InventoryCheckItem> items = List.of(
+                new InventoryCheckItem("UNKNOWN", 1),
+                new InventoryCheckItem("SKU001", 11),
+                new InventoryCheckItem("SKU001", null));
+
+        StepVerifier.create(reactiveInventoryService.check(items))
+                .expectNext(new InventoryResponse("UNKNOWN", false, null))
+                .expectNext(new InventoryResponse("SKU001", false, 10))
+                .expectNext(new InventoryResponse("SKU001", true, 10))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldRejectInvalidCheckItemsBeforeSubscribing() {
+        assertThrows(ResponseStatusException.class,
+                () -> reactiveInventoryService.check(List.of(new InventoryCheckItem("SKU001", 0))));
+    }
+
+    @Test
+    void shouldLookUpLongSkuListsInChunks() {
+        List<String> skuCodes = IntStream.range(0, InventoryService.MAX_IN_LIST_SIZE + 1)
+                .mapToObj(i -> "SKU-" + i)
+                .toList();
+        skuCodes.forEach(skuCode -> insertInventory(skuCode, 1));
+
+        StepVerifier.create(reactiveInventoryService.isInStock(skuCodes))
+                .expectNextCount(skuCodes.size())
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldAnswerFromIndexWhenLoaded() {
+        SkuStockIndex index = mock(SkuStockIndex.class);
+        when(index.isLoaded()).thenReturn(true);
+        when(index.getQuantity("SKU003")).thenReturn(5);
+        when(skuStockIndex.getIfAvailable()).thenReturn(index);
+
+        StepVerifier.create(reactiveInventoryService.check(List.of(new InventoryCheckItem("SKU003", 5))))
+                .expectNext(new InventoryResponse("SKU003", true, 5))
+                .verifyComplete();
+    }
+
+    private void insertInventory(String skuCode, int quantity) {
+        databaseClient.sql("insert into inventory (sku_code, quantity) values (:skuCode, :quantity)")
+                .bind("skuCode", skuCode)
+                .bind("quantity", quantity)
+                .then()
+                .block();
+    }
+
+    private void execute(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+}
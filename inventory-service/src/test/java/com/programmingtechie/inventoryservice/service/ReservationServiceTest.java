@@ -0,0 +1,185 @@
+package com.programmingtechie.inventoryservice.service;
+
+import com.programmingtechie.inventoryservice.dto.ReservationItemDto;
+import com.programmingtechie.inventoryservice.dto.ReservationRequest;
+import com.programmingtechie.inventoryservice.dto.ReservationResponse;
+import com.programmingtechie.inventoryservice.model.Inventory;
+import com.programmingtechie.inventoryservice.model.ReservationStatus;
+import com.programmingtechie.inventoryservice.repository.InventoryRepository;
+import com.programmingtechie.inventoryservice.repository.ReservationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({ReservationService.class, SkuStockIndex.class, ReservationServiceTest.MeterRegistryConfig.class})
+// Real commits, so that concurrent reservations from several threads see each other
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {"inventory.reservation.ttl=1h", "inventory.serving-mode=index",
+        "spring.datasource.hikari.maximum-pool-size=20"})
+class ReservationServiceTest {
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private SkuStockIndex skuStockIndex;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository.saveAll(List.of(createInventory("iphone-13", 10), createInventory("samsung-s21", 1)));
+        skuStockIndex.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll();
+        inventoryRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReserveAllItemsAndDecrementStock() {
+        ReservationResponse reservation = reservationService.reserve(request(
+                new ReservationItemDto("iphone-13", 2), new ReservationItemDto("samsung-s21", 1),
+                new ReservationItemDto("iphone-13", 1)));
+
+        assertEquals(ReservationStatus.PENDING, reservation.getStatus());
+        assertEquals(7, quantity("iphone-13"));
+        assertEquals(0, quantity("samsung-s21"));
+    }
+
+    @Test
+    void shouldReserveNothingWhenOneItemIsShort() {
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> reservationService.reserve(request(
+                        new ReservationItemDto("iphone-13", 2), new ReservationItemDto("samsung-s21", 2))));
+
+        assertEquals("samsung-s21", exception.getSkuCode());
+        assertEquals(10, quantity("iphone-13"));
+        assertEquals(1, quantity("samsung-s21"));
+        assertEquals(0, reservationRepository.count());
+    }
+
+    @Test
+    void shouldWriteCommittedChangesThroughToStockIndex() {
+        ReservationResponse reservation = reservationService.reserve(request(new ReservationItemDto("iphone-13", 4)));
+        assertThrows(InsufficientStockException.class, () -> reservationService.reserve(request(
+                new ReservationItemDto("iphone-13", 1), new ReservationItemDto("samsung-s21", 2))));
+
+        // The rolled back reservation leaves no trace in the index
+        assertEquals(6, skuStockIndex.getQuantity("iphone-13"));
+        reservationService.release(reservation.getReservationId());
+        assertEquals(10, skuStockIndex.getQuantity("iphone-13"));
+    }
+
+    @Test
+    void shouldReturnStockOnReleaseButNotAfterConfirm() {
+        ReservationResponse released = reservationService.reserve(request(new ReservationItemDto("iphone-13", 4)));
+        ReservationResponse confirmed = reservationService.reserve(request(new ReservationItemDto("iphone-13", 3)));
+
+        reservationService.release(released.getReservationId());
+        reservationService.confirm(confirmed.getReservationId());
+
+        assertEquals(7, quantity("iphone-13"));
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> reservationService.release(confirmed.getReservationId()));
+        assertEquals(409, exception.getStatusCode().value());
+        assertEquals(7, quantity("iphone-13"));
+    }
+
+    @Test
+    void shouldReturnStockOfExpiredReservations() {
+        ReservationResponse reservation = reservationService.reserve(request(new ReservationItemDto("iphone-13", 5)));
+        reservationRepository.findById(reservation.getReservationId()).ifPresent(expired -> {
+            expired.setExpiresAt(expired.getExpiresAt().minusSeconds(7200));
+            reservationRepository.save(expired);
+        });
+
+        reservationService.releaseExpired();
+
+        assertEquals(10, quantity("iphone-13"));
+        assertEquals(ReservationStatus.EXPIRED,
+                reservationRepository.findById(reservation.getReservationId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void shouldNeverOversellHotSkuUnderConcurrentReservations() throws Exception {
+        int threads = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        reservationService.reserve(request(new ReservationItemDto("iphone-13", 1)));
+                        reserved.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(10, reserved.get());
+        assertEquals(threads - 10, rejected.get());
+        assertEquals(0, quantity("iphone-13"));
+    }
+
+    private int quantity(String skuCode) {
+        return inventoryRepository.findBySkuCodeIn(List.of(skuCode)).get(0).getQuantity();
+    }
+
+    private ReservationRequest request(ReservationItemDto... items) {
+        return new ReservationRequest(List.of(items));
+    }
+
+    private Inventory createInventory(String skuCode, Integer quantity) {
+        Inventory inventory = new Inventory();
+        inventory.setSkuCode(skuCode);
+        inventory.setQuantity(quantity);
+        return inventory;
+    }
+
+    @TestConfiguration
+    static class MeterRegistryConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
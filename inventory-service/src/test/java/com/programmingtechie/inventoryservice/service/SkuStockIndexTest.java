@@ -0,0 +1,108 @@
+package com.programmingtechie.inventoryservice.service;
+
+import com.programmingtechie.inventoryservice.dto.InventoryResponse;
+import com.programmingtechie.inventoryservice.event.StockChangedEvent;
+import com.programmingtechie.inventoryservice.repository.InventoryRepository;
+import com.programmingtechie.inventoryservice.repository.SkuQuantity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SkuStockIndexTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SkuStockIndex index = new SkuStockIndex(mock(InventoryRepository.class), meterRegistry, false);
+
+    @Test
+    void shouldFindEverySkuAfterGrowing() {
+        for (int i = 0; i < 100_000; i++) {
+            index.put("SKU-" + i, i);
+        }
+
+        assertEquals(100_000, index.size());
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i, index.getQuantity("SKU-" + i));
+        }
+        assertEquals(SkuStockIndex.MISSING, index.getQuantity("SKU-100000"));
+        assertTrue(index.estimatedMemoryBytes() > 100_000L * (40 + 8 + Integer.BYTES));
+        assertEquals(100_000, meterRegistry.get("inventory.index.size").gauge().value());
+    }
+
+    @Test
+    void shouldApplyCommittedStockChangesToKnownSkus() {
+        index.put("iphone-13", 10);
+
+        index.onStockChanged(new StockChangedEvent("iphone-13", -3));
+        index.onStockChanged(new StockChangedEvent("unknown", 5));
+
+        assertEquals(7, index.getQuantity("iphone-13"));
+        assertEquals(SkuStockIndex.MISSING, index.getQuantity("unknown"));
+    }
+
+    @Test
+    void shouldReplayStockChangesMadeWhileReloading() {
+        InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+        SkuStockIndex reloadingIndex = new SkuStockIndex(inventoryRepository, new SimpleMeterRegistry(), false);
+        reloadingIndex.put("iphone-13", 10);
+        // The change commits after the snapshot read iphone-13 and reaches the index before the swap
+        when(inventoryRepository.streamAllInventoryQuantities()).thenReturn(Stream.of(
+                new SkuQuantity("iphone-13", 10), new SkuQuantity("galaxy-s24", 5))
+                .peek(skuQuantity -> {
+                    if (skuQuantity.skuCode().equals("galaxy-s24")) {
+                        reloadingIndex.onStockChanged(new StockChangedEvent("iphone-13", -3));
+                    }
+                }));
+
+        reloadingIndex.reload();
+
+        assertEquals(7, reloadingIndex.getQuantity("iphone-13"));
+        assertEquals(5, reloadingIndex.getQuantity("galaxy-s24"));
+    }
+
+    @Test
+    void shouldAnswerAvailabilityForKnownSkusOnly() {
+        index.put("iphone-13", 10);
+        index.put("out-of-stock", 0);
+
+        List<InventoryResponse> responses = index.isInStock(List.of("iphone-13", "out-of-stock", "non-existent"));
+
+        assertEquals(List.of(new InventoryResponse("iphone-13", true, 10),
+                new InventoryResponse("out-of-stock", false, 0)), responses);
+        assertEquals(1, meterRegistry.get("inventory.index.lookups").timer().count());
+    }
+
+    @Test
+    void shouldKeepLookupsConsistentWhileWriting() throws Exception {
+        index.put("hot-sku", 0);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (writing.get()) {
+                int quantity = index.getQuantity("hot-sku");
+                if (quantity < 0 || quantity > 10_000) {
+                    failure.set("Read torn quantity " + quantity);
+                }
+            }
+        });
+        reader.start();
+
+        // Growing the table while the reader probes it must never expose a missing or partial entry
+        for (int i = 0; i < 10_000; i++) {
+            index.add("hot-sku", 1);
+            index.put("filler-" + i, i);
+        }
+        writing.set(false);
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(10_000, index.getQuantity("hot-sku"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.programmingtechie.inventoryservice.service;
+
+import com.programmingtechie.inventoryservice.event.StockChangedEvent;
+import com.programmingtechie.inventoryservice.repository.InventoryRepository;
+import com.programmingtechie.inventoryservice.repository.SkuQuantity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class StockEventPublisherTest {
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, StockChangedEvent> kafkaTemplate = mock(KafkaTemplate.class);
+    private final InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+    private final StockEventPublisher stockEventPublisher =
+            new StockEventPublisher(kafkaTemplate, inventoryRepository, new SimpleMeterRegistry(), false);
+
+    @Test
+    void shouldCoalesceChangesPerSkuIntoOneEvent() {
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+        when(inventoryRepository.findInventoryQuantitiesBySkuCodeIn(anyCollection()))
+                .thenReturn(List.of(new SkuQuantity("iphone-13", 97), new SkuQuantity("samsung-s21", 4)));
+        stockEventPublisher.onStockChanged(new StockChangedEvent("iphone-13", -1));
+        stockEventPublisher.onStockChanged(new StockChangedEvent("iphone-13", -2));
+        stockEventPublisher.onStockChanged(new StockChangedEvent("samsung-s21", 4));
+
+        assertEquals(2, stockEventPublisher.flush());
+
+        verify(kafkaTemplate).send(StockEventPublisher.TOPIC, "iphone-13", new StockChangedEvent("iphone-13", -3, 97));
+        verify(kafkaTemplate).send(StockEventPublisher.TOPIC, "samsung-s21", new StockChangedEvent("samsung-s21", 4, 4));
+        assertEquals(0, stockEventPublisher.flush());
+    }
+
+    @Test
+    void shouldSkipChangesThatCancelOut() {
+        stockEventPublisher.onStockChanged(new StockChangedEvent("iphone-13", -2));
+        stockEventPublisher.onStockChanged(new StockChangedEvent("iphone-13", 2));
+
+        assertEquals(0, stockEventPublisher.flush());
+        verifyNoInteractions(kafkaTemplate, inventoryRepository);
+    }
+
+    @Test
+    void shouldResendDeltaWithCurrentQuantityAfterFailedSend() {
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(inventoryRepository.findInventoryQuantitiesBySkuCodeIn(anyCollection()))
+                .thenReturn(List.of(new SkuQuantity("iphone-13", 99)))
+                .thenReturn(List.of(new SkuQuantity("iphone-13", 98)));
+        stockEventPublisher.onStockChanged(new StockChangedEvent("iphone-13", -1));
+        stockEventPublisher.flush();
+        stockEventPublisher.onStockChanged(new StockChangedEvent("iphone-13", -1));
+
+        assertEquals(1, stockEventPublisher.flush());
+
+        verify(kafkaTemplate).send(StockEventPublisher.TOPIC, "iphone-13", new StockChangedEvent("iphone-13", -2, 98));
+    }
+
+    @Test
+    void shouldResendQuantityAfterFailedSendEvenIfChangesCancelOut() {
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("delivery timeout")))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(inventoryRepository.findInventoryQuantitiesBySkuCodeIn(anyCollection()))
+                .thenReturn(List.of(new SkuQuantity("iphone-13", 99)))
+                .thenReturn(List.of(new SkuQuantity("iphone-13", 100)));
+        stockEventPublisher.onStockChanged(new StockChangedEvent("iphone-13", -1));
+        stockEventPublisher.flush();
+        stockEventPublisher.onStockChanged(new StockChangedEvent("iphone-13", 1));
+
+        assertEquals(1, stockEventPublisher.flush());
+
+        verify(kafkaTemplate).send(StockEventPublisher.TOPIC, "iphone-13", new StockChangedEvent("iphone-13", 0, 100));
+    }
+
+    @Test
+    void shouldKeepChangesWhenStockLevelCannotBeRead() {
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+        when(inventoryRepository.findInventoryQuantitiesBySkuCodeIn(anyCollection()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(List.of(new SkuQuantity("iphone-13", 99)));
+        stockEventPublisher.onStockChanged(new StockChangedEvent("iphone-13", -1));
+
+        assertThrows(IllegalStateException.class, stockEventPublisher::flush);
+        assertEquals(1, stockEventPublisher.flush());
+
+        verify(kafkaTemplate).send(StockEventPublisher.TOPIC, "iphone-13", new StockChangedEvent("iphone-13", -1, 99));
+    }
+
+    @Test
+    void shouldFlushPendingChangesOnShutdown() {
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+        when(inventoryRepository.findInventoryQuantitiesBySkuCodeIn(anyCollection()))
+                .thenReturn(List.of(new SkuQuantity("iphone-13", 99)));
+        stockEventPublisher.onStockChanged(new StockChangedEvent("iphone-13", -1));
+
+        stockEventPublisher.flushOnShutdown();
+
+        verify(kafkaTemplate).send(StockEventPublisher.TOPIC, "iphone-13", new StockChangedEvent("iphone-13", -1, 99));
+        verify(kafkaTemplate).flush();
+    }
+}
@@ -0,0 +1,108 @@
+package com.programmingtechie.inventoryservice.service;
+
+import com.programmingtechie.inventoryservice.dto.StockImportResult;
+import com.programmingtechie.inventoryservice.model.Inventory;
+import com.programmingtechie.inventoryservice.model.InventoryStripe;
+import com.programmingtechie.inventoryservice.repository.InventoryRepository;
+import com.programmingtechie.inventoryservice.repository.InventoryStripeRepository;
+import com.programmingtechie.inventoryservice.repository.SkuQuantity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({StockImportService.class, ReservationServiceTest.MeterRegistryConfig.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, JdbcTemplateAutoConfiguration.class})
+@TestPropertySource(properties = {"inventory.import.batch-size=2", "inventory.import.max-row-length=64"})
+class StockImportServiceTest {
+
+    @Autowired
+    private StockImportService stockImportService;
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    @Autowired
+    private InventoryStripeRepository inventoryStripeRepository;
+
+    @Test
+    void shouldUpsertCsvRowsInBatchesAndSkipInvalidOnes() throws Exception {
+        inventoryRepository.save(createInventory("iphone-13", 10));
+
+        StockImportResult result = stockImportService.importStock(upload("""
+                skuCode,quantity
+                iphone-13,25
+                samsung-s21,7
+                "pixel,8",3
+                broken-row
+                negative,-1
+
+                samsung-s21,8
+                """), StockImportService.Format.CSV);
+
+        assertEquals(6, result.getRows());
+        assertEquals(4, result.getImported());
+        assertEquals(2, result.getInvalid());
+        assertEquals(List.of(new SkuQuantity("iphone-13", 25), new SkuQuantity("pixel,8", 3),
+                new SkuQuantity("samsung-s21", 8)), quantities("iphone-13", "samsung-s21", "pixel,8"));
+        assertEquals(3, inventoryRepository.count());
+    }
+
+    @Test
+    void shouldImportNdjsonAndReplaceStripedStock() throws Exception {
+        inventoryRepository.save(createInventory("iphone-13", 10));
+        inventoryStripeRepository.saveAll(List.of(new InventoryStripe(null, "iphone-13", 0, 20),
+                new InventoryStripe(null, "iphone-13", 1, 20)));
+
+        StockImportResult result = stockImportService.importStock(upload("""
+                {"skuCode":"iphone-13","quantity":5,"warehouse":"north"}
+                {"skuCode":"samsung-s21","quantity":0}
+                {"skuCode":"","quantity":1}
+                """), StockImportService.Format.NDJSON);
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getInvalid());
+        assertEquals(List.of(new SkuQuantity("iphone-13", 5), new SkuQuantity("samsung-s21", 0)),
+                quantities("iphone-13", "samsung-s21"));
+    }
+
+    @Test
+    void shouldCountOverLongRowAsInvalidAndGoOn() throws Exception {
+        StockImportResult result = stockImportService.importStock(upload("iphone-13,25\n"
+                + "x".repeat(100_000) + ",1\r\n"
+                + "samsung-s21,7\n"), StockImportService.Format.CSV);
+
+        assertEquals(3, result.getRows());
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getInvalid());
+        assertEquals(List.of(new SkuQuantity("iphone-13", 25), new SkuQuantity("samsung-s21", 7)),
+                quantities("iphone-13", "samsung-s21"));
+    }
+
+    private List<SkuQuantity> quantities(String... skuCodes) {
+        return inventoryRepository.findSkuQuantitiesBySkuCodeIn(List.of(skuCodes)).stream()
+                .sorted((first, second) -> first.skuCode().compareTo(second.skuCode()))
+                .toList();
+    }
+
+    private InputStream upload(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Inventory createInventory(String skuCode, Integer quantity) {
+        Inventory inventory = new Inventory();
+        inventory.setSkuCode(skuCode);
+        inventory.setQuantity(quantity);
+        return inventory;
+    }
+}
@@ -0,0 +1,177 @@
+package com.programmingtechie.inventoryservice.service;
+
+import com.programmingtechie.inventoryservice.dto.ReservationItemDto;
+import com.programmingtechie.inventoryservice.dto.ReservationRequest;
+import com.programmingtechie.inventoryservice.dto.ReservationResponse;
+import com.programmingtechie.inventoryservice.model.Inventory;
+import com.programmingtechie.inventoryservice.model.InventoryStripe;
+import com.programmingtechie.inventoryservice.repository.InventoryRepository;
+import com.programmingtechie.inventoryservice.repository.InventoryStripeRepository;
+import com.programmingtechie.inventoryservice.repository.ReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({ReservationService.class, StripedStockService.class, ReservationServiceTest.MeterRegistryConfig.class})
+// Real commits, so that concurrent reservations from several threads see each other
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {"inventory.striping.enabled=true", "inventory.striping.stripes=4",
+        "inventory.striping.min-quantity-per-stripe=2", "inventory.striping.hot-threshold=5",
+        "spring.datasource.hikari.maximum-pool-size=20"})
+class StripedStockServiceTest {
+
+    @Autowired
+    private StripedStockService stripedStockService;
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    @Autowired
+    private InventoryStripeRepository inventoryStripeRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository.saveAll(List.of(createInventory("iphone-13", 100), createInventory("samsung-s21", 5)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll();
+        inventoryStripeRepository.deleteAll();
+        inventoryRepository.deleteAll();
+    }
+
+    @Test
+    void shouldSpreadStockOverStripesAndInventoryRow() {
+        stripedStockService.stripe("iphone-13");
+
+        assertEquals(List.of(20, 20, 20, 20), stripeQuantities("iphone-13"));
+        assertEquals(20, inventoryRowQuantity("iphone-13"));
+        assertEquals(100, totalQuantity("iphone-13"));
+    }
+
+    @Test
+    void shouldKeepSmallStockInInventoryRow() {
+        stripedStockService.stripe("samsung-s21");
+
+        assertEquals(List.of(0, 0, 0, 0), stripeQuantities("samsung-s21"));
+        assertEquals(5, inventoryRowQuantity("samsung-s21"));
+    }
+
+    @Test
+    void shouldStripeSkuOnceRequestRateIsHot() {
+        // Starts a fresh measurement window
+        stripedStockService.detectHotSkus();
+        for (int i = 0; i < 10; i++) {
+            reservationService.reserve(request("iphone-13", 1));
+        }
+
+        stripedStockService.detectHotSkus();
+
+        assertTrue(stripedStockService.isStriped("iphone-13"));
+        assertFalse(stripedStockService.isStriped("samsung-s21"));
+        assertEquals(90, totalQuantity("iphone-13"));
+    }
+
+    @Test
+    void shouldReturnReleasedStockToStripedSku() {
+        stripedStockService.stripe("iphone-13");
+        ReservationResponse reservation = reservationService.reserve(request("iphone-13", 30));
+        assertEquals(70, totalQuantity("iphone-13"));
+
+        reservationService.release(reservation.getReservationId());
+
+        assertEquals(100, totalQuantity("iphone-13"));
+    }
+
+    @Test
+    void shouldSellExactlyTheStripedStockUnderConcurrentReservations() throws Exception {
+        stripedStockService.stripe("iphone-13");
+        int threads = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        reservationService.reserve(request("iphone-13", 1));
+                        reserved.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        // A dry stripe may reject while others still hold stock; the rebalancer recovers it below
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(100 - reserved.get(), totalQuantity("iphone-13"));
+
+        // Sell the rest one by one, rebalancing whenever a reservation lands on a dry stripe
+        while (totalQuantity("iphone-13") > 0) {
+            try {
+                reservationService.reserve(request("iphone-13", 1));
+                reserved.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                stripedStockService.rebalanceDrySkus();
+            }
+        }
+
+        assertEquals(100, reserved.get());
+        assertTrue(stripeQuantities("iphone-13").stream().allMatch(quantity -> quantity == 0));
+        assertEquals(0, inventoryRowQuantity("iphone-13"));
+    }
+
+    private List<Integer> stripeQuantities(String skuCode) {
+        return inventoryStripeRepository.findAll().stream()
+                .filter(stripe -> stripe.getSkuCode().equals(skuCode))
+                .sorted((first, second) -> first.getStripe() - second.getStripe())
+                .map(InventoryStripe::getQuantity)
+                .toList();
+    }
+
+    private int inventoryRowQuantity(String skuCode) {
+        return inventoryRepository.findBySkuCodeIn(List.of(skuCode)).get(0).getQuantity();
+    }
+
+    private int totalQuantity(String skuCode) {
+        return inventoryRepository.findSkuQuantitiesBySkuCodeIn(List.of(skuCode)).get(0).quantity();
+    }
+
+    private ReservationRequest request(String skuCode, int quantity) {
+        return new ReservationRequest(List.of(new ReservationItemDto(skuCode, quantity)));
+    }
+
+    private Inventory createInventory(String skuCode, Integer quantity) {
+        Inventory inventory = new Inventory();
+        inventory.setSkuCode(skuCode);
+        inventory.setQuantity(quantity);
+        return inventory;
+    }
+}
@@ -0,0 +1,43 @@
+package com.programmingtechie.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Schedulers used by the reactive order placement pipeline.
+ * The execution mode follows {@code spring.threads.virtual.enabled}, which also moves Tomcat request
+ * handling onto virtual threads.
+ */
+@Configuration
+public class SchedulerConfig {
+
+    /**
+     * Bounded scheduler for the blocking JPA step of order placement.
+     * Sized to the Hikari pool so no more threads block on JDBC than there are connections to serve them;
+     * excess work queues on the scheduler instead of on the pool.
+     */
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Scheduler jdbcScheduler(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                   @Value("${order.jdbc-scheduler.queue-size:10000}") int queueSize) {
+        return Schedulers.newBoundedElastic(poolSize, queueSize, "order-jdbc");
+    }
+
+    /**
+     * Virtual-thread-per-task scheduler for the blocking JPA step of order placement.
+     * A virtual thread waiting for a Hikari connection or a JDBC round-trip does not hold a platform
+     * thread, so the connection pool alone bounds the database concurrency.
+     */
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Scheduler virtualThreadJdbcScheduler() {
+        return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "order-jdbc");
+    }
+}
@@ -1,23 +1,32 @@
 package com.programmingtechie.orderservice.controller;
 
+import com.programmingtechie.orderservice.dto.OrderPage;
 import com.programmingtechie.orderservice.dto.OrderRequest;
+import com.programmingtechie.orderservice.dto.OrderResponse;
+import com.programmingtechie.orderservice.service.AdaptiveConcurrencyLimiter;
+import com.programmingtechie.orderservice.service.BulkOrderService;
+import com.programmingtechie.orderservice.service.IdempotencyService;
+import com.programmingtechie.orderservice.service.OrderQueryService;
 import com.programmingtechie.orderservice.service.OrderService;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
-import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 
-import java.util.concurrent.CompletableFuture;
+import java.io.InputStream;
 
 /**
  * REST Controller for managing order operations.
- * Implements resilience patterns (Circuit Breaker, Retry, Time Limiter) for fault tolerance.
- * Handles asynchronous order processing with inventory validation.
+ * Handles non-blocking order processing with inventory validation; the resilience patterns
+ * (Circuit Breaker, Retry, Time Limiter) are applied to the inventory call inside {@link OrderService}.
  */
 @RestController // Marks this class as a REST controller that handles HTTP requests
 @RequestMapping("/api/order") // Base URL mapping for all endpoints in this controller
@@ -28,38 +37,107 @@ public class OrderController {
 
     // Dependency injection of OrderService to handle business logic
     private final OrderService orderService;
+    // Deduplicates requests carrying an Idempotency-Key header
+    private final IdempotencyService idempotencyService;
+    // Processes NDJSON bulk uploads
+    private final BulkOrderService bulkOrderService;
+    // Serves the order read endpoints
+    private final OrderQueryService orderQueryService;
+    // Sheds order placements beyond the current adaptive concurrency limit
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
 
     /**
-     * Places a new order with comprehensive resilience patterns.
-     * Implements Circuit Breaker, Retry, and Time Limiter for fault tolerance.
-     * Processes orders asynchronously to improve performance and user experience.
+     * Places a new order.
+     * The returned Mono is subscribed by Spring MVC's async support, so the request thread is released
+     * while the inventory call is in flight and no thread is parked waiting on the network.
+     * Placements beyond the adaptive concurrency limit are rejected with 503 and a Retry-After header.
+     * When an Idempotency-Key header is sent, a retried request returns the original result instead of
+     * placing the order again. A blank key or one longer than 255 characters is rejected with 400.
      * 
      * @param orderRequest DTO containing order details and line items
-     * @return CompletableFuture with order confirmation message
+     * @param idempotencyKey optional client generated key identifying this order submission
+     * @return Mono with order confirmation message
      */
     @PostMapping // Maps HTTP POST requests to this method
     @ResponseStatus(HttpStatus.CREATED) // Returns 201 status code on success
     @Operation(summary = "Place an order", description = "Places a new order with inventory validation")
-    @CircuitBreaker(name = "inventory", fallbackMethod = "fallbackMethod") // Circuit breaker for inventory service calls
-    @TimeLimiter(name = "inventory") // Time limiter to prevent long-running requests
-    @Retry(name = "inventory") // Retry mechanism for transient failures
-    public CompletableFuture<String> placeOrder(@RequestBody OrderRequest orderRequest) {
+    public Mono<String> placeOrder(@RequestBody OrderRequest orderRequest,
+                                   @Parameter(description = "Client generated key that makes retries of this request safe")
+                                   @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
         log.info("Placing Order");
-        // Execute order placement asynchronously to avoid blocking the request thread
-        return CompletableFuture.supplyAsync(() -> orderService.placeOrder(orderRequest));
+        if (idempotencyKey != null
+                && (idempotencyKey.isBlank() || idempotencyKey.length() > IdempotencyService.MAX_KEY_LENGTH)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1 to " + IdempotencyService.MAX_KEY_LENGTH + " characters");
+        }
+        // Excess requests are shed with 503 before they claim an idempotency key or call inventory-service;
+        // the deferred placement also routes failures while assembling the pipeline to the fallback
+        Mono<String> placement = concurrencyLimiter.execute(() -> idempotencyKey == null
+                ? orderService.placeOrder(orderRequest)
+                : idempotencyService.execute(idempotencyKey, () -> orderService.placeOrder(orderRequest)));
+        // Errors that already carry an HTTP status (409 for a duplicate in flight, 503 when shedding load)
+        // are returned as is
+        return placement.onErrorResume(throwable -> !(throwable instanceof ResponseStatusException),
+                throwable -> fallbackMethod(orderRequest, throwable));
     }
 
     /**
-     * Fallback method executed when circuit breaker is open or service calls fail.
+     * Places the orders of an NDJSON upload, one order request per line.
+     * The body is consumed incrementally while results are streamed back as NDJSON, one line per order in
+     * chunk order, so neither the upload nor the response is ever held in memory as a whole.
+     *
+     * @param upload raw request body
+     * @return streamed NDJSON results
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Place orders in bulk", description = "Places NDJSON orders and streams back one result per order")
+    public ResponseEntity<StreamingResponseBody> placeOrders(InputStream upload) {
+        log.info("Placing Bulk Orders");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(results -> bulkOrderService.placeOrders(upload, results));
+    }
+
+    /**
+     * Lists orders, newest first.
+     * Pages are addressed by cursor rather than offset, so deep pages cost the same as the first one.
+     *
+     * @param cursor nextCursor of the previous page; omit for the first page
+     * @param size maximum number of orders per page (capped at 100)
+     * @return page of orders with their line items
+     */
+    @GetMapping // Maps HTTP GET requests to this method
+    @Operation(summary = "List orders", description = "Lists orders newest first using cursor pagination")
+    public OrderPage getOrders(@Parameter(description = "Cursor returned with the previous page")
+                               @RequestParam(required = false) String cursor,
+                               @Parameter(description = "Page size", example = "20")
+                               @RequestParam(defaultValue = "20") int size) {
+        return orderQueryService.getOrders(cursor, size);
+    }
+
+    /**
+     * Returns a single order by its order number.
+     *
+     * @param orderNumber order number returned when the order was placed
+     * @return the order with its line items, or 404 if it does not exist
+     */
+    @GetMapping("/{orderNumber}")
+    @Operation(summary = "Get an order", description = "Returns an order and its line items by order number")
+    public OrderResponse getOrder(@PathVariable String orderNumber) {
+        return orderQueryService.getOrder(orderNumber);
+    }
+
+    /**
+     * Fallback executed when the circuit breaker is open or order placement fails.
      * Provides graceful degradation by returning a user-friendly error message.
-     * Must have the same signature as the original method plus RuntimeException parameter.
      * 
      * @param orderRequest original order request (for potential retry logic)
-     * @param runtimeException the exception that triggered the fallback
-     * @return CompletableFuture with fallback error message
+     * @param throwable the error that triggered the fallback
+     * @return Mono with fallback error message
      */
-    public CompletableFuture<String> fallbackMethod(OrderRequest orderRequest, RuntimeException runtimeException) {
-        log.info("Cannot Place Order Executing Fallback logic");
-        return CompletableFuture.supplyAsync(() -> "Oops! Something went wrong, please order after some time!");
+    public Mono<String> fallbackMethod(OrderRequest orderRequest, Throwable throwable) {
+        log.info("Cannot Place Order Executing Fallback logic", throwable);
+        return Mono.just("Oops! Something went wrong, please order after some time!");
     }
 }
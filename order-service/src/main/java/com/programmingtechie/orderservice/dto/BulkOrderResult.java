@@ -0,0 +1,59 @@
+package com.programmingtechie.orderservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of one order of a bulk upload")
+public class BulkOrderResult {
+    @Schema(description = "Line of the upload the order was read from, starting at 1", example = "1")
+    private long line;
+
+    @Schema(description = "Outcome of the order", example = "PLACED")
+    private Status status;
+
+    @Schema(description = "Order number, present when the order was or may have been placed", example = "0b7e4a4c-8f0e-4f3a-9d55-0d6f1d3c2a11")
+    private String orderNumber;
+
+    @Schema(description = "Reason the order was not placed")
+    private String message;
+
+    public static BulkOrderResult placed(String orderNumber) {
+        return new BulkOrderResult(0, Status.PLACED, orderNumber, null);
+    }
+
+    public static BulkOrderResult rejected(String message) {
+        return new BulkOrderResult(0, Status.REJECTED, null, message);
+    }
+
+    public static BulkOrderResult invalid(String message) {
+        return new BulkOrderResult(0, Status.INVALID, null, message);
+    }
+
+    public static BulkOrderResult failed(String message) {
+        return new BulkOrderResult(0, Status.FAILED, null, message);
+    }
+
+    public static BulkOrderResult unknown(String orderNumber, String message) {
+        return new BulkOrderResult(0, Status.UNKNOWN, orderNumber, message);
+    }
+
+    public enum Status {
+        // Order persisted and its event written to the outbox
+        PLACED,
+        // A product of the order is out of stock
+        REJECTED,
+        // The line could not be parsed as an order
+        INVALID,
+        // Inventory lookup or persistence failed; the order can be resubmitted
+        FAILED,
+        // The commit failed, so the order may have been placed; check its order number before resubmitting
+        UNKNOWN
+    }
+}
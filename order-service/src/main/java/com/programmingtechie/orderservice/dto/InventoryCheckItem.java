@@ -0,0 +1,13 @@
+package com.programmingtechie.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryCheckItem {
+    private String skuCode;
+    private Integer quantity;
+}
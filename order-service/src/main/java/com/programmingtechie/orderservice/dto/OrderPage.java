@@ -0,0 +1,20 @@
+package com.programmingtechie.orderservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Page of orders, newest first")
+public class OrderPage {
+    @Schema(description = "Orders of this page")
+    private List<OrderResponse> orders;
+
+    @Schema(description = "Cursor for the next page, absent on the last page")
+    private String nextCursor;
+}
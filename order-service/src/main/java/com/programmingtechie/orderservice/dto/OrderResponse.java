@@ -0,0 +1,38 @@
+package com.programmingtechie.orderservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Placed order")
+public class OrderResponse {
+    // Internal key, used to attach line items and to build page cursors
+    @JsonIgnore
+    private Long id;
+
+    @Schema(description = "Order number", example = "0b7e4a4c-8f0e-4f3a-9d55-0d6f1d3c2a11")
+    private UUID orderNumber;
+
+    @Schema(description = "Time the order was placed")
+    private Instant createdAt;
+
+    @Schema(description = "List of order line items")
+    private List<OrderLineItemsDto> orderLineItemsDtoList = new ArrayList<>();
+
+    // Used by the JPQL constructor expressions in OrderRepository
+    public OrderResponse(Long id, UUID orderNumber, Instant createdAt) {
+        this.id = id;
+        this.orderNumber = orderNumber;
+        this.createdAt = createdAt;
+    }
+}
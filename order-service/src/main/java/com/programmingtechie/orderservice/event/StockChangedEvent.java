@@ -0,0 +1,19 @@
+package com.programmingtechie.orderservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock change published by inventory-service on stockChangeTopic.
+ * The delta of an event can be delivered twice; the quantity is the stock level when the event was sent.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockChangedEvent {
+    private String skuCode;
+    private int delta;
+    // Null if the SKU no longer exists
+    private Integer quantity;
+}
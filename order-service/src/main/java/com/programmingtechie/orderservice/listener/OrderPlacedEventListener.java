@@ -1,40 +1,32 @@
 package com.programmingtechie.orderservice.listener;
 
 import com.programmingtechie.orderservice.event.OrderPlacedEvent;
-import io.micrometer.observation.Observation;
-import io.micrometer.observation.ObservationRegistry;
+import com.programmingtechie.orderservice.model.OutboxEvent;
+import com.programmingtechie.orderservice.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.time.Instant;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class OrderPlacedEventListener {
 
-    private final KafkaTemplate<String, OrderPlacedEvent> kafkaTemplate;
-    private final ObservationRegistry observationRegistry;
+    private final OutboxEventRepository outboxEventRepository;
 
+    /**
+     * Records the event in the outbox as part of the transaction that saves the order, so it is
+     * published if and only if the order commits. Delivery to notificationTopic is done by the outbox relay.
+     */
     @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
     public void handleOrderPlacedEvent(OrderPlacedEvent event) {
-        log.info("Order Placed Event Received, Sending OrderPlacedEvent to notificationTopic: {}", event.getOrderNumber());
-
-        // Create Observation for Kafka Template
-        try {
-            Observation.createNotStarted("notification-topic", this.observationRegistry).observeChecked(() -> {
-                CompletableFuture<SendResult<String, OrderPlacedEvent>> future = kafkaTemplate.send("notificationTopic",
-                        new OrderPlacedEvent(event.getOrderNumber()));
-                return future.handle((result, throwable) -> CompletableFuture.completedFuture(result));
-            }).get();
-        } catch (InterruptedException | ExecutionException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Error while sending message to Kafka", e);
-        }
+        log.info("Order Placed Event Received, Writing OrderPlacedEvent to outbox: {}", event.getOrderNumber());
+        outboxEventRepository.save(new OutboxEvent(event.getOrderNumber(), Instant.now()));
     }
 }
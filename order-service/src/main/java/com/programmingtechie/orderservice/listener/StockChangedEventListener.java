@@ -0,0 +1,28 @@
+package com.programmingtechie.orderservice.listener;
+
+import com.programmingtechie.orderservice.event.StockChangedEvent;
+import com.programmingtechie.orderservice.service.InventoryAvailabilityCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "order.inventory.cache.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class StockChangedEventListener {
+
+    private final InventoryAvailabilityCache inventoryAvailabilityCache;
+
+    /**
+     * Invalidates the cached availability of a SKU whose stock changed.
+     * Every instance uses its own consumer group so each near cache sees every event.
+     */
+    @KafkaListener(topics = "stockChangeTopic", groupId = "order-service-cache-${random.uuid}")
+    public void handleStockChangedEvent(StockChangedEvent event) {
+        log.debug("Stock changed for {}, invalidating cached availability", event.getSkuCode());
+        inventoryAvailabilityCache.invalidate(event.getSkuCode());
+    }
+}
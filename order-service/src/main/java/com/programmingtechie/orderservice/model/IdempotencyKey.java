@@ -0,0 +1,50 @@
+package com.programmingtechie.orderservice.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Idempotency-Key claimed by an order request. A null response means the request is still in progress.
+ */
+@Entity
+@Table(name = "t_idempotency_keys")
+@Getter
+@Setter
+@NoArgsConstructor
+public class IdempotencyKey implements Persistable<String> {
+    @Id
+    private String idempotencyKey;
+    private String response;
+    private Instant expiresAt;
+
+    // Assigned ids would make save() merge; a new key must be inserted so a duplicate fails on the primary key
+    @Transient
+    private boolean isNew;
+
+    public IdempotencyKey(String idempotencyKey, Instant expiresAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.expiresAt = expiresAt;
+        this.isNew = true;
+    }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -6,19 +6,35 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import java.time.Instant;
 import java.util.List;
+import java.util.UUID;
 
 @Entity
-@Table(name = "t_orders")
+@Table(name = "t_orders", indexes = {
+        @Index(name = "ux_orders_order_number", columnList = "orderNumber", unique = true),
+        // Backs the keyset pagination of the order listing
+        @Index(name = "ix_orders_created_at_id", columnList = "createdAt, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY would force one round-trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "t_orders_seq")
+    @SequenceGenerator(name = "t_orders_seq", allocationSize = 50)
     private Long id;
-    private String orderNumber;
-    @OneToMany(cascade = CascadeType.ALL)
+    // Time ordered UUID stored in its 16 byte binary form (BINARY(16) on MySQL, uuid on PostgreSQL), so new
+    // orders append to the right edge of the unique index instead of splitting random pages
+    @JdbcTypeCode(SqlTypes.UUID)
+    private UUID orderNumber;
+    @Column(nullable = false)
+    private Instant createdAt;
+    // Mapped by the order_id foreign key on t_order_line_items instead of a join table
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
     private List<OrderLineItems> orderLineItemsList;
 }
@@ -9,16 +9,21 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "t_order_line_items")
+// Line items are read per order id, which MySQL indexes for the foreign key but PostgreSQL does not
+@Table(name = "t_order_line_items", indexes = @Index(name = "ix_order_line_items_order_id", columnList = "order_id"))
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 public class OrderLineItems {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "t_order_line_items_seq")
+    @SequenceGenerator(name = "t_order_line_items_seq", allocationSize = 50)
     private Long id;
     private String skuCode;
     private BigDecimal price;
     private Integer quantity;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    private Order order;
 }
@@ -0,0 +1,41 @@
+package com.programmingtechie.orderservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Pending OrderPlacedEvent, written in the same transaction as the order and drained to Kafka by the outbox relay.
+ * The id gives the relay its ordering; attempts and lastError record failed deliveries. claimedUntil is set while
+ * a relay is sending the event, so that other relays leave it alone without holding a row lock during the send.
+ */
+@Entity
+@Table(name = "t_order_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    // Width of t_order_outbox.last_error
+    public static final int LAST_ERROR_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "t_order_outbox_seq")
+    @SequenceGenerator(name = "t_order_outbox_seq", allocationSize = 50)
+    private Long id;
+    private String orderNumber;
+    private Instant createdAt;
+    private int attempts;
+    @Column(length = LAST_ERROR_LENGTH)
+    private String lastError;
+    private Instant claimedUntil;
+
+    public OutboxEvent(String orderNumber, Instant createdAt) {
+        this.orderNumber = orderNumber;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,25 @@
+package com.programmingtechie.orderservice.repository;
+
+import com.programmingtechie.orderservice.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    @Modifying
+    @Query("update IdempotencyKey k set k.response = null, k.expiresAt = :expiresAt " +
+            "where k.idempotencyKey = :idempotencyKey and k.expiresAt < :now")
+    int reclaimExpired(String idempotencyKey, Instant now, Instant expiresAt);
+
+    @Modifying
+    @Query("update IdempotencyKey k set k.response = :response, k.expiresAt = :expiresAt " +
+            "where k.idempotencyKey = :idempotencyKey")
+    int complete(String idempotencyKey, String response, Instant expiresAt);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.expiresAt < :now")
+    int deleteExpired(Instant now);
+}
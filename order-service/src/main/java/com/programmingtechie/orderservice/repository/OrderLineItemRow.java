@@ -0,0 +1,10 @@
+package com.programmingtechie.orderservice.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Line item read together with the id of its order, so that the items of a page of orders can be grouped
+ * after a single query.
+ */
+public record OrderLineItemRow(Long orderId, Long id, String skuCode, BigDecimal price, Integer quantity) {
+}
@@ -1,7 +1,44 @@
 package com.programmingtechie.orderservice.repository;
 
+import com.programmingtechie.orderservice.dto.OrderResponse;
 import com.programmingtechie.orderservice.model.Order;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * Newest orders first. The projection reads straight into DTOs, so no entities are hydrated.
+     */
+    @Query("select new com.programmingtechie.orderservice.dto.OrderResponse(o.id, o.orderNumber, o.createdAt) "
+            + "from Order o order by o.createdAt desc, o.id desc")
+    List<OrderResponse> findFirstPage(Limit limit);
+
+    /**
+     * Orders strictly older than the (createdAt, id) position of the last order of the previous page.
+     * Seeking on the index instead of skipping an offset makes every page cost the same.
+     */
+    @Query("select new com.programmingtechie.orderservice.dto.OrderResponse(o.id, o.orderNumber, o.createdAt) "
+            + "from Order o where o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id) "
+            + "order by o.createdAt desc, o.id desc")
+    List<OrderResponse> findPageBefore(Instant createdAt, Long id, Limit limit);
+
+    @Query("select new com.programmingtechie.orderservice.dto.OrderResponse(o.id, o.orderNumber, o.createdAt) "
+            + "from Order o where o.orderNumber = :orderNumber")
+    Optional<OrderResponse> findResponseByOrderNumber(UUID orderNumber);
+
+    /**
+     * Line items of several orders in one query, read without hydrating entities.
+     */
+    @Query("select new com.programmingtechie.orderservice.repository.OrderLineItemRow("
+            + "li.order.id, li.id, li.skuCode, li.price, li.quantity) "
+            + "from OrderLineItems li where li.order.id in :orderIds order by li.id")
+    List<OrderLineItemRow> findLineItemRows(Collection<Long> orderIds);
 }
@@ -0,0 +1,36 @@
+package com.programmingtechie.orderservice.repository;
+
+import com.programmingtechie.orderservice.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest deliverable events that no relay has claimed, or whose claim has lapsed. Rows already
+     * locked by another relay instance are skipped (lock timeout -2 is Hibernate's SKIP LOCKED), so several
+     * order-service instances can claim batches in parallel.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEvent e where e.attempts < :maxAttempts"
+            + " and (e.claimedUntil is null or e.claimedUntil < :now) order by e.id")
+    List<OutboxEvent> findNextBatch(int maxAttempts, Instant now, Pageable pageable);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedUntil = :claimedUntil where e.id in :ids")
+    int claim(Collection<Long> ids, Instant claimedUntil);
+
+    Optional<OutboxEvent> findFirstByAttemptsLessThanOrderByIdAsc(int maxAttempts);
+}
@@ -0,0 +1,133 @@
+package com.programmingtechie.orderservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Adaptive concurrency limit for order placement using additive increase, multiplicative decrease (AIMD).
+ * Requests beyond the current limit are rejected immediately with 503 instead of queueing behind a slow
+ * inventory-service. While the limit is being used each fast completion grows it by 1/limit, about one per
+ * window of limit requests, and it shrinks by the backoff ratio whenever a request is slower than the latency
+ * threshold or fails because a dependency is overloaded, so in-flight work follows the capacity actually available.
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final Duration retryAfter;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejections;
+
+    // Fractional so that repeated decreases of small limits still make progress; guarded by this
+    private double limit;
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${order.concurrency.enabled:true}") boolean enabled,
+                                      @Value("${order.concurrency.initial-limit:20}") int initialLimit,
+                                      @Value("${order.concurrency.min-limit:1}") int minLimit,
+                                      @Value("${order.concurrency.max-limit:200}") int maxLimit,
+                                      @Value("${order.concurrency.latency-threshold:1s}") Duration latencyThreshold,
+                                      @Value("${order.concurrency.backoff-ratio:0.9}") double backoffRatio,
+                                      @Value("${order.concurrency.retry-after:1s}") Duration retryAfter) {
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.retryAfter = retryAfter;
+        this.limit = initialLimit;
+        Gauge.builder("order.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit for order placement")
+                .register(meterRegistry);
+        Gauge.builder("order.concurrency.in-flight", inFlight, AtomicInteger::get)
+                .description("Order placements currently in flight")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("order.concurrency.rejections")
+                .description("Order placements rejected because the concurrency limit was reached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the request if a slot is free under the current limit.
+     *
+     * @param request request to run
+     * @return Mono emitting the request's result, or failing with {@link ConcurrencyLimitExceededException}
+     */
+    public <T> Mono<T> execute(Supplier<Mono<T>> request) {
+        if (!enabled) {
+            return Mono.defer(request);
+        }
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                rejections.increment();
+                return Mono.error(new ConcurrencyLimitExceededException(retryAfter));
+            }
+            long startNanos = System.nanoTime();
+            boolean[] overloaded = new boolean[1];
+            return Mono.defer(request)
+                    .doOnError(throwable -> overloaded[0] = isOverload(throwable))
+                    .doFinally(signalType -> release(signalType, overloaded[0], System.nanoTime() - startNanos));
+        });
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void release(SignalType signalType, boolean overloaded, long latencyNanos) {
+        int inFlightBeforeRelease = inFlight.getAndDecrement();
+        if (signalType == SignalType.CANCEL) {
+            // The client went away; the latency says nothing about our capacity
+            return;
+        }
+        synchronized (this) {
+            if (overloaded || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (inFlightBeforeRelease * 2 >= limit) {
+                // Only grow while the limit is actually the constraint, so idle periods do not inflate it. A whole
+                // slot per completion would double the limit every window; 1/limit adds one slot per window
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    /**
+     * Business failures such as an out of stock product say nothing about load; everything else (timeouts,
+     * open circuit breaker, inventory-service errors) is treated as a sign of overload.
+     */
+    private boolean isOverload(Throwable throwable) {
+        return !(throwable instanceof IllegalArgumentException || throwable instanceof ResponseStatusException);
+    }
+}
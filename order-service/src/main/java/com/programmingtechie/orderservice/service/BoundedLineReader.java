@@ -0,0 +1,72 @@
+package com.programmingtechie.orderservice.service;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads lines like {@link java.io.BufferedReader#readLine()}, but keeps at most maxLineLength characters of a
+ * line, so that an upload without line breaks cannot fill the heap. The rest of a longer line is skipped and
+ * {@link #isTruncated()} reports it.
+ */
+class BoundedLineReader {
+
+    private final Reader reader;
+    private final int maxLineLength;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    // A line ended with \r, so a \n right after it belongs to the same line break
+    private boolean skipLineFeed;
+    private boolean truncated;
+
+    BoundedLineReader(Reader reader, int maxLineLength) {
+        this.reader = reader;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Reads the next line, without its line break.
+     *
+     * @return the line, cut to maxLineLength characters, or null at the end of the input
+     * @throws IOException if reading fails
+     */
+    String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        truncated = false;
+        boolean empty = true;
+        while (true) {
+            if (position == limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit < 0) {
+                    limit = 0;
+                    return empty ? null : line.toString();
+                }
+            }
+            char c = buffer[position++];
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (c == '\n') {
+                    continue;
+                }
+            }
+            if (c == '\n' || c == '\r') {
+                skipLineFeed = c == '\r';
+                return line.toString();
+            }
+            empty = false;
+            if (line.length() < maxLineLength) {
+                line.append(c);
+            } else {
+                truncated = true;
+            }
+        }
+    }
+
+    /**
+     * Whether the last line read was longer than maxLineLength and was cut.
+     */
+    boolean isTruncated() {
+        return truncated;
+    }
+}
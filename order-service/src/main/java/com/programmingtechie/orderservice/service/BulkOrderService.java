@@ -0,0 +1,141 @@
+package com.programmingtechie.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.programmingtechie.orderservice.dto.BulkOrderResult;
+import com.programmingtechie.orderservice.dto.OrderLineItemsDto;
+import com.programmingtechie.orderservice.dto.OrderRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Places the orders of an NDJSON upload, one JSON order request per line.
+ * The upload is read line by line and processed in chunks: each chunk costs one inventory lookup and one
+ * batched transaction, and its results are written and flushed before the next chunk is read, so memory
+ * stays bounded by the chunk size whatever the size of the upload. Lines longer than order.bulk.max-line-length
+ * characters are reported as invalid without being held in memory.
+ */
+@Service
+@Slf4j
+public class BulkOrderService {
+
+    private final OrderService orderService;
+    private final ObjectReader orderRequestReader;
+    private final ObjectWriter resultWriter;
+    private final int chunkSize;
+    private final int maxLineLength;
+    private final Map<BulkOrderResult.Status, Counter> resultCounters = new EnumMap<>(BulkOrderResult.Status.class);
+
+    public BulkOrderService(OrderService orderService,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${order.bulk.chunk-size:500}") int chunkSize,
+                            @Value("${order.bulk.max-line-length:65536}") int maxLineLength) {
+        this.orderService = orderService;
+        this.orderRequestReader = objectMapper.readerFor(OrderRequest.class);
+        this.resultWriter = objectMapper.writerFor(BulkOrderResult.class);
+        this.chunkSize = chunkSize;
+        this.maxLineLength = maxLineLength;
+        for (BulkOrderResult.Status status : BulkOrderResult.Status.values()) {
+            resultCounters.put(status, Counter.builder("order.bulk.orders")
+                    .description("Orders processed by the bulk endpoint")
+                    .tag("status", status.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Reads order requests from the upload and writes one NDJSON result per non blank line.
+     *
+     * @param upload NDJSON request body
+     * @param results stream the results are written to
+     * @throws IOException if reading the upload or writing the results fails
+     */
+    public void placeOrders(InputStream upload, OutputStream results) throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new InputStreamReader(upload, StandardCharsets.UTF_8), maxLineLength);
+        List<OrderRequest> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (reader.isTruncated()) {
+                write(results, lineNumber, BulkOrderResult.invalid("Line is longer than " + maxLineLength + " characters"));
+                continue;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            OrderRequest orderRequest;
+            try {
+                orderRequest = orderRequestReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                // Malformed lines are reported right away and do not affect the rest of the chunk
+                write(results, lineNumber, BulkOrderResult.invalid(e.getOriginalMessage()));
+                continue;
+            }
+            if (!isValid(orderRequest)) {
+                write(results, lineNumber, BulkOrderResult.invalid("Order must contain line items with a SKU code"));
+                continue;
+            }
+            chunk.add(orderRequest);
+            chunkLines.add(lineNumber);
+            if (chunk.size() == chunkSize) {
+                placeChunk(chunk, chunkLines, results);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            placeChunk(chunk, chunkLines, results);
+        }
+        results.flush();
+    }
+
+    private void placeChunk(List<OrderRequest> chunk, List<Long> chunkLines, OutputStream results) throws IOException {
+        List<BulkOrderResult> chunkResults;
+        try {
+            chunkResults = orderService.placeOrders(chunk).block();
+        } catch (RuntimeException e) {
+            // The chunk failed before its transaction committed (commit failures come back as UNKNOWN results),
+            // so none of its orders were placed
+            log.warn("Failed to place a chunk of {} bulk orders", chunk.size(), e);
+            BulkOrderResult failed = BulkOrderResult.failed("Order could not be placed, please resubmit it later");
+            chunkResults = chunk.stream().map(orderRequest -> failed).toList();
+        }
+        for (int i = 0; i < chunkResults.size(); i++) {
+            write(results, chunkLines.get(i), chunkResults.get(i));
+        }
+        results.flush();
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private boolean isValid(OrderRequest orderRequest) {
+        List<OrderLineItemsDto> orderLineItems = orderRequest.getOrderLineItemsDtoList();
+        return orderLineItems != null && !orderLineItems.isEmpty()
+                && orderLineItems.stream().allMatch(orderLineItem -> orderLineItem != null && orderLineItem.getSkuCode() != null);
+    }
+
+    private void write(OutputStream results, long lineNumber, BulkOrderResult result) throws IOException {
+        resultCounters.get(result.getStatus()).increment();
+        // Copy so that results shared across a failed chunk keep their own line number
+        BulkOrderResult numbered = new BulkOrderResult(lineNumber, result.getStatus(), result.getOrderNumber(),
+                result.getMessage());
+        results.write(resultWriter.writeValueAsBytes(numbered));
+        results.write('\n');
+    }
+}
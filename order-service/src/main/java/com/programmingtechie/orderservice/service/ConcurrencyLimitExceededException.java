@@ -0,0 +1,30 @@
+package com.programmingtechie.orderservice.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * Rejection by the {@link AdaptiveConcurrencyLimiter}, answered with 503 Service Unavailable and a
+ * Retry-After header telling the client when to try again.
+ */
+public class ConcurrencyLimitExceededException extends ResponseStatusException {
+
+    private final Duration retryAfter;
+
+    public ConcurrencyLimitExceededException(Duration retryAfter) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Too many orders in flight, please retry later");
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        // Retry-After is whole seconds; round up so that a sub-second value is not sent as zero
+        headers.set(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000)));
+        return headers;
+    }
+}
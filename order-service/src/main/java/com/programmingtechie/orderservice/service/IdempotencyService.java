@@ -0,0 +1,89 @@
+package com.programmingtechie.orderservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Executes a request at most once per Idempotency-Key.
+ * The first request claims the key and records its result; a replay returns that result without running the
+ * request again, and a duplicate arriving while the first is still running is rejected with 409 Conflict.
+ * A request that failed before committing releases its key so that the client can retry it; a request whose
+ * client disconnects runs to completion and keeps the key until then.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    // Width of t_idempotency_keys.idempotency_key
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore idempotencyStore;
+    private final Counter executedCounter;
+    private final Counter replayedCounter;
+    private final Counter conflictCounter;
+
+    public IdempotencyService(IdempotencyStore idempotencyStore, MeterRegistry meterRegistry) {
+        this.idempotencyStore = idempotencyStore;
+        this.executedCounter = requestCounter(meterRegistry, "executed");
+        this.replayedCounter = requestCounter(meterRegistry, "replayed");
+        this.conflictCounter = requestCounter(meterRegistry, "conflict");
+    }
+
+    /**
+     * Runs the request unless its key has been seen before.
+     *
+     * @param idempotencyKey client supplied key
+     * @param request request to execute when the key is new
+     * @return Mono emitting the request's result, or the result recorded for the key
+     */
+    public Mono<String> execute(String idempotencyKey, Supplier<Mono<String>> request) {
+        return idempotencyStore.claim(idempotencyKey).flatMap(claim -> {
+            if (claim.acquired()) {
+                executedCounter.increment();
+                Mono<String> execution = Mono.defer(request)
+                        .onErrorResume(throwable -> releaseIfNotCommitted(idempotencyKey, throwable))
+                        // A failure to record the response leaves the key in progress until it expires, because
+                        // the request has already taken effect
+                        .flatMap(response -> idempotencyStore.complete(idempotencyKey, response).thenReturn(response));
+                // The request keeps running when the client goes away, so that its outcome is still recorded
+                // and a retry either replays it or finds the key in progress
+                return Mono.fromFuture(execution::toFuture, true);
+            }
+            if (claim.response() != null) {
+                log.info("Replaying result for Idempotency-Key {}", idempotencyKey);
+                replayedCounter.increment();
+                return Mono.just(claim.response());
+            }
+            conflictCounter.increment();
+            return Mono.error(new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still in progress"));
+        });
+    }
+
+    /**
+     * Releases the key of a failed request so that it can be retried, unless the failure came from the commit
+     * itself, whose outcome is unknown.
+     */
+    private Mono<String> releaseIfNotCommitted(String idempotencyKey, Throwable throwable) {
+        if (throwable instanceof TransactionSystemException) {
+            log.warn("Keeping Idempotency-Key {} claimed, the transaction outcome is unknown", idempotencyKey, throwable);
+            return Mono.error(throwable);
+        }
+        return idempotencyStore.release(idempotencyKey).then(Mono.error(throwable));
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("order.idempotency.requests")
+                .description("Requests carrying an Idempotency-Key")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,42 @@
+package com.programmingtechie.orderservice.service;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Expiring store of Idempotency-Key values and the results of the requests that carried them.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Atomically claims a key for a new request. An expired key can be claimed again.
+     *
+     * @param idempotencyKey client supplied key
+     * @return Mono emitting whether the caller now owns the key, or what the first request recorded
+     */
+    Mono<Claim> claim(String idempotencyKey);
+
+    /**
+     * Records the result of the request that owns the key, so later requests replay it.
+     */
+    Mono<Void> complete(String idempotencyKey, String response);
+
+    /**
+     * Forgets a key whose request failed, so a retry can execute it again.
+     */
+    Mono<Void> release(String idempotencyKey);
+
+    /**
+     * Outcome of {@link #claim(String)}.
+     *
+     * @param acquired true if the caller owns the key and must execute the request
+     * @param response recorded result when the first request has completed, null while it is still in progress
+     */
+    record Claim(boolean acquired, String response) {
+
+        static final Claim ACQUIRED = new Claim(true, null);
+
+        static Claim existing(String response) {
+            return new Claim(false, response);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.programmingtechie.orderservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * In-memory {@link IdempotencyStore} for a single order-service instance.
+ * Keys are spread over lock stripes so concurrent requests rarely contend. Each stripe is a map ordered by when
+ * its keys were claimed or completed, and is bounded to its share of the maximum size. When a stripe is full it
+ * drops its oldest expired or completed keys. Keys of requests still in progress are never dropped, since a retry
+ * would run the request again, so a stripe can briefly exceed its share. Completed keys dropped before they expire
+ * shorten the replay window, so they are counted in order.idempotency.evictions.
+ */
+@Component
+@ConditionalOnProperty(name = "order.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long ttlNanos;
+    private final Counter evictionCounter;
+
+    public InMemoryIdempotencyStore(@Value("${order.idempotency.ttl:24h}") Duration ttl,
+                                    @Value("${order.idempotency.maximum-size:100000}") int maximumSize,
+                                    MeterRegistry meterRegistry) {
+        this.ttlNanos = ttl.toNanos();
+        this.evictionCounter = Counter.builder("order.idempotency.evictions")
+                .description("Completed idempotency keys dropped before expiring because the store was full")
+                .register(meterRegistry);
+        int stripeCapacity = Math.max(1, maximumSize / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+    }
+
+    @Override
+    public Mono<Claim> claim(String idempotencyKey) {
+        return Mono.fromSupplier(() -> {
+            Stripe stripe = stripeFor(idempotencyKey);
+            long now = System.nanoTime();
+            synchronized (stripe) {
+                Entry entry = stripe.get(idempotencyKey);
+                if (entry == null || entry.isExpired(now)) {
+                    put(stripe, idempotencyKey, new Entry(null, now + ttlNanos), now);
+                    return Claim.ACQUIRED;
+                }
+                return Claim.existing(entry.response());
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> complete(String idempotencyKey, String response) {
+        return Mono.fromRunnable(() -> {
+            Stripe stripe = stripeFor(idempotencyKey);
+            long now = System.nanoTime();
+            synchronized (stripe) {
+                put(stripe, idempotencyKey, new Entry(response, now + ttlNanos), now);
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> release(String idempotencyKey) {
+        return Mono.fromRunnable(() -> {
+            Stripe stripe = stripeFor(idempotencyKey);
+            synchronized (stripe) {
+                stripe.remove(idempotencyKey);
+            }
+        });
+    }
+
+    /**
+     * Drops expired keys, one stripe at a time.
+     */
+    @Scheduled(fixedDelayString = "${order.idempotency.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.values().removeIf(entry -> entry.isExpired(now));
+            }
+        }
+    }
+
+    // Moves the key to the end of the stripe's order, then makes room
+    private void put(Stripe stripe, String idempotencyKey, Entry entry, long now) {
+        stripe.remove(idempotencyKey);
+        stripe.put(idempotencyKey, entry);
+        int evicted = stripe.evictOverCapacity(now);
+        if (evicted > 0) {
+            evictionCounter.increment(evicted);
+        }
+    }
+
+    private Stripe stripeFor(String idempotencyKey) {
+        int hash = idempotencyKey.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private record Entry(String response, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return expiresAt - now <= 0;
+        }
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Entry> {
+
+        private final int capacity;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * Drops the oldest expired or completed keys while the stripe is over capacity.
+         *
+         * @return the number of completed keys dropped before they expired
+         */
+        int evictOverCapacity(long now) {
+            int evicted = 0;
+            Iterator<Entry> entries = values().iterator();
+            while (size() > capacity && entries.hasNext()) {
+                Entry entry = entries.next();
+                if (entry.isExpired(now)) {
+                    entries.remove();
+                } else if (entry.response() != null) {
+                    entries.remove();
+                    evicted++;
+                }
+            }
+            return evicted;
+        }
+    }
+}
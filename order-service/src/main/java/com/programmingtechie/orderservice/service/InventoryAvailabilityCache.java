@@ -0,0 +1,94 @@
+package com.programmingtechie.orderservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.programmingtechie.orderservice.dto.InventoryResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded near cache of inventory-service responses by SKU code.
+ * Entries expire after a TTL, are evicted by size and are invalidated by stock change events. A cached entry
+ * is only served when the requested quantity leaves at least the low-stock threshold in stock, so orders that
+ * could exhaust a SKU always go to inventory-service.
+ */
+@Component
+@ConditionalOnProperty(name = "order.inventory.cache.enabled", havingValue = "true")
+public class InventoryAvailabilityCache {
+
+    private final Cache<String, InventoryResponse> cache;
+    private final int lowStockThreshold;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter bypassCounter;
+    private final Counter evictionCounter;
+
+    public InventoryAvailabilityCache(MeterRegistry meterRegistry,
+                                      @Value("${order.inventory.cache.maximum-size:10000}") long maximumSize,
+                                      @Value("${order.inventory.cache.ttl:30s}") Duration ttl,
+                                      @Value("${order.inventory.cache.low-stock-threshold:10}") int lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+        this.hitCounter = requestCounter(meterRegistry, "hit");
+        this.missCounter = requestCounter(meterRegistry, "miss");
+        this.bypassCounter = requestCounter(meterRegistry, "bypass");
+        this.evictionCounter = Counter.builder("order.inventory.cache.evictions")
+                .description("Inventory cache entries evicted by size or TTL")
+                .register(meterRegistry);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .removalListener((String skuCode, InventoryResponse response, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        evictionCounter.increment();
+                    }
+                })
+                .build();
+        Gauge.builder("order.inventory.cache.size", cache, Cache::estimatedSize)
+                .description("Inventory cache entries")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached response for a SKU if it can safely answer a request for the given quantity.
+     *
+     * @param skuCode SKU code to look up
+     * @param requestedQuantity quantity the order needs
+     * @return cached response, or null if inventory-service must be asked
+     */
+    public InventoryResponse get(String skuCode, int requestedQuantity) {
+        InventoryResponse response = cache.getIfPresent(skuCode);
+        if (response == null) {
+            missCounter.increment();
+            return null;
+        }
+        Integer quantity = response.getQuantity();
+        if (!response.isInStock() || quantity == null || quantity - requestedQuantity < lowStockThreshold) {
+            bypassCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        return response;
+    }
+
+    public void put(InventoryResponse response) {
+        cache.put(response.getSkuCode(), response);
+    }
+
+    public void invalidate(String skuCode) {
+        cache.invalidate(skuCode);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("order.inventory.cache.requests")
+                .description("Inventory cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,121 @@
+package com.programmingtechie.orderservice.service;
+
+import com.programmingtechie.orderservice.dto.InventoryCheckItem;
+import com.programmingtechie.orderservice.dto.InventoryResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.LoadBalancedExchangeFilterFunction;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client for the inventory-service stock check ({@code POST /api/inventory/check}).
+ * Lookups are answered from the {@link InventoryAvailabilityCache} when it is enabled and safe to do so; the
+ * remaining SKUs are fetched remotely, collapsed across concurrent orders by an {@link InventoryLookupBatcher}
+ * when batching is enabled. Each remote request may be hedged against a slow replica by the
+ * {@link InventoryRequestHedger}, which then picks the replicas instead of the load balancer.
+ */
+@Component
+@Slf4j
+public class InventoryClient {
+
+    private static final URI INVENTORY_SERVICE_URI = URI.create("http://inventory-service");
+
+    private final WebClient webClient;
+    // Bypasses the load balancer; used for hedged requests, whose replicas are picked by the hedger
+    private final WebClient directWebClient;
+    // Null when batching is disabled
+    private final InventoryLookupBatcher inventoryLookupBatcher;
+    // Null when the near cache is disabled
+    private final InventoryAvailabilityCache inventoryAvailabilityCache;
+    // Null when hedging is disabled
+    private final InventoryRequestHedger inventoryRequestHedger;
+
+    public InventoryClient(WebClient.Builder webClientBuilder,
+                           MeterRegistry meterRegistry,
+                           ObjectProvider<InventoryAvailabilityCache> inventoryAvailabilityCache,
+                           ObjectProvider<InventoryRequestHedger> inventoryRequestHedger,
+                           @Value("${order.inventory.batching.enabled:false}") boolean batchingEnabled,
+                           @Value("${order.inventory.batching.window:2ms}") Duration batchingWindow,
+                           @Value("${order.inventory.batching.max-skus:200}") int batchingMaxSkus) {
+        this.webClient = webClientBuilder.build();
+        this.directWebClient = webClientBuilder.clone()
+                .filters(filters -> filters.removeIf(LoadBalancedExchangeFilterFunction.class::isInstance))
+                .build();
+        this.inventoryLookupBatcher = batchingEnabled
+                ? new InventoryLookupBatcher(this::fetch, batchingWindow, batchingMaxSkus, Schedulers.parallel(), meterRegistry)
+                : null;
+        this.inventoryAvailabilityCache = inventoryAvailabilityCache.getIfAvailable();
+        this.inventoryRequestHedger = inventoryRequestHedger.getIfAvailable();
+    }
+
+    /**
+     * Looks up the stock status of the given SKUs.
+     *
+     * @param quantitiesBySkuCode requested quantity per SKU code
+     * @return Mono emitting one response per SKU; unknown SKUs are reported as not in stock
+     */
+    public Mono<List<InventoryResponse>> getInventory(Map<String, Integer> quantitiesBySkuCode) {
+        if (inventoryAvailabilityCache == null) {
+            return lookup(quantitiesBySkuCode);
+        }
+
+        List<InventoryResponse> cached = new ArrayList<>(quantitiesBySkuCode.size());
+        Map<String, Integer> remaining = new LinkedHashMap<>();
+        quantitiesBySkuCode.forEach((skuCode, quantity) -> {
+            InventoryResponse response = inventoryAvailabilityCache.get(skuCode, quantity);
+            if (response != null) {
+                cached.add(response);
+            } else {
+                remaining.put(skuCode, quantity);
+            }
+        });
+        if (remaining.isEmpty()) {
+            return Mono.just(cached);
+        }
+        return lookup(remaining).map(fetched -> {
+            fetched.forEach(inventoryAvailabilityCache::put);
+            List<InventoryResponse> responses = new ArrayList<>(cached.size() + fetched.size());
+            responses.addAll(cached);
+            responses.addAll(fetched);
+            return responses;
+        });
+    }
+
+    private Mono<List<InventoryResponse>> lookup(Map<String, Integer> quantitiesBySkuCode) {
+        if (inventoryLookupBatcher != null) {
+            return inventoryLookupBatcher.lookup(quantitiesBySkuCode);
+        }
+        return fetch(quantitiesBySkuCode);
+    }
+
+    private Mono<List<InventoryResponse>> fetch(Map<String, Integer> quantitiesBySkuCode) {
+        if (inventoryRequestHedger != null) {
+            return inventoryRequestHedger.execute(instanceUri -> request(directWebClient, instanceUri, quantitiesBySkuCode));
+        }
+        return request(webClient, INVENTORY_SERVICE_URI, quantitiesBySkuCode);
+    }
+
+    private Mono<List<InventoryResponse>> request(WebClient client, URI baseUri, Map<String, Integer> quantitiesBySkuCode) {
+        // SKUs and quantities go in the body, so large carts are not bounded by the URL length
+        List<InventoryCheckItem> items = new ArrayList<>(quantitiesBySkuCode.size());
+        quantitiesBySkuCode.forEach((skuCode, quantity) -> items.add(new InventoryCheckItem(skuCode, Math.max(quantity, 1))));
+        return client.post()
+                .uri(baseUri.resolve("/api/inventory/check"))
+                .bodyValue(items)
+                .retrieve()
+                .bodyToFlux(InventoryResponse.class)
+                .collectList();
+    }
+}
@@ -0,0 +1,152 @@
+package com.programmingtechie.orderservice.service;
+
+import com.programmingtechie.orderservice.dto.InventoryResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collapses inventory lookups from concurrent orders into a single inventory-service request.
+ * Lookups are collected until the window elapses or the distinct SKU count reaches the limit, whichever
+ * comes first; the deduplicated SKUs are then fetched once, with the largest quantity any order asked for,
+ * and each waiting order receives the responses for its own SKUs, re-evaluated against its own quantities.
+ */
+public class InventoryLookupBatcher {
+
+    private final Function<Map<String, Integer>, Mono<List<InventoryResponse>>> fetcher;
+    private final Duration window;
+    private final int maxSkus;
+    private final Scheduler scheduler;
+    private final DistributionSummary lookupsPerBatch;
+    private final DistributionSummary skusPerBatch;
+    private final Timer queueDelay;
+
+    private final Object lock = new Object();
+    private List<PendingLookup> pending = new ArrayList<>();
+    private Map<String, Integer> pendingQuantities = new LinkedHashMap<>();
+    private Disposable scheduledFlush;
+
+    public InventoryLookupBatcher(Function<Map<String, Integer>, Mono<List<InventoryResponse>>> fetcher, Duration window,
+                                  int maxSkus, Scheduler scheduler, MeterRegistry meterRegistry) {
+        this.fetcher = fetcher;
+        this.window = window;
+        this.maxSkus = maxSkus;
+        this.scheduler = scheduler;
+        this.lookupsPerBatch = DistributionSummary.builder("order.inventory.batch.lookups")
+                .description("Order lookups collapsed into one inventory-service request")
+                .register(meterRegistry);
+        this.skusPerBatch = DistributionSummary.builder("order.inventory.batch.skus")
+                .description("Distinct SKUs per inventory-service request")
+                .register(meterRegistry);
+        this.queueDelay = Timer.builder("order.inventory.batch.delay")
+                .description("Time a lookup waited for its batch to be dispatched")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Looks up the given SKUs as part of the next batch.
+     *
+     * @param quantitiesBySkuCode requested quantity per SKU code of one order
+     * @return Mono emitting the inventory responses for those SKUs
+     */
+    public Mono<List<InventoryResponse>> lookup(Map<String, Integer> quantitiesBySkuCode) {
+        return Mono.create(sink -> enqueue(new PendingLookup(quantitiesBySkuCode, sink, System.nanoTime())));
+    }
+
+    private void enqueue(PendingLookup lookup) {
+        List<PendingLookup> ready = null;
+        synchronized (lock) {
+            pending.add(lookup);
+            lookup.quantitiesBySkuCode().forEach((skuCode, quantity) -> pendingQuantities.merge(skuCode, quantity, Math::max));
+            if (pendingQuantities.size() >= maxSkus) {
+                ready = drain();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (ready != null) {
+            dispatch(ready);
+        }
+    }
+
+    private void flush() {
+        List<PendingLookup> ready;
+        synchronized (lock) {
+            // Clear the handle first so drain() does not dispose the task that is currently running
+            scheduledFlush = null;
+            ready = drain();
+        }
+        dispatch(ready);
+    }
+
+    // Must be called while holding the lock
+    private List<PendingLookup> drain() {
+        if (scheduledFlush != null) {
+            scheduledFlush.dispose();
+            scheduledFlush = null;
+        }
+        List<PendingLookup> batch = pending;
+        pending = new ArrayList<>();
+        pendingQuantities = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void dispatch(List<PendingLookup> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> quantitiesBySkuCode = new LinkedHashMap<>();
+        long now = System.nanoTime();
+        for (PendingLookup lookup : batch) {
+            lookup.quantitiesBySkuCode().forEach((skuCode, quantity) -> quantitiesBySkuCode.merge(skuCode, quantity, Math::max));
+            queueDelay.record(now - lookup.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+        lookupsPerBatch.record(batch.size());
+        skusPerBatch.record(quantitiesBySkuCode.size());
+
+        fetcher.apply(quantitiesBySkuCode)
+                .defaultIfEmpty(List.of())
+                .subscribe(responses -> {
+                    Map<String, InventoryResponse> bySkuCode = new HashMap<>(responses.size() * 2);
+                    responses.forEach(response -> bySkuCode.put(response.getSkuCode(), response));
+                    batch.forEach(lookup -> lookup.sink().success(lookup.quantitiesBySkuCode().entrySet().stream()
+                            .map(entry -> forQuantity(entry.getKey(), bySkuCode.get(entry.getKey()), entry.getValue()))
+                            .toList()));
+                }, error -> batch.forEach(lookup -> lookup.sink().error(error)));
+    }
+
+    /**
+     * The batch was checked against the largest quantity requested for each SKU, so an order that asked for less
+     * may still be served; re-evaluate with its own quantity when the available quantity is known.
+     * A SKU inventory-service did not answer for is reported as not in stock, so every lookup gets one response
+     * per requested SKU.
+     */
+    private static InventoryResponse forQuantity(String skuCode, InventoryResponse response, int requestedQuantity) {
+        if (response == null) {
+            return new InventoryResponse(skuCode, false, 0);
+        }
+        if (response.getQuantity() == null) {
+            return response;
+        }
+        int available = response.getQuantity();
+        boolean inStock = available > 0 && available >= requestedQuantity;
+        return inStock == response.isInStock() ? response : new InventoryResponse(response.getSkuCode(), inStock, available);
+    }
+
+    private record PendingLookup(Map<String, Integer> quantitiesBySkuCode, MonoSink<List<InventoryResponse>> sink,
+                                 long enqueuedAt) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.programmingtechie.orderservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Hedges inventory-service requests against slow replicas.
+ * Each request is sent to a replica picked round robin from discovery. If it has not answered within the
+ * configured latency percentile of recent attempts, or fails before then, a second, identical request is sent to
+ * a different replica. The first response wins and the other request is cancelled. Hedges are paid for from a
+ * token budget refilled by a fixed percentage of requests, so they never add more than that share of traffic.
+ */
+@Component
+@ConditionalOnProperty(name = "order.inventory.hedging.enabled", havingValue = "true")
+public class InventoryRequestHedger {
+
+    // Latency samples kept for the percentile, and how often the hedge delay is recomputed from them
+    private static final int SAMPLE_SIZE = 1024;
+    private static final int RECOMPUTE_INTERVAL = 64;
+    // Unused budget is capped so that a quiet period cannot fund a burst of hedges
+    private static final double MAX_TOKENS = 10;
+    private static final String INVENTORY_SERVICE = "inventory-service";
+
+    private final ReactiveDiscoveryClient discoveryClient;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final double tokensPerRequest;
+    private final Counter hedgeCounter;
+    private final Counter hedgeWinCounter;
+    private final Counter budgetExhaustedCounter;
+
+    // Guarded by this
+    private final long[] samples = new long[SAMPLE_SIZE];
+    private int sampleCount;
+    private int nextSample;
+    private double tokens;
+    private final AtomicInteger nextInstance = new AtomicInteger();
+    // No hedging until the first percentile is known
+    private volatile long delayNanos = Long.MAX_VALUE;
+
+    public InventoryRequestHedger(ReactiveDiscoveryClient discoveryClient,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${order.inventory.hedging.percentile:0.95}") double percentile,
+                                  @Value("${order.inventory.hedging.min-delay:5ms}") Duration minDelay,
+                                  @Value("${order.inventory.hedging.budget-percent:5}") double budgetPercent) {
+        this.discoveryClient = discoveryClient;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.tokensPerRequest = budgetPercent / 100;
+        this.hedgeCounter = Counter.builder("order.inventory.hedge.requests")
+                .description("Hedged inventory-service requests sent")
+                .register(meterRegistry);
+        this.hedgeWinCounter = Counter.builder("order.inventory.hedge.wins")
+                .description("Hedged inventory-service requests that answered first")
+                .register(meterRegistry);
+        this.budgetExhaustedCounter = Counter.builder("order.inventory.hedge.budget-exhausted")
+                .description("Hedges skipped because the hedge budget was used up")
+                .register(meterRegistry);
+        TimeGauge.builder("order.inventory.hedge.delay", this,
+                        TimeUnit.NANOSECONDS, hedger -> hedger.delayNanos == Long.MAX_VALUE ? 0 : hedger.delayNanos)
+                .description("Delay after which an inventory-service request is hedged")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the request against one replica, hedging it on another if it is slower than the hedge delay or fails.
+     *
+     * @param request creates the request for the base URI of a replica; called once per attempt
+     * @return Mono emitting the first successful response
+     */
+    public <T> Mono<T> execute(Function<URI, Mono<T>> request) {
+        return discoveryClient.getInstances(INVENTORY_SERVICE).collectList().flatMap(instances -> {
+            if (instances.isEmpty()) {
+                return Mono.error(new IllegalStateException("No " + INVENTORY_SERVICE + " instance available"));
+            }
+            refillBudget();
+            int primaryIndex = Math.floorMod(nextInstance.getAndIncrement(), instances.size());
+            Mono<T> primary = timed(request, instances.get(primaryIndex));
+            long delay = delayNanos;
+            // A hedge sent to the same replica would wait behind the same slowness
+            if (delay == Long.MAX_VALUE || instances.size() < 2) {
+                return primary;
+            }
+            ServiceInstance hedgeInstance = instances.get((primaryIndex + 1) % instances.size());
+            Sinks.Empty<Void> primaryFailed = Sinks.empty();
+            Mono<T> hedge = Mono.firstWithSignal(Mono.delay(Duration.ofNanos(delay)).then(), primaryFailed.asMono())
+                    .then(Mono.defer(() -> {
+                        if (!tryConsumeBudget()) {
+                            return Mono.empty();
+                        }
+                        hedgeCounter.increment();
+                        return timed(request, hedgeInstance).doOnNext(response -> hedgeWinCounter.increment());
+                    }));
+            return Mono.firstWithValue(primary.doOnError(throwable -> primaryFailed.tryEmitEmpty()), hedge)
+                    // Surface the primary's own error rather than the aggregate raised when no attempt succeeded
+                    .onErrorMap(NoSuchElementException.class,
+                            e -> e.getCause() != null ? Exceptions.unwrapMultiple(e.getCause()).get(0) : e);
+        });
+    }
+
+    long getDelayNanos() {
+        return delayNanos;
+    }
+
+    /**
+     * Records the latency of every attempt, including the loser cancelled by the other's response, whose elapsed
+     * time is a lower bound; sampling only winners would hide the slow tail the delay is computed from.
+     */
+    private <T> Mono<T> timed(Function<URI, Mono<T>> request, ServiceInstance instance) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            return request.apply(instance.getUri()).doFinally(signalType -> record(System.nanoTime() - startNanos));
+        });
+    }
+
+    private synchronized void record(long latencyNanos) {
+        samples[nextSample] = latencyNanos;
+        nextSample = (nextSample + 1) % SAMPLE_SIZE;
+        sampleCount++;
+        if (sampleCount % RECOMPUTE_INTERVAL == 0) {
+            long[] sorted = Arrays.copyOf(samples, Math.min(sampleCount, SAMPLE_SIZE));
+            Arrays.sort(sorted);
+            int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+            delayNanos = Math.max(minDelayNanos, sorted[Math.max(0, index)]);
+        }
+    }
+
+    private synchronized void refillBudget() {
+        tokens = Math.min(MAX_TOKENS, tokens + tokensPerRequest);
+    }
+
+    private synchronized boolean tryConsumeBudget() {
+        if (tokens < 1) {
+            budgetExhaustedCounter.increment();
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+}
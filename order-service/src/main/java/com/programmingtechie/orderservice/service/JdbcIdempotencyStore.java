@@ -0,0 +1,106 @@
+package com.programmingtechie.orderservice.service;
+
+import com.programmingtechie.orderservice.model.IdempotencyKey;
+import com.programmingtechie.orderservice.repository.IdempotencyKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Database-backed {@link IdempotencyStore}, shared by all order-service instances.
+ * A key is claimed by inserting its row, so the primary key arbitrates between concurrent requests.
+ * All work runs on the bounded JDBC scheduler.
+ */
+@Component
+@ConditionalOnProperty(name = "order.idempotency.store", havingValue = "jdbc")
+@Slf4j
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    // Recognizes unique constraint violations by SQL state and vendor error code
+    private static final SQLExceptionTranslator DUPLICATE_KEY_TRANSLATOR = new SQLStateSQLExceptionTranslator();
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Scheduler jdbcScheduler;
+    private final Duration ttl;
+
+    public JdbcIdempotencyStore(IdempotencyKeyRepository idempotencyKeyRepository,
+                                TransactionTemplate transactionTemplate,
+                                Scheduler jdbcScheduler,
+                                @Value("${order.idempotency.ttl:24h}") Duration ttl) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcScheduler = jdbcScheduler;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Mono<Claim> claim(String idempotencyKey) {
+        return Mono.fromCallable(() -> {
+            Instant now = Instant.now();
+            try {
+                // Separate transaction: a failed insert aborts the transaction it runs in on some databases
+                transactionTemplate.executeWithoutResult(status ->
+                        idempotencyKeyRepository.saveAndFlush(new IdempotencyKey(idempotencyKey, now.plus(ttl))));
+                return Claim.ACQUIRED;
+            } catch (DataIntegrityViolationException e) {
+                // Any other violation is not a sign of an earlier request and must not be answered with 409
+                if (!isDuplicateKey(e)) {
+                    throw e;
+                }
+                log.debug("Idempotency-Key {} already claimed", idempotencyKey);
+            }
+            return transactionTemplate.execute(status -> {
+                if (idempotencyKeyRepository.reclaimExpired(idempotencyKey, now, now.plus(ttl)) == 1) {
+                    return Claim.ACQUIRED;
+                }
+                // A key released in the meantime is reported as in progress; the client retries it
+                return idempotencyKeyRepository.findById(idempotencyKey)
+                        .map(existing -> Claim.existing(existing.getResponse()))
+                        .orElse(Claim.existing(null));
+            });
+        }).subscribeOn(jdbcScheduler);
+    }
+
+    @Override
+    public Mono<Void> complete(String idempotencyKey, String response) {
+        return Mono.<Void>fromRunnable(() -> transactionTemplate.executeWithoutResult(status ->
+                        idempotencyKeyRepository.complete(idempotencyKey, response, Instant.now().plus(ttl))))
+                .subscribeOn(jdbcScheduler);
+    }
+
+    @Override
+    public Mono<Void> release(String idempotencyKey) {
+        return Mono.<Void>fromRunnable(() -> transactionTemplate.executeWithoutResult(status ->
+                        idempotencyKeyRepository.deleteById(idempotencyKey)))
+                .subscribeOn(jdbcScheduler);
+    }
+
+    private static boolean isDuplicateKey(DataIntegrityViolationException e) {
+        return NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sqlException
+                && DUPLICATE_KEY_TRANSLATOR.translate("claim", null, sqlException) instanceof DuplicateKeyException;
+    }
+
+    /**
+     * Deletes expired keys.
+     */
+    @Scheduled(fixedDelayString = "${order.idempotency.cleanup-interval-ms:60000}")
+    public void deleteExpired() {
+        Integer deleted = transactionTemplate.execute(status -> idempotencyKeyRepository.deleteExpired(Instant.now()));
+        log.debug("Deleted {} expired idempotency keys", deleted);
+    }
+}
@@ -0,0 +1,14 @@
+package com.programmingtechie.orderservice.service;
+
+import java.util.UUID;
+
+/**
+ * Source of order numbers. The implementation is selected with the order.number.generator property.
+ */
+public interface OrderNumberGenerator {
+
+    /**
+     * @return a new, unique order number
+     */
+    UUID generate();
+}
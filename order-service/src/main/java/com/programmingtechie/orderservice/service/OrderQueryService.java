@@ -0,0 +1,123 @@
+package com.programmingtechie.orderservice.service;
+
+import com.programmingtechie.orderservice.dto.OrderLineItemsDto;
+import com.programmingtechie.orderservice.dto.OrderPage;
+import com.programmingtechie.orderservice.dto.OrderResponse;
+import com.programmingtechie.orderservice.repository.OrderLineItemRow;
+import com.programmingtechie.orderservice.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read side of order-service.
+ * Orders are listed newest first with keyset pagination on (createdAt, id). Each read costs two queries
+ * whatever the page depth: one DTO projection for the orders and one for the line items of all of them.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderQueryService {
+
+    // Upper bound for the requested page size
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final OrderRepository orderRepository;
+
+    /**
+     * Returns a page of orders older than the cursor.
+     *
+     * @param cursor nextCursor of the previous page, or null for the newest orders
+     * @param size maximum number of orders to return
+     * @return page of orders with the cursor of the following page
+     */
+    @Transactional(readOnly = true)
+    public OrderPage getOrders(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Read one extra row to learn whether another page follows
+        Limit limit = Limit.of(pageSize + 1);
+        List<OrderResponse> orders;
+        if (cursor == null) {
+            orders = orderRepository.findFirstPage(limit);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            orders = orderRepository.findPageBefore(position.createdAt(), position.id(), limit);
+        }
+
+        String nextCursor = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            OrderResponse last = orders.get(pageSize - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        attachLineItems(orders);
+        return new OrderPage(orders, nextCursor);
+    }
+
+    /**
+     * Returns a single order by its order number.
+     *
+     * @param orderNumber order number returned when the order was placed
+     * @return the order with its line items
+     * @throws ResponseStatusException with 404 if no such order exists
+     */
+    @Transactional(readOnly = true)
+    public OrderResponse getOrder(String orderNumber) {
+        UUID parsedOrderNumber;
+        try {
+            parsedOrderNumber = UUID.fromString(orderNumber);
+        } catch (IllegalArgumentException e) {
+            // Not a UUID, so it cannot be the number of any order
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found");
+        }
+        OrderResponse order = orderRepository.findResponseByOrderNumber(parsedOrderNumber)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
+        attachLineItems(List.of(order));
+        return order;
+    }
+
+    private void attachLineItems(List<OrderResponse> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        Map<Long, OrderResponse> ordersById = orders.stream()
+                .collect(Collectors.toMap(OrderResponse::getId, Function.identity()));
+        for (OrderLineItemRow row : orderRepository.findLineItemRows(ordersById.keySet())) {
+            ordersById.get(row.orderId()).getOrderLineItemsDtoList()
+                    .add(new OrderLineItemsDto(row.id(), row.skuCode(), row.price(), row.quantity()));
+        }
+    }
+
+    /**
+     * Position of the last order of a page, passed to clients as an opaque URL safe token.
+     */
+    record Cursor(Instant createdAt, long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((createdAt + "_" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = value.lastIndexOf('_');
+                return new Cursor(Instant.parse(value.substring(0, separator)),
+                        Long.parseLong(value.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+    }
+}
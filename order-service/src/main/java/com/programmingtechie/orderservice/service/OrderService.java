@@ -1,5 +1,6 @@
 package com.programmingtechie.orderservice.service;
 
+import com.programmingtechie.orderservice.dto.BulkOrderResult;
 import com.programmingtechie.orderservice.dto.InventoryResponse;
 import com.programmingtechie.orderservice.dto.OrderLineItemsDto;
 import com.programmingtechie.orderservice.dto.OrderRequest;
@@ -7,38 +8,66 @@ import com.programmingtechie.orderservice.event.OrderPlacedEvent;
 import com.programmingtechie.orderservice.model.Order;
 import com.programmingtechie.orderservice.model.OrderLineItems;
 import com.programmingtechie.orderservice.repository.OrderRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
-import java.util.Arrays;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * Service layer for order management operations.
  * Handles complex business logic including inventory validation, order persistence,
  * microservice communication, and event publishing for order processing workflow.
+ * The placement workflow is composed as a single non-blocking pipeline; only the JPA step
+ * runs on a dedicated bounded scheduler.
  */
 @Service // Marks this class as a Spring service component
 @RequiredArgsConstructor // Generates constructor for final fields (dependency injection)
-@Transactional // Ensures all operations are executed within a database transaction
 @Slf4j // Lombok annotation for logging support
 public class OrderService {
 
+    // Name of the resilience4j instances guarding the inventory-service call
+    private static final String INVENTORY = "inventory";
+
     // Repository for database operations on Order entities
     private final OrderRepository orderRepository;
-    // WebClient builder for making HTTP calls to other microservices
-    private final WebClient.Builder webClientBuilder;
+    // Client for the inventory-service stock lookup
+    private final InventoryClient inventoryClient;
+    // Source of unique order numbers
+    private final OrderNumberGenerator orderNumberGenerator;
     // Registry for observability and monitoring of service calls
     private final ObservationRegistry observationRegistry;
     // Publisher for application events (order placed notifications)
     private final ApplicationEventPublisher applicationEventPublisher;
+    // Programmatic transactions, since @Transactional cannot span a Mono backed by JPA
+    private final TransactionTemplate transactionTemplate;
+    // Bounded scheduler on which the blocking JPA work is executed
+    private final Scheduler jdbcScheduler;
+    // Resilience4j registries configured from the resilience4j.* properties
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RetryRegistry retryRegistry;
+    private final TimeLimiterRegistry timeLimiterRegistry;
 
     /**
      * Places an order with comprehensive validation and processing.
@@ -47,60 +76,178 @@ public class OrderService {
      * 2. Transform DTOs to entities
      * 3. Validate inventory availability via microservice call
      * 4. Persist order if all products are in stock
-     * 5. Publish order placed event for downstream processing
-     * 
+     * 5. Publish order placed event to the outbox in the same transaction
+     *
+     * @param orderRequest DTO containing order details and line items
+     * @return Mono emitting a success message, or an error if inventory is unavailable
+     */
+    public Mono<String> placeOrder(OrderRequest orderRequest) {
+        Order order = createOrder(orderRequest);
+
+        // Sum requested quantities per SKU code for inventory validation
+        Map<String, Integer> quantitiesBySkuCode = new LinkedHashMap<>();
+        addQuantities(order, quantitiesBySkuCode);
+
+        return checkInventory(quantitiesBySkuCode)
+                .flatMap(allProductsInStock -> {
+                    if (!allProductsInStock) {
+                        // Fail the pipeline if any product is out of stock
+                        return Mono.error(new IllegalArgumentException("Product is not in stock, please try again later"));
+                    }
+                    // Persist order to database on the bounded JDBC scheduler
+                    return Mono.fromCallable(() -> transactionTemplate.execute(status -> {
+                                Order savedOrder = orderRepository.save(order);
+                                // Publish domain event inside the transaction so it is written to the outbox
+                                // atomically with the order and relayed to Kafka after commit
+                                applicationEventPublisher.publishEvent(new OrderPlacedEvent(this,
+                                        savedOrder.getOrderNumber().toString()));
+                                return savedOrder;
+                            }))
+                            .subscribeOn(jdbcScheduler);
+                })
+                .map(savedOrder -> "Order Placed");
+    }
+
+    /**
+     * Places a chunk of orders with one inventory lookup and one transaction.
+     * Every order is validated like {@link #placeOrder(OrderRequest)}, but the SKUs of the whole
+     * chunk are looked up together and the accepted orders are inserted in JDBC batches. If the commit fails, the
+     * accepted orders are reported as UNKNOWN rather than failed, as they may have been saved.
+     *
+     * @param orderRequests orders of one chunk of a bulk upload
+     * @return Mono emitting one result per request, in request order; it errors if the chunk failed before its
+     * transaction committed, in which case none of its orders were placed
+     */
+    public Mono<List<BulkOrderResult>> placeOrders(List<OrderRequest> orderRequests) {
+        List<Order> orders = orderRequests.stream()
+                .map(this::createOrder)
+                .toList();
+
+        // One lookup for every SKU of the chunk; quantities are summed across orders
+        Map<String, Integer> quantitiesBySkuCode = new LinkedHashMap<>();
+        orders.forEach(order -> addQuantities(order, quantitiesBySkuCode));
+
+        return lookupInventory(quantitiesBySkuCode)
+                .flatMap(inventoryResponses -> {
+                    // Unknown SKUs have no available quantity, so every order containing one is rejected
+                    Map<String, Integer> availableBySkuCode = new HashMap<>();
+                    inventoryResponses.stream()
+                            .filter(inventoryResponse -> inventoryResponse.getQuantity() != null)
+                            .forEach(inventoryResponse ->
+                                    availableBySkuCode.put(inventoryResponse.getSkuCode(), inventoryResponse.getQuantity()));
+
+                    // Orders are checked in upload order against the stock left by the orders accepted before them,
+                    // so one chunk never accepts more than inventory-service reported as available
+                    List<Order> acceptedOrders = new ArrayList<>(orders.size());
+                    List<BulkOrderResult> results = new ArrayList<>(orders.size());
+                    for (Order order : orders) {
+                        Map<String, Integer> orderQuantities = new HashMap<>();
+                        addQuantities(order, orderQuantities);
+                        boolean allProductsInStock = orderQuantities.entrySet().stream().allMatch(entry -> {
+                            Integer available = availableBySkuCode.get(entry.getKey());
+                            return available != null && available > 0 && available >= entry.getValue();
+                        });
+                        if (allProductsInStock) {
+                            orderQuantities.forEach((skuCode, quantity) -> availableBySkuCode.merge(skuCode, -quantity, Integer::sum));
+                            acceptedOrders.add(order);
+                            results.add(BulkOrderResult.placed(order.getOrderNumber().toString()));
+                        } else {
+                            results.add(BulkOrderResult.rejected("Product is not in stock, please try again later"));
+                        }
+                    }
+                    if (acceptedOrders.isEmpty()) {
+                        return Mono.just(results);
+                    }
+
+                    // Persist the accepted orders and their outbox events in one transaction
+                    return Mono.fromCallable(() -> transactionTemplate.execute(status -> {
+                                orderRepository.saveAll(acceptedOrders);
+                                acceptedOrders.forEach(order -> applicationEventPublisher
+                                        .publishEvent(new OrderPlacedEvent(this, order.getOrderNumber().toString())));
+                                return acceptedOrders;
+                            }))
+                            .subscribeOn(jdbcScheduler)
+                            .thenReturn(results)
+                            // The commit itself failed, so the accepted orders may have been saved after all
+                            .onErrorResume(TransactionSystemException.class, e -> {
+                                log.warn("Commit of {} bulk orders failed, their outcome is unknown", acceptedOrders.size(), e);
+                                return Mono.just(results.stream()
+                                        .map(result -> result.getStatus() == BulkOrderResult.Status.PLACED
+                                                ? BulkOrderResult.unknown(result.getOrderNumber(),
+                                                "Order may have been placed, please check its order number before resubmitting it")
+                                                : result)
+                                        .toList());
+                            });
+                });
+    }
+
+    /**
+     * Creates the order entity with a unique order number and its line items.
+     *
      * @param orderRequest DTO containing order details and line items
-     * @return Success message if order is placed, throws exception if inventory unavailable
+     * @return unsaved Order entity
      */
-    public String placeOrder(OrderRequest orderRequest) {
+    private Order createOrder(OrderRequest orderRequest) {
         // Create new order entity with unique identifier
         Order order = new Order();
-        order.setOrderNumber(UUID.randomUUID().toString());
+        order.setOrderNumber(orderNumberGenerator.generate());
+        // Truncated to the precision of the column so that page cursors compare exactly
+        order.setCreatedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
 
         // Transform order line item DTOs to entities using stream API
         List<OrderLineItems> orderLineItems = orderRequest.getOrderLineItemsDtoList()
                 .stream()
-                .map(this::mapToDto) // Convert each DTO to entity
+                .map(orderLineItemsDto -> mapToDto(orderLineItemsDto, order)) // Convert each DTO to entity
                 .toList();
 
         // Associate line items with the order
         order.setOrderLineItemsList(orderLineItems);
+        return order;
+    }
 
-        // Extract SKU codes for inventory validation
-        List<String> skuCodes = order.getOrderLineItemsList().stream()
-                .map(OrderLineItems::getSkuCode)
-                .toList();
+    private void addQuantities(Order order, Map<String, Integer> quantitiesBySkuCode) {
+        order.getOrderLineItemsList().forEach(orderLineItem -> quantitiesBySkuCode.merge(orderLineItem.getSkuCode(),
+                Objects.requireNonNullElse(orderLineItem.getQuantity(), 0), Integer::sum));
+    }
 
+    /**
+     * Asks inventory-service whether every SKU has the requested quantity in stock; an unknown SKU fails the check.
+     *
+     * @param quantitiesBySkuCode requested quantity per SKU code of the order line items
+     * @return Mono emitting true if all products are in stock
+     */
+    private Mono<Boolean> checkInventory(Map<String, Integer> quantitiesBySkuCode) {
+        return lookupInventory(quantitiesBySkuCode)
+                .defaultIfEmpty(List.of())
+                // Every requested SKU needs an in-stock response; a SKU missing from the responses is not in stock
+                .map(inventoryResponses -> inventoryResponses.stream()
+                        .filter(InventoryResponse::isInStock)
+                        .map(InventoryResponse::getSkuCode)
+                        .collect(Collectors.toSet())
+                        .containsAll(quantitiesBySkuCode.keySet()));
+    }
+
+    /**
+     * Looks up the stock status of the given SKUs in inventory-service.
+     * The call is guarded by the "inventory" time limiter, circuit breaker and retry, in that order
+     * from the inside out, so every retry attempt is timed and counted by the circuit breaker.
+     *
+     * @param quantitiesBySkuCode requested quantity per SKU code
+     * @return Mono emitting one response per SKU, including not-in-stock entries for unknown SKUs
+     */
+    private Mono<List<InventoryResponse>> lookupInventory(Map<String, Integer> quantitiesBySkuCode) {
         // Create observability context for monitoring inventory service calls
         Observation inventoryServiceObservation = Observation.createNotStarted("inventory-service-lookup",
                 this.observationRegistry);
         inventoryServiceObservation.lowCardinalityKeyValue("call", "inventory-service");
-        
-        // Execute inventory validation within observation context for monitoring
-        return inventoryServiceObservation.observe(() -> {
-            // Make synchronous HTTP call to inventory service to check stock availability
-            InventoryResponse[] inventoryResponseArray = webClientBuilder.build().get()
-                    .uri("http://inventory-service/api/inventory",
-                            uriBuilder -> uriBuilder.queryParam("skuCode", skuCodes).build())
-                    .retrieve()
-                    .bodyToMono(InventoryResponse[].class)
-                    .block(); // Block to make synchronous call (consider async for better performance)
-
-            // Validate that all requested products are available in inventory
-            boolean allProductsInStock = Arrays.stream(inventoryResponseArray)
-                    .allMatch(InventoryResponse::isInStock);
-
-            if (allProductsInStock) {
-                // Persist order to database if inventory is available
-                orderRepository.save(order);
-                // Publish domain event for downstream processing (notifications, analytics, etc.)
-                applicationEventPublisher.publishEvent(new OrderPlacedEvent(this, order.getOrderNumber()));
-                return "Order Placed";
-            } else {
-                // Throw business exception if any product is out of stock
-                throw new IllegalArgumentException("Product is not in stock, please try again later");
-            }
-        });
+
+        return inventoryClient.getInventory(quantitiesBySkuCode)
+                .transformDeferred(TimeLimiterOperator.of(timeLimiterRegistry.timeLimiter(INVENTORY)))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreakerRegistry.circuitBreaker(INVENTORY)))
+                .transformDeferred(RetryOperator.of(retryRegistry.retry(INVENTORY)))
+                .doOnSubscribe(subscription -> inventoryServiceObservation.start())
+                .doOnError(inventoryServiceObservation::error)
+                .doFinally(signalType -> inventoryServiceObservation.stop());
     }
 
     /**
@@ -108,10 +255,12 @@ public class OrderService {
      * Encapsulates the mapping logic for maintainability and reusability.
      * 
      * @param orderLineItemsDto DTO from client request
+     * @param order owning order, which supplies the order_id foreign key
      * @return OrderLineItems entity for database persistence
      */
-    private OrderLineItems mapToDto(OrderLineItemsDto orderLineItemsDto) {
+    private OrderLineItems mapToDto(OrderLineItemsDto orderLineItemsDto, Order order) {
         OrderLineItems orderLineItems = new OrderLineItems();
+        orderLineItems.setOrder(order);
         orderLineItems.setPrice(orderLineItemsDto.getPrice());
         orderLineItems.setQuantity(orderLineItemsDto.getQuantity());
         orderLineItems.setSkuCode(orderLineItemsDto.getSkuCode());
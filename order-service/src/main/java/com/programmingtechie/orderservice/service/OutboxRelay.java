@@ -0,0 +1,206 @@
+package com.programmingtechie.orderservice.service;
+
+import com.programmingtechie.orderservice.event.OrderPlacedEvent;
+import com.programmingtechie.orderservice.model.OutboxEvent;
+import com.programmingtechie.orderservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the order outbox to notificationTopic.
+ * Each run claims a batch of the oldest pending events in a short transaction, sends them all before waiting on
+ * any acknowledgement, then waits for the acknowledgements under a single deadline. No transaction or row lock is
+ * held while sending; a second short transaction deletes the delivered events and records an attempt on the rest.
+ * A claim lapses after {@code order.outbox.claim-timeout}, so events claimed by a relay that died are picked up
+ * again. Events are keyed by order number and sent in id order, so Kafka preserves their relative order within a
+ * partition.
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private static final String TOPIC = "notificationTopic";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, OrderPlacedEvent> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration sendTimeout;
+    private final Duration claimTimeout;
+    private final Counter relayedCounter;
+    private final Counter failedCounter;
+    // Age of the oldest event still waiting for delivery, zero when the outbox is drained
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, OrderPlacedEvent> kafkaTemplate,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${order.outbox.batch-size:100}") int batchSize,
+                       @Value("${order.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${order.outbox.send-timeout:10s}") Duration sendTimeout,
+                       @Value("${order.outbox.claim-timeout:60s}") Duration claimTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.sendTimeout = sendTimeout;
+        this.claimTimeout = claimTimeout;
+        this.relayedCounter = Counter.builder("order.outbox.relayed")
+                .description("Outbox events delivered to Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("order.outbox.failed")
+                .description("Outbox event deliveries that failed and will be retried")
+                .register(meterRegistry);
+        TimeGauge.builder("order.outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest undelivered outbox event")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Relays one batch of outbox events.
+     *
+     * @return number of events delivered
+     */
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval-ms:200}")
+    public int relay() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claimNextBatch());
+        if (batch.isEmpty()) {
+            updateLag();
+            return 0;
+        }
+
+        // Send the whole batch first so the producer can pipeline the records
+        List<CompletableFuture<SendResult<String, OrderPlacedEvent>>> futures = new ArrayList<>(batch.size());
+        for (OutboxEvent outboxEvent : batch) {
+            CompletableFuture<SendResult<String, OrderPlacedEvent>> future = send(outboxEvent);
+            futures.add(future);
+            if (future.isCompletedExceptionally()) {
+                // Failed without reaching the broker (e.g. no metadata within max.block.ms); every further send
+                // would block as long, so the rest of the batch waits for the next run
+                break;
+            }
+        }
+
+        // One deadline for the whole batch rather than one per event
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // The outcome of each send is read below
+        }
+
+        List<OutboxEvent> delivered = new ArrayList<>(batch.size());
+        List<OutboxEvent> failed = new ArrayList<>();
+        List<OutboxEvent> unsent = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent outboxEvent = batch.get(i);
+            if (i >= futures.size()) {
+                unsent.add(outboxEvent);
+            } else if (futures.get(i).isDone() && !futures.get(i).isCompletedExceptionally()) {
+                delivered.add(outboxEvent);
+            } else {
+                recordFailure(outboxEvent, failureOf(futures.get(i)));
+                failed.add(outboxEvent);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.deleteAllInBatch(delivered);
+            unsent.forEach(outboxEvent -> outboxEvent.setClaimedUntil(null));
+            outboxEventRepository.saveAll(failed);
+            outboxEventRepository.saveAll(unsent);
+        });
+        relayedCounter.increment(delivered.size());
+        updateLag();
+        return delivered.size();
+    }
+
+    private List<OutboxEvent> claimNextBatch() {
+        Instant now = Instant.now();
+        List<OutboxEvent> batch = outboxEventRepository.findNextBatch(maxAttempts, now, PageRequest.of(0, batchSize));
+        if (!batch.isEmpty()) {
+            Instant claimedUntil = now.plus(claimTimeout);
+            outboxEventRepository.claim(batch.stream().map(OutboxEvent::getId).toList(), claimedUntil);
+            batch.forEach(outboxEvent -> outboxEvent.setClaimedUntil(claimedUntil));
+        }
+        return batch;
+    }
+
+    private CompletableFuture<SendResult<String, OrderPlacedEvent>> send(OutboxEvent outboxEvent) {
+        try {
+            return kafkaTemplate.send(TOPIC, outboxEvent.getOrderNumber(), new OrderPlacedEvent(outboxEvent.getOrderNumber()));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Throwable failureOf(CompletableFuture<?> future) {
+        if (!future.isDone()) {
+            return new TimeoutException("No acknowledgement within the send timeout");
+        }
+        try {
+            future.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    private void recordFailure(OutboxEvent outboxEvent, Throwable cause) {
+        outboxEvent.setAttempts(outboxEvent.getAttempts() + 1);
+        outboxEvent.setLastError(truncate(String.valueOf(cause.getMessage()), OutboxEvent.LAST_ERROR_LENGTH));
+        // Released for the next run
+        outboxEvent.setClaimedUntil(null);
+        failedCounter.increment();
+        if (outboxEvent.getAttempts() >= maxAttempts) {
+            log.error("Giving up on OrderPlacedEvent {} after {} attempts", outboxEvent.getOrderNumber(),
+                    outboxEvent.getAttempts(), cause);
+        } else {
+            log.warn("Error while sending OrderPlacedEvent {} to Kafka, attempt {}", outboxEvent.getOrderNumber(),
+                    outboxEvent.getAttempts(), cause);
+        }
+    }
+
+    // Cut to the column width: the failures are saved together with the delete of the delivered events, so one
+    // long message would roll both back
+    private static String truncate(String message, int maxLength) {
+        if (message.length() <= maxLength) {
+            return message;
+        }
+        int end = Character.isHighSurrogate(message.charAt(maxLength - 1)) ? maxLength - 1 : maxLength;
+        return message.substring(0, end);
+    }
+
+    private void updateLag() {
+        lagMillis.set(outboxEventRepository.findFirstByAttemptsLessThanOrderByIdAsc(maxAttempts)
+                .map(oldest -> Math.max(0, Duration.between(oldest.getCreatedAt(), Instant.now()).toMillis()))
+                .orElse(0L));
+    }
+}
@@ -0,0 +1,20 @@
+package com.programmingtechie.orderservice.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Random (version 4) order numbers from the shared {@link java.security.SecureRandom}, as issued before
+ * order numbers became time ordered. Kept for deployments that must not reveal when an order was placed.
+ */
+@Component
+@ConditionalOnProperty(name = "order.number.generator", havingValue = "random")
+public class RandomOrderNumberGenerator implements OrderNumberGenerator {
+
+    @Override
+    public UUID generate() {
+        return UUID.randomUUID();
+    }
+}
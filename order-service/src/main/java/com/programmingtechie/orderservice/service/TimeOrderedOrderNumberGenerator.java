@@ -0,0 +1,51 @@
+package com.programmingtechie.orderservice.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time ordered, version 7 UUID order numbers (RFC 9562).
+ * The 48 bit millisecond timestamp is followed by a 12 bit counter, so numbers issued by this instance are
+ * strictly increasing even within a millisecond; when the counter overflows the timestamp is advanced by one.
+ * The remaining 62 bits come from {@link ThreadLocalRandom}, which needs no locking and unlike
+ * {@link UUID#randomUUID()} does not contend on a shared SecureRandom.
+ */
+@Component
+@ConditionalOnProperty(name = "order.number.generator", havingValue = "time-ordered", matchIfMissing = true)
+public class TimeOrderedOrderNumberGenerator implements OrderNumberGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    // A fresh millisecond starts the counter below this so that it has room to count up
+    private static final int COUNTER_SEED_BOUND = 1 << (COUNTER_BITS - 1);
+
+    // Timestamp in milliseconds shifted left by COUNTER_BITS, plus the counter
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Override
+    public UUID generate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long state = nextState(random);
+        long mostSigBits = (state >>> COUNTER_BITS) << 16 // unix_ts_ms
+                | 0x7000L // version 7
+                | (state & 0xFFFL); // counter in rand_a
+        long leastSigBits = random.nextLong() & 0x3FFFFFFFFFFFFFFFL
+                | 0x8000000000000000L; // IETF variant
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    private long nextState(ThreadLocalRandom random) {
+        long seeded = (System.currentTimeMillis() << COUNTER_BITS) | random.nextInt(COUNTER_SEED_BOUND);
+        while (true) {
+            long last = lastState.get();
+            // Take the freshly seeded state unless it does not move past the last number issued
+            long next = seeded > last ? seeded : last + 1;
+            if (lastState.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+-- Schema as originally generated by Hibernate; "if not exists" lets databases created that way be baselined
+create table if not exists t_orders (
+    id bigint generated by default as identity,
+    order_number varchar(255),
+    primary key (id)
+);
+
+create table if not exists t_order_line_items (
+    id bigint generated by default as identity,
+    price numeric(38,2),
+    quantity integer,
+    sku_code varchar(255),
+    primary key (id)
+);
+
+create table if not exists t_orders_order_line_items_list (
+    order_id bigint not null,
+    order_line_items_list_id bigint not null unique,
+    constraint fk_orders_line_items_list_order foreign key (order_id) references t_orders (id),
+    constraint fk_orders_line_items_list_item foreign key (order_line_items_list_id) references t_order_line_items (id)
+);
@@ -0,0 +1,29 @@
+-- Ids now come from pooled sequences (increment 50) so that Hibernate can batch inserts. Existing rows were
+-- numbered by the identity columns, so each sequence starts past the highest id in use: the pooled optimizer
+-- hands out the 50 ids below the value it reads
+create sequence if not exists t_orders_seq start with 1 increment by 50;
+alter sequence t_orders_seq restart with (select coalesce(max(id), 0) + 50 from t_orders);
+
+create sequence if not exists t_order_line_items_seq start with 1 increment by 50;
+alter sequence t_order_line_items_seq restart with (select coalesce(max(id), 0) + 50 from t_order_line_items);
+
+-- Line items reference their order through order_id instead of the join table
+alter table t_order_line_items add column if not exists order_id bigint;
+
+update t_order_line_items item
+    set order_id = (select link.order_id from t_orders_order_line_items_list link
+                    where link.order_line_items_list_id = item.id)
+    where exists (select 1 from t_orders_order_line_items_list link where link.order_line_items_list_id = item.id);
+
+-- Items linked to no order could never be read back
+delete from t_order_line_items item
+    where item.order_id is null or not exists (select 1 from t_orders o where o.id = item.order_id);
+
+alter table t_order_line_items alter column order_id set not null;
+
+create index if not exists ix_order_line_items_order_id on t_order_line_items (order_id);
+
+alter table t_order_line_items
+    add constraint if not exists fk_order_line_items_order foreign key (order_id) references t_orders (id);
+
+drop table t_orders_order_line_items_list;
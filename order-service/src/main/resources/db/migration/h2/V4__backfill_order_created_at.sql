@@ -0,0 +1,5 @@
+-- Orders placed before created_at was added have no timestamp. The keyset condition "created_at < :createdAt" of
+-- the newest-first listing never matches NULL, so they get the epoch and are listed after every dated order
+update t_orders set created_at = timestamp with time zone '1970-01-01 00:00:00+00' where created_at is null;
+
+alter table t_orders alter column created_at set not null;
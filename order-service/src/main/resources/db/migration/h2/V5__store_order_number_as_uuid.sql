@@ -0,0 +1,3 @@
+-- Order numbers are stored in their 16 byte binary form instead of 36 characters of text, which keeps the unique
+-- index small
+alter table t_orders alter column order_number set data type uuid;
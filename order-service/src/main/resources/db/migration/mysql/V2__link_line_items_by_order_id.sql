@@ -0,0 +1,52 @@
+-- Ids now come from pooled sequences (increment 50) so that Hibernate can batch inserts; MySQL has no sequences,
+-- so Hibernate keeps each one in a single-row table. Existing rows were numbered by auto_increment, so each
+-- sequence is moved past the highest id in use: the pooled optimizer hands out the 50 ids below the value it reads
+create table if not exists t_orders_seq (next_val bigint) engine=InnoDB;
+set @next_val = greatest((select coalesce(max(id), 0) from t_orders) + 50,
+                         (select coalesce(max(next_val), 1) from t_orders_seq));
+delete from t_orders_seq;
+insert into t_orders_seq values (@next_val);
+
+create table if not exists t_order_line_items_seq (next_val bigint) engine=InnoDB;
+set @next_val = greatest((select coalesce(max(id), 0) from t_order_line_items) + 50,
+                         (select coalesce(max(next_val), 1) from t_order_line_items_seq));
+delete from t_order_line_items_seq;
+insert into t_order_line_items_seq values (@next_val);
+
+-- Line items reference their order through order_id instead of the join table. MySQL has no "if not exists" for
+-- columns, indexes and constraints, so those statements are only run when information_schema lacks them
+set @ddl = if((select count(*) from information_schema.columns
+               where table_schema = database() and table_name = 't_order_line_items' and column_name = 'order_id') = 0,
+              'alter table t_order_line_items add column order_id bigint', 'do 0');
+prepare statement from @ddl;
+execute statement;
+deallocate prepare statement;
+
+update t_order_line_items item
+    join t_orders_order_line_items_list link on link.order_line_items_list_id = item.id
+    set item.order_id = link.order_id;
+
+-- Items linked to no order could never be read back
+delete from t_order_line_items
+    where order_id is null or not exists (select 1 from t_orders o where o.id = t_order_line_items.order_id);
+
+alter table t_order_line_items modify column order_id bigint not null;
+
+set @ddl = if((select count(*) from information_schema.statistics
+               where table_schema = database() and table_name = 't_order_line_items'
+                 and index_name = 'ix_order_line_items_order_id') = 0,
+              'create index ix_order_line_items_order_id on t_order_line_items (order_id)', 'do 0');
+prepare statement from @ddl;
+execute statement;
+deallocate prepare statement;
+
+set @ddl = if((select count(*) from information_schema.referential_constraints
+               where constraint_schema = database() and table_name = 't_order_line_items'
+                 and referenced_table_name = 't_orders') = 0,
+              'alter table t_order_line_items add constraint fk_order_line_items_order foreign key (order_id) references t_orders (id)',
+              'do 0');
+prepare statement from @ddl;
+execute statement;
+deallocate prepare statement;
+
+drop table t_orders_order_line_items_list;
@@ -0,0 +1,47 @@
+-- Tables and columns that Hibernate used to add (ddl-auto=update) since the original schema
+set @ddl = if((select count(*) from information_schema.columns
+               where table_schema = database() and table_name = 't_orders' and column_name = 'created_at') = 0,
+              'alter table t_orders add column created_at datetime(6)', 'do 0');
+prepare statement from @ddl;
+execute statement;
+deallocate prepare statement;
+
+set @ddl = if((select count(*) from information_schema.statistics
+               where table_schema = database() and table_name = 't_orders' and index_name = 'ix_orders_created_at_id') = 0,
+              'create index ix_orders_created_at_id on t_orders (created_at, id)', 'do 0');
+prepare statement from @ddl;
+execute statement;
+deallocate prepare statement;
+
+set @ddl = if((select count(*) from information_schema.statistics
+               where table_schema = database() and table_name = 't_orders' and index_name = 'ux_orders_order_number') = 0,
+              'create unique index ux_orders_order_number on t_orders (order_number)', 'do 0');
+prepare statement from @ddl;
+execute statement;
+deallocate prepare statement;
+
+create table if not exists t_order_outbox_seq (next_val bigint) engine=InnoDB;
+insert into t_order_outbox_seq select 1 from dual where not exists (select 1 from t_order_outbox_seq);
+
+create table if not exists t_order_outbox (
+    id bigint not null,
+    attempts integer not null,
+    created_at datetime(6),
+    last_error varchar(255),
+    order_number varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+set @ddl = if((select count(*) from information_schema.columns
+               where table_schema = database() and table_name = 't_order_outbox' and column_name = 'claimed_until') = 0,
+              'alter table t_order_outbox add column claimed_until datetime(6)', 'do 0');
+prepare statement from @ddl;
+execute statement;
+deallocate prepare statement;
+
+create table if not exists t_idempotency_keys (
+    idempotency_key varchar(255) not null,
+    expires_at datetime(6),
+    response varchar(255),
+    primary key (idempotency_key)
+) engine=InnoDB;
@@ -0,0 +1,34 @@
+-- Order numbers are stored in their 16 byte binary form instead of 36 characters of text, which keeps the unique
+-- index small. Binary data cannot be written into a character column, so the values are copied into a new column
+-- that replaces the old one. Values that already are 16 bytes long were written by Hibernate in binary form
+set @convert = (select count(*) from information_schema.columns
+                where table_schema = database() and table_name = 't_orders' and column_name = 'order_number'
+                  and data_type <> 'binary');
+
+set @ddl = if(@convert = 1, 'alter table t_orders add column order_number_bytes binary(16)', 'do 0');
+prepare statement from @ddl;
+execute statement;
+deallocate prepare statement;
+
+set @ddl = if(@convert = 1,
+              'update t_orders set order_number_bytes = if(octet_length(order_number) = 16, cast(order_number as binary(16)), unhex(replace(order_number, ''-'', '''')))',
+              'do 0');
+prepare statement from @ddl;
+execute statement;
+deallocate prepare statement;
+
+-- Dropping the column also drops ux_orders_order_number
+set @ddl = if(@convert = 1, 'alter table t_orders drop column order_number', 'do 0');
+prepare statement from @ddl;
+execute statement;
+deallocate prepare statement;
+
+set @ddl = if(@convert = 1, 'alter table t_orders rename column order_number_bytes to order_number', 'do 0');
+prepare statement from @ddl;
+execute statement;
+deallocate prepare statement;
+
+set @ddl = if(@convert = 1, 'create unique index ux_orders_order_number on t_orders (order_number)', 'do 0');
+prepare statement from @ddl;
+execute statement;
+deallocate prepare statement;
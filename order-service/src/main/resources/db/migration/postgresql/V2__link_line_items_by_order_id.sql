@@ -0,0 +1,36 @@
+-- Ids now come from pooled sequences (increment 50) so that Hibernate can batch inserts. Existing rows were
+-- numbered by the identity columns, so each sequence is moved past the highest id in use: the pooled optimizer
+-- hands out the 50 ids up to the value it reads, and the next value read is the current one plus 50
+create sequence if not exists t_orders_seq start with 1 increment by 50;
+select setval('t_orders_seq', greatest((select coalesce(max(id), 0) from t_orders), (select last_value from t_orders_seq)));
+
+create sequence if not exists t_order_line_items_seq start with 1 increment by 50;
+select setval('t_order_line_items_seq', greatest((select coalesce(max(id), 0) from t_order_line_items), (select last_value from t_order_line_items_seq)));
+
+-- Line items reference their order through order_id instead of the join table
+alter table t_order_line_items add column if not exists order_id bigint;
+
+update t_order_line_items item
+    set order_id = link.order_id
+    from t_orders_order_line_items_list link
+    where link.order_line_items_list_id = item.id;
+
+-- Items linked to no order could never be read back
+delete from t_order_line_items item
+    where item.order_id is null or not exists (select 1 from t_orders o where o.id = item.order_id);
+
+alter table t_order_line_items alter column order_id set not null;
+
+create index if not exists ix_order_line_items_order_id on t_order_line_items (order_id);
+
+do $$
+begin
+    if not exists (select 1 from information_schema.table_constraints
+                   where table_schema = current_schema() and table_name = 't_order_line_items'
+                     and constraint_type = 'FOREIGN KEY') then
+        alter table t_order_line_items
+            add constraint fk_order_line_items_order foreign key (order_id) references t_orders (id);
+    end if;
+end $$;
+
+drop table t_orders_order_line_items_list;
@@ -0,0 +1,26 @@
+-- Tables and columns that Hibernate used to add (ddl-auto=update) since the original schema
+alter table t_orders add column if not exists created_at timestamp(6) with time zone;
+
+create index if not exists ix_orders_created_at_id on t_orders (created_at, id);
+
+create unique index if not exists ux_orders_order_number on t_orders (order_number);
+
+create sequence if not exists t_order_outbox_seq start with 1 increment by 50;
+
+create table if not exists t_order_outbox (
+    id bigint not null,
+    attempts integer not null,
+    created_at timestamp(6) with time zone,
+    last_error varchar(255),
+    order_number varchar(255),
+    primary key (id)
+);
+
+alter table t_order_outbox add column if not exists claimed_until timestamp(6) with time zone;
+
+create table if not exists t_idempotency_keys (
+    idempotency_key varchar(255) not null,
+    expires_at timestamp(6) with time zone,
+    response varchar(255),
+    primary key (idempotency_key)
+);
@@ -0,0 +1,3 @@
+-- Order numbers are stored in their 16 byte binary form instead of 36 characters of text, which keeps the unique
+-- index small; a column that is already uuid is left as it is
+alter table t_orders alter column order_number type uuid using order_number::uuid;
@@ -2,24 +2,46 @@ package com.programmingtechie.orderservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.programmingtechie.orderservice.dto.OrderLineItemsDto;
+import com.programmingtechie.orderservice.dto.OrderPage;
 import com.programmingtechie.orderservice.dto.OrderRequest;
+import com.programmingtechie.orderservice.dto.OrderResponse;
+import com.programmingtechie.orderservice.service.AdaptiveConcurrencyLimiter;
+import com.programmingtechie.orderservice.service.BulkOrderService;
+import com.programmingtechie.orderservice.service.ConcurrencyLimitExceededException;
+import com.programmingtechie.orderservice.service.IdempotencyService;
+import com.programmingtechie.orderservice.service.OrderQueryService;
 import com.programmingtechie.orderservice.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(OrderController.class)
+@Import(OrderControllerTest.LimiterConfig.class)
 class OrderControllerTest {
 
     @Autowired
@@ -28,11 +50,17 @@ class OrderControllerTest {
     private ObjectMapper objectMapper;
     @MockBean
     private OrderService orderService;
+    @MockBean
+    private IdempotencyService idempotencyService;
+    @MockBean
+    private BulkOrderService bulkOrderService;
+    @MockBean
+    private OrderQueryService orderQueryService;
 
     @Test
     void shouldPlaceOrder() throws Exception {
         OrderRequest request = createOrderRequest();
-        when(orderService.placeOrder(any(OrderRequest.class))).thenReturn("Order Placed");
+        when(orderService.placeOrder(any(OrderRequest.class))).thenReturn(Mono.just("Order Placed"));
         
         mockMvc.perform(MockMvcRequestBuilders.post("/api/order")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -64,6 +92,112 @@ class OrderControllerTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    void shouldPlaceOrderThroughIdempotencyServiceWhenKeyPresent() throws Exception {
+        OrderRequest request = createOrderRequest();
+        when(idempotencyService.execute(eq("key-1"), any())).thenReturn(Mono.just("Order Placed"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/order")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        verify(idempotencyService, times(1)).execute(eq("key-1"), any());
+        verify(orderService, never()).placeOrder(any(OrderRequest.class));
+    }
+
+    @Test
+    void shouldRejectBlankOrOverLongIdempotencyKey() throws Exception {
+        for (String idempotencyKey : List.of(" ", "k".repeat(256))) {
+            mockMvc.perform(MockMvcRequestBuilders.post("/api/order")
+                            .header("Idempotency-Key", idempotencyKey)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(createOrderRequest())))
+                    .andExpect(status().isBadRequest());
+        }
+
+        verify(idempotencyService, never()).execute(any(), any());
+        verify(orderService, never()).placeOrder(any(OrderRequest.class));
+    }
+
+    @Test
+    void shouldReturnConflictForDuplicateInProgress() throws Exception {
+        OrderRequest request = createOrderRequest();
+        when(idempotencyService.execute(eq("key-1"), any()))
+                .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.CONFLICT)));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/api/order")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void shouldStreamBulkOrderResults() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream results = invocation.getArgument(1);
+            results.write("{\"line\":1,\"status\":\"PLACED\",\"orderNumber\":\"order-1\"}\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(bulkOrderService).placeOrders(any(), any());
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/api/order/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(createOrderRequest())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"line\":1,\"status\":\"PLACED\",\"orderNumber\":\"order-1\"}\n"));
+    }
+
+    @Test
+    void shouldListOrdersWithCursor() throws Exception {
+        OrderResponse order = new OrderResponse(1L, UUID.fromString("018cc251-f400-7000-8000-000000000001"), Instant.parse("2024-01-01T10:00:00Z"));
+        when(orderQueryService.getOrders("cursor-1", 10)).thenReturn(new OrderPage(List.of(order), "cursor-2"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/order")
+                        .param("cursor", "cursor-1")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders[0].orderNumber").value("018cc251-f400-7000-8000-000000000001"))
+                .andExpect(jsonPath("$.orders[0].id").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("cursor-2"));
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownOrder() throws Exception {
+        when(orderQueryService.getOrder("missing"))
+                .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/order/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReturnServiceUnavailableWithRetryAfterWhenShedding() throws Exception {
+        OrderRequest request = createOrderRequest();
+        when(idempotencyService.execute(eq("key-1"), any()))
+                .thenReturn(Mono.error(new ConcurrencyLimitExceededException(Duration.ofMillis(1500))));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/api/order")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
     private OrderRequest createOrderRequest() {
         OrderRequest request = new OrderRequest();
         OrderLineItemsDto item = new OrderLineItemsDto();
@@ -73,4 +207,13 @@ class OrderControllerTest {
         request.setOrderLineItemsDtoList(List.of(item));
         return request;
     }
-}
\ No newline at end of file
+
+    @TestConfiguration
+    static class LimiterConfig {
+        @Bean
+        AdaptiveConcurrencyLimiter concurrencyLimiter() {
+            return new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), true, 20, 1, 200,
+                    Duration.ofSeconds(1), 0.9, Duration.ofSeconds(1));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.programmingtechie.orderservice.repository;
+
+import com.programmingtechie.orderservice.model.Order;
+import com.programmingtechie.orderservice.model.OrderLineItems;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The schema comes from the Flyway migrations; validation checks that they match the entities
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class OrderRepositoryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // Warm up the pooled id generators so the measured order does not pay the initial sequence calls
+        orderRepository.save(createOrder(1));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldInsertOrderWithFiftyLineItemsInTwoBatchedStatements() {
+        orderRepository.save(createOrder(50));
+        entityManager.flush();
+
+        assertEquals(51, statistics.getEntityInsertCount());
+        // One statement for t_orders, one batched statement for t_order_line_items, plus at most one
+        // sequence call per pooled generator
+        assertTrue(statistics.getPrepareStatementCount() <= 4,
+                "Expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void shouldLinkLineItemsThroughForeignKey() {
+        Order order = orderRepository.save(createOrder(3));
+        entityManager.flush();
+        entityManager.clear();
+
+        Number lineItems = (Number) entityManager.createNativeQuery(
+                        "select count(*) from t_order_line_items where order_id = :orderId")
+                .setParameter("orderId", order.getId())
+                .getSingleResult();
+        assertEquals(3, lineItems.intValue());
+    }
+
+    private Order createOrder(int lineItemCount) {
+        Order order = new Order();
+        order.setOrderNumber(UUID.randomUUID());
+        order.setCreatedAt(Instant.now());
+        List<OrderLineItems> orderLineItems = new ArrayList<>(lineItemCount);
+        for (int i = 0; i < lineItemCount; i++) {
+            OrderLineItems orderLineItem = new OrderLineItems();
+            orderLineItem.setSkuCode("SKU" + i);
+            orderLineItem.setPrice(BigDecimal.TEN);
+            orderLineItem.setQuantity(1);
+            orderLineItem.setOrder(order);
+            orderLineItems.add(orderLineItem);
+        }
+        order.setOrderLineItemsList(orderLineItems);
+        return order;
+    }
+}
@@ -0,0 +1,118 @@
+package com.programmingtechie.orderservice.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderSchemaMigrationTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:order-migration-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void shouldLinkLineItemsThroughOrderIdAndDropJoinTable() {
+        migrate("1");
+        insertOrder(7, 11, 12);
+        insertOrder(9, 13);
+
+        migrate("latest");
+
+        assertEquals(List.of(7L, 7L, 9L),
+                jdbcTemplate.queryForList("select order_id from t_order_line_items order by id", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.tables where table_name = 'T_ORDERS_ORDER_LINE_ITEMS_LIST'",
+                Integer.class));
+        assertEquals("NO", jdbcTemplate.queryForObject(
+                "select is_nullable from information_schema.columns"
+                        + " where table_name = 'T_ORDER_LINE_ITEMS' and column_name = 'ORDER_ID'", String.class));
+    }
+
+    @Test
+    void shouldStartSequencesAboveExistingIds() {
+        migrate("1");
+        insertOrder(120, 130);
+
+        migrate("latest");
+
+        // The pooled optimizer hands out the 50 ids below the value it reads
+        assertTrue(jdbcTemplate.queryForObject("select next value for t_orders_seq", Long.class) - 50 >= 120);
+        assertTrue(jdbcTemplate.queryForObject("select next value for t_order_line_items_seq", Long.class) - 50 >= 130);
+    }
+
+    @Test
+    void shouldDropLineItemsWithoutOrder() {
+        migrate("1");
+        insertOrder(1, 1);
+        jdbcTemplate.update("insert into t_order_line_items (id, sku_code, price, quantity) values (2, 'orphan', 1, 1)");
+
+        migrate("latest");
+
+        assertEquals(List.of(1L), jdbcTemplate.queryForList("select id from t_order_line_items", Long.class));
+    }
+
+    @Test
+    void shouldBackfillMissingCreatedAt() {
+        migrate("3");
+        insertOrder(1);
+
+        migrate("latest");
+
+        assertEquals(Instant.EPOCH, jdbcTemplate.queryForObject("select created_at from t_orders", OffsetDateTime.class)
+                .toInstant());
+        assertEquals("NO", jdbcTemplate.queryForObject(
+                "select is_nullable from information_schema.columns"
+                        + " where table_name = 'T_ORDERS' and column_name = 'CREATED_AT'", String.class));
+    }
+
+    @Test
+    void shouldConvertOrderNumbersToUuid() {
+        migrate("3");
+        insertOrder(1);
+
+        migrate("latest");
+
+        assertEquals(orderNumber(1), jdbcTemplate.queryForObject("select order_number from t_orders", UUID.class));
+        assertEquals("UUID", jdbcTemplate.queryForObject(
+                "select data_type from information_schema.columns"
+                        + " where table_name = 'T_ORDERS' and column_name = 'ORDER_NUMBER'", String.class));
+    }
+
+    // Order numbers were stored as the text form of a UUID
+    private void insertOrder(long id, long... lineItemIds) {
+        jdbcTemplate.update("insert into t_orders (id, order_number) values (?, ?)", id, orderNumber(id).toString());
+        for (long lineItemId : lineItemIds) {
+            jdbcTemplate.update("insert into t_order_line_items (id, sku_code, price, quantity) values (?, 'sku', 1, 1)",
+                    lineItemId);
+            jdbcTemplate.update("insert into t_orders_order_line_items_list (order_id, order_line_items_list_id)"
+                    + " values (?, ?)", id, lineItemId);
+        }
+    }
+
+    private void migrate(String target) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    private static UUID orderNumber(long id) {
+        return new UUID(0x018cc251f4007000L, 0x8000000000000000L | id);
+    }
+}
@@ -0,0 +1,96 @@
+package com.programmingtechie.orderservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(meterRegistry, true, 2, 1, 3,
+            Duration.ofSeconds(10), 0.5, Duration.ofSeconds(1));
+
+    @Test
+    void shouldRejectRequestsBeyondLimit() {
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+        limiter.execute(first::asMono).subscribe();
+        limiter.execute(second::asMono).subscribe();
+
+        assertThrows(ConcurrencyLimitExceededException.class, () -> limiter.execute(() -> Mono.just("ok")).block());
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, meterRegistry.get("order.concurrency.rejections").counter().count());
+
+        first.tryEmitValue("ok");
+        assertEquals(1, limiter.getInFlight());
+        assertEquals("ok", limiter.execute(() -> Mono.just("ok")).block());
+    }
+
+    @Test
+    void shouldGrowByAboutOnePerWindowAndStopAtMaxLimit() {
+        runSaturated(limiter);
+        // Half a slot for the completion that found the limit in use, not a whole one
+        assertEquals(2, limiter.getLimit());
+
+        for (int i = 0; i < 10; i++) {
+            runSaturated(limiter);
+        }
+        assertEquals(3, limiter.getLimit());
+        assertEquals(3.0, meterRegistry.get("order.concurrency.limit").gauge().value());
+    }
+
+    @Test
+    void shouldShrinkOnOverloadButNotOnBusinessFailure() {
+        AdaptiveConcurrencyLimiter idleLimiter = new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), true,
+                4, 1, 10, Duration.ofSeconds(10), 0.5, Duration.ofSeconds(1));
+
+        // A single request does not use half of the limit, so a success leaves it unchanged
+        assertThrows(IllegalArgumentException.class, () -> idleLimiter.execute(
+                () -> Mono.error(new IllegalArgumentException("Product is not in stock"))).block());
+        assertEquals(4, idleLimiter.getLimit());
+
+        assertThrows(RuntimeException.class, () -> idleLimiter.execute(
+                () -> Mono.error(new TimeoutException())).block());
+        assertEquals(2, idleLimiter.getLimit());
+
+        // Never below the minimum limit
+        for (int i = 0; i < 3; i++) {
+            assertThrows(RuntimeException.class, () -> idleLimiter.execute(
+                    () -> Mono.error(new TimeoutException())).block());
+        }
+        assertEquals(1, idleLimiter.getLimit());
+        assertEquals(0, idleLimiter.getInFlight());
+    }
+
+    @Test
+    void shouldShrinkWhenSlowerThanLatencyThreshold() {
+        AdaptiveConcurrencyLimiter strictLimiter = new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), true,
+                4, 1, 10, Duration.ofMillis(1), 0.5, Duration.ofSeconds(1));
+
+        // Completes on the calling thread, so the limit has been adjusted when block() returns
+        strictLimiter.execute(() -> Mono.fromCallable(() -> {
+            Thread.sleep(20);
+            return "ok";
+        })).block();
+
+        assertEquals(2, strictLimiter.getLimit());
+    }
+
+    private void runSaturated(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        List<Sinks.One<String>> requests = new ArrayList<>();
+        for (int i = concurrencyLimiter.getLimit(); i > 0; i--) {
+            Sinks.One<String> request = Sinks.one();
+            concurrencyLimiter.execute(request::asMono).subscribe();
+            requests.add(request);
+        }
+        requests.forEach(request -> request.tryEmitValue("ok"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.programmingtechie.orderservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.programmingtechie.orderservice.dto.BulkOrderResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class BulkOrderServiceTest {
+
+    private static final String ORDER = "{\"orderLineItemsDtoList\":[{\"skuCode\":\"SKU001\",\"price\":100,\"quantity\":1}]}";
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BulkOrderService bulkOrderService =
+            new BulkOrderService(orderService, objectMapper, new SimpleMeterRegistry(), 2, 200);
+
+    @Test
+    void shouldPlaceOrdersInChunksAndReportEveryLine() throws Exception {
+        when(orderService.placeOrders(anyList())).thenAnswer(invocation -> Mono.just(
+                ((List<?>) invocation.getArgument(0)).stream().map(orderRequest -> BulkOrderResult.placed("order")).toList()));
+
+        List<BulkOrderResult> results = placeOrders(ORDER + "\n" + "not json\n" + "\n" + ORDER + "\n"
+                + "{\"orderLineItemsDtoList\":[]}\n" + ORDER);
+
+        verify(orderService, times(2)).placeOrders(anyList());
+        assertEquals(List.of(2L, 1L, 4L, 5L, 6L), results.stream().map(BulkOrderResult::getLine).toList());
+        assertEquals(List.of(BulkOrderResult.Status.INVALID, BulkOrderResult.Status.PLACED,
+                        BulkOrderResult.Status.PLACED, BulkOrderResult.Status.INVALID, BulkOrderResult.Status.PLACED),
+                results.stream().map(BulkOrderResult::getStatus).toList());
+    }
+
+    @Test
+    void shouldReportWholeChunkAsFailedWhenPlacementFails() throws Exception {
+        when(orderService.placeOrders(anyList())).thenReturn(Mono.error(new IllegalStateException("inventory down")));
+
+        List<BulkOrderResult> results = placeOrders(ORDER + "\n" + ORDER + "\n");
+
+        assertEquals(List.of(1L, 2L), results.stream().map(BulkOrderResult::getLine).toList());
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == BulkOrderResult.Status.FAILED));
+    }
+
+    @Test
+    void shouldReportOverLongLineAsInvalidAndGoOn() throws Exception {
+        when(orderService.placeOrders(anyList())).thenAnswer(invocation -> Mono.just(
+                ((List<?>) invocation.getArgument(0)).stream().map(orderRequest -> BulkOrderResult.placed("order")).toList()));
+
+        List<BulkOrderResult> results = placeOrders("x".repeat(10_000) + "\r\n" + ORDER);
+
+        assertEquals(List.of(1L, 2L), results.stream().map(BulkOrderResult::getLine).toList());
+        assertEquals(List.of(BulkOrderResult.Status.INVALID, BulkOrderResult.Status.PLACED),
+                results.stream().map(BulkOrderResult::getStatus).toList());
+    }
+
+    private List<BulkOrderResult> placeOrders(String upload) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bulkOrderService.placeOrders(new ByteArrayInputStream(upload.getBytes(StandardCharsets.UTF_8)), output);
+        return output.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, BulkOrderResult.class);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+}
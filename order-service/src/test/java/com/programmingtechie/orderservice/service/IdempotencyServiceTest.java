@@ -0,0 +1,88 @@
+package com.programmingtechie.orderservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyServiceTest {
+
+    private final IdempotencyService idempotencyService = new IdempotencyService(
+            new InMemoryIdempotencyStore(Duration.ofMinutes(1), 1000, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void shouldReplayResultWithoutExecutingAgain() {
+        assertEquals("Order Placed", idempotencyService.execute("key-1", this::placeOrder).block());
+        assertEquals("Order Placed", idempotencyService.execute("key-1", this::placeOrder).block());
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void shouldRejectDuplicateWhileFirstRequestInProgress() {
+        Sinks.One<String> firstResult = Sinks.one();
+        idempotencyService.execute("key-1", firstResult::asMono).subscribe();
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> idempotencyService.execute("key-1", this::placeOrder).block());
+
+        assertEquals(409, exception.getStatusCode().value());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void shouldReleaseKeyWhenRequestFails() {
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.execute("key-1",
+                () -> Mono.error(new IllegalArgumentException("Product is not in stock"))).block());
+
+        assertEquals("Order Placed", idempotencyService.execute("key-1", this::placeOrder).block());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void shouldRecordResultOfRequestWhoseClientDisconnected() {
+        Sinks.One<String> firstResult = Sinks.one();
+        idempotencyService.execute("key-1", firstResult::asMono).subscribe().dispose();
+
+        // Still in progress after the cancel; the key is not released while the order may yet be committed
+        assertThrows(ResponseStatusException.class, () -> idempotencyService.execute("key-1", this::placeOrder).block());
+
+        firstResult.tryEmitValue("Order Placed");
+
+        assertEquals("Order Placed", idempotencyService.execute("key-1", this::placeOrder).block());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void shouldKeepKeyWhenCommitOutcomeIsUnknown() {
+        assertThrows(TransactionSystemException.class, () -> idempotencyService.execute("key-1",
+                () -> Mono.error(new TransactionSystemException("Connection lost during commit"))).block());
+
+        assertThrows(ResponseStatusException.class, () -> idempotencyService.execute("key-1", this::placeOrder).block());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void shouldExecuteAgainAfterKeyExpires() {
+        IdempotencyService shortLived = new IdempotencyService(
+                new InMemoryIdempotencyStore(Duration.ZERO, 1000, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+
+        shortLived.execute("key-1", this::placeOrder).block();
+        shortLived.execute("key-1", this::placeOrder).block();
+
+        assertEquals(2, executions.get());
+    }
+
+    private Mono<String> placeOrder() {
+        executions.incrementAndGet();
+        return Mono.just("Order Placed");
+    }
+}
@@ -0,0 +1,42 @@
+package com.programmingtechie.orderservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryIdempotencyStoreTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // One key per stripe
+    private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(Duration.ofMinutes(1), 64, meterRegistry);
+
+    @Test
+    void shouldNeverDropKeysOfRequestsInProgress() {
+        for (int i = 0; i < 500; i++) {
+            assertTrue(store.claim("key-" + i).block().acquired());
+        }
+
+        for (int i = 0; i < 500; i++) {
+            IdempotencyStore.Claim claim = store.claim("key-" + i).block();
+            assertFalse(claim.acquired());
+            assertNull(claim.response());
+        }
+        assertEquals(0, meterRegistry.get("order.idempotency.evictions").counter().count());
+    }
+
+    @Test
+    void shouldDropOldestCompletedKeysWhenFullAndCountThem() {
+        for (int i = 0; i < 500; i++) {
+            store.claim("key-" + i).block();
+            store.complete("key-" + i, "Order Placed").block();
+        }
+
+        double evictions = meterRegistry.get("order.idempotency.evictions").counter().count();
+        assertTrue(evictions >= 500 - 64, "Expected evictions, got " + evictions);
+        // The latest key is kept and replayed
+        assertEquals("Order Placed", store.claim("key-499").block().response());
+    }
+}
@@ -0,0 +1,48 @@
+package com.programmingtechie.orderservice.service;
+
+import com.programmingtechie.orderservice.dto.InventoryResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryAvailabilityCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InventoryAvailabilityCache cache = new InventoryAvailabilityCache(meterRegistry, 100,
+            Duration.ofMinutes(1), 10);
+
+    @Test
+    void shouldServeCachedResponseWhenStockIsAmple() {
+        cache.put(new InventoryResponse("SKU001", true, 100));
+
+        assertNotNull(cache.get("SKU001", 5));
+        assertEquals(1.0, meterRegistry.get("order.inventory.cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void shouldBypassCacheWhenRequestedQuantityIsCloseToStock() {
+        cache.put(new InventoryResponse("SKU001", true, 20));
+
+        assertNull(cache.get("SKU001", 15));
+        assertEquals(1.0, meterRegistry.get("order.inventory.cache.requests").tag("result", "bypass").counter().count());
+    }
+
+    @Test
+    void shouldBypassCacheForOutOfStockSku() {
+        cache.put(new InventoryResponse("SKU001", false, 0));
+
+        assertNull(cache.get("SKU001", 1));
+    }
+
+    @Test
+    void shouldMissAfterInvalidation() {
+        cache.put(new InventoryResponse("SKU001", true, 100));
+        cache.invalidate("SKU001");
+
+        assertNull(cache.get("SKU001", 1));
+        assertEquals(1.0, meterRegistry.get("order.inventory.cache.requests").tag("result", "miss").counter().count());
+    }
+}
@@ -0,0 +1,93 @@
+package com.programmingtechie.orderservice.service;
+
+import com.programmingtechie.orderservice.dto.InventoryResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryLookupBatcherTest {
+
+    private final List<Map<String, Integer>> fetchedBatches = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldCollapseConcurrentLookupsIntoOneDeduplicatedRequest() {
+        InventoryLookupBatcher batcher = createBatcher(Duration.ofMillis(50), 200);
+
+        Mono<List<InventoryResponse>> first = batcher.lookup(orderedQuantities("SKU001", 1, "SKU002", 15));
+        Mono<List<InventoryResponse>> second = batcher.lookup(orderedQuantities("SKU002", 2, "SKU003", 1));
+        List<List<InventoryResponse>> results = Mono.zip(first, second, List::of).block(Duration.ofSeconds(5));
+
+        assertEquals(1, fetchedBatches.size());
+        assertEquals(List.of("SKU001", "SKU002", "SKU003"), List.copyOf(fetchedBatches.get(0).keySet()));
+        // The batch asks for the largest quantity; each order is then judged on its own
+        assertEquals(15, fetchedBatches.get(0).get("SKU002"));
+        assertFalse(results.get(0).get(1).isInStock());
+        assertTrue(results.get(1).get(0).isInStock());
+        assertEquals(List.of("SKU001", "SKU002"), skuCodes(results.get(0)));
+        assertEquals(List.of("SKU002", "SKU003"), skuCodes(results.get(1)));
+        assertEquals(2.0, meterRegistry.get("order.inventory.batch.lookups").summary().totalAmount());
+    }
+
+    @Test
+    void shouldDispatchImmediatelyWhenSkuLimitReached() {
+        InventoryLookupBatcher batcher = createBatcher(Duration.ofMinutes(1), 2);
+
+        List<InventoryResponse> result = batcher.lookup(orderedQuantities("SKU001", 1, "SKU002", 1)).block(Duration.ofSeconds(5));
+
+        assertEquals(List.of("SKU001", "SKU002"), skuCodes(result));
+        assertEquals(1, fetchedBatches.size());
+    }
+
+    @Test
+    void shouldReportSkusMissingFromResponseAsNotInStock() {
+        InventoryLookupBatcher batcher = new InventoryLookupBatcher(
+                quantities -> Mono.just(List.of(new InventoryResponse("SKU001", true, 10))), Duration.ofMillis(10), 200,
+                Schedulers.parallel(), meterRegistry);
+
+        List<InventoryResponse> result = batcher.lookup(orderedQuantities("SKU001", 1, "SKU002", 1)).block(Duration.ofSeconds(5));
+
+        assertEquals(List.of(new InventoryResponse("SKU001", true, 10), new InventoryResponse("SKU002", false, 0)), result);
+    }
+
+    @Test
+    void shouldPropagateFetchErrorToEveryWaiter() {
+        InventoryLookupBatcher batcher = new InventoryLookupBatcher(
+                quantities -> Mono.error(new IllegalStateException("inventory down")), Duration.ofMillis(10), 200,
+                Schedulers.parallel(), meterRegistry);
+
+        Mono<List<InventoryResponse>> first = batcher.lookup(Map.of("SKU001", 1));
+        Mono<List<InventoryResponse>> second = batcher.lookup(Map.of("SKU002", 1));
+
+        assertThrows(IllegalStateException.class, () -> Mono.zip(first, second).block(Duration.ofSeconds(5)));
+    }
+
+    private InventoryLookupBatcher createBatcher(Duration window, int maxSkus) {
+        return new InventoryLookupBatcher(quantities -> {
+            fetchedBatches.add(quantities);
+            return Mono.just(quantities.entrySet().stream()
+                    .map(entry -> new InventoryResponse(entry.getKey(), entry.getValue() <= 10, 10))
+                    .toList());
+        }, window, maxSkus, Schedulers.parallel(), meterRegistry);
+    }
+
+    private Map<String, Integer> orderedQuantities(String firstSku, int firstQuantity, String secondSku, int secondQuantity) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(firstSku, firstQuantity);
+        quantities.put(secondSku, secondQuantity);
+        return quantities;
+    }
+
+    private List<String> skuCodes(List<InventoryResponse> responses) {
+        return responses.stream().map(InventoryResponse::getSkuCode).toList();
+    }
+}
@@ -0,0 +1,130 @@
+package com.programmingtechie.orderservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InventoryRequestHedgerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReactiveDiscoveryClient discoveryClient = mock(ReactiveDiscoveryClient.class);
+
+    InventoryRequestHedgerTest() {
+        when(discoveryClient.getInstances("inventory-service")).thenAnswer(invocation -> Flux.just(
+                new DefaultServiceInstance("inventory-1", "inventory-service", "replica-1", 8080, false),
+                new DefaultServiceInstance("inventory-2", "inventory-service", "replica-2", 8080, false)));
+    }
+
+    @Test
+    void shouldNotHedgeUntilLatencyPercentileIsKnown() {
+        InventoryRequestHedger hedger = createHedger(Duration.ofMillis(20), 100);
+
+        assertEquals(Long.MAX_VALUE, hedger.getDelayNanos());
+        warmUp(hedger);
+        assertEquals(Duration.ofMillis(20).toNanos(), hedger.getDelayNanos());
+    }
+
+    @Test
+    void shouldKeepFirstResponseAndCancelSlowRequest() {
+        InventoryRequestHedger hedger = createHedger(Duration.ofMillis(20), 100);
+        warmUp(hedger);
+        List<URI> attempts = new CopyOnWriteArrayList<>();
+        AtomicBoolean slowRequestCancelled = new AtomicBoolean();
+
+        String response = hedger.execute(instanceUri -> {
+            attempts.add(instanceUri);
+            return attempts.size() == 1
+                    ? Mono.delay(Duration.ofSeconds(5)).thenReturn("slow").doOnCancel(() -> slowRequestCancelled.set(true))
+                    : Mono.just("fast");
+        }).block(Duration.ofSeconds(2));
+
+        assertEquals("fast", response);
+        assertEquals(2, attempts.size());
+        assertNotEquals(attempts.get(0), attempts.get(1));
+        assertTrue(slowRequestCancelled.get());
+        assertEquals(1, meterRegistry.get("order.inventory.hedge.requests").counter().count());
+        assertEquals(1, meterRegistry.get("order.inventory.hedge.wins").counter().count());
+    }
+
+    @Test
+    void shouldHedgeOnAnotherReplicaAsSoonAsPrimaryFails() {
+        // The hedge delay is far longer than the test may take
+        InventoryRequestHedger hedger = createHedger(Duration.ofSeconds(30), 100);
+        warmUp(hedger);
+        List<URI> attempts = new CopyOnWriteArrayList<>();
+
+        String response = hedger.execute(instanceUri -> {
+            attempts.add(instanceUri);
+            return attempts.size() == 1 ? Mono.error(new IllegalStateException("replica down")) : Mono.just("ok");
+        }).block(Duration.ofSeconds(2));
+
+        assertEquals("ok", response);
+        assertEquals(2, attempts.size());
+        assertNotEquals(attempts.get(0), attempts.get(1));
+    }
+
+    @Test
+    void shouldRecordLatencyOfCancelledAttempts() {
+        InventoryRequestHedger hedger = createHedger(Duration.ofMillis(1), 100);
+        warmUp(hedger);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Winners answer at once, so only the elapsed time of the cancelled primaries can lift the percentile
+        for (int i = 0; i < 64; i++) {
+            hedger.execute(instanceUri -> attempts.incrementAndGet() % 2 == 1
+                    ? Mono.delay(Duration.ofSeconds(5)).thenReturn("slow")
+                    : Mono.just("fast")).block(Duration.ofSeconds(2));
+        }
+
+        assertTrue(hedger.getDelayNanos() > Duration.ofMillis(1).toNanos());
+    }
+
+    @Test
+    void shouldNotHedgeBeyondBudget() {
+        InventoryRequestHedger hedger = createHedger(Duration.ofMillis(20), 0);
+        warmUp(hedger);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String response = hedger.execute(instanceUri -> {
+            attempts.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(100)).thenReturn("slow");
+        }).block(Duration.ofSeconds(2));
+
+        assertEquals("slow", response);
+        assertEquals(1, attempts.get());
+        assertEquals(1, meterRegistry.get("order.inventory.hedge.budget-exhausted").counter().count());
+    }
+
+    @Test
+    void shouldPropagateErrorOfUnhedgedRequest() {
+        InventoryRequestHedger hedger = createHedger(Duration.ofMillis(20), 0);
+        warmUp(hedger);
+
+        assertThrows(IllegalStateException.class, () -> hedger.execute(
+                instanceUri -> Mono.error(new IllegalStateException("inventory down"))).block(Duration.ofSeconds(2)));
+    }
+
+    private InventoryRequestHedger createHedger(Duration minDelay, double budgetPercent) {
+        return new InventoryRequestHedger(discoveryClient, meterRegistry, 0.95, minDelay, budgetPercent);
+    }
+
+    private void warmUp(InventoryRequestHedger hedger) {
+        for (int i = 0; i < 64; i++) {
+            hedger.execute(instanceUri -> Mono.just("warm")).block();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.programmingtechie.orderservice.service;
+
+import com.programmingtechie.orderservice.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The store runs its own transactions, as it does in production
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JdbcIdempotencyStoreTest {
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        idempotencyKeyRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReportClaimedKeyAsInProgress() {
+        JdbcIdempotencyStore store = createStore();
+
+        assertTrue(store.claim("key-1").block().acquired());
+
+        IdempotencyStore.Claim claim = store.claim("key-1").block();
+        assertFalse(claim.acquired());
+        assertNull(claim.response());
+    }
+
+    @Test
+    void shouldNotMistakeOtherConstraintViolationsForClaimedKey() {
+        JdbcIdempotencyStore store = createStore();
+
+        assertThrows(DataIntegrityViolationException.class, () -> store.claim("k".repeat(300)).block());
+    }
+
+    private JdbcIdempotencyStore createStore() {
+        return new JdbcIdempotencyStore(idempotencyKeyRepository, new TransactionTemplate(transactionManager),
+                Schedulers.immediate(), Duration.ofMinutes(1));
+    }
+}
@@ -0,0 +1,120 @@
+package com.programmingtechie.orderservice.service;
+
+import com.programmingtechie.orderservice.dto.OrderPage;
+import com.programmingtechie.orderservice.dto.OrderResponse;
+import com.programmingtechie.orderservice.model.Order;
+import com.programmingtechie.orderservice.model.OrderLineItems;
+import com.programmingtechie.orderservice.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=never"
+})
+@Import(OrderQueryService.class)
+class OrderQueryServiceTest {
+
+    private static final UUID ORDER_1 = UUID.fromString("018cc251-f400-7000-8000-000000000001");
+    private static final UUID ORDER_2 = UUID.fromString("018cc251-f400-7000-8000-000000000002");
+    private static final UUID ORDER_3 = UUID.fromString("018cc251-f400-7000-8000-000000000003");
+    private static final UUID ORDER_4 = UUID.fromString("018cc251-f400-7000-8000-000000000004");
+    private static final UUID ORDER_5 = UUID.fromString("018cc251-f400-7000-8000-000000000005");
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Autowired
+    private OrderQueryService orderQueryService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Two orders share a timestamp so that the id tie breaker is exercised
+        orderRepository.save(createOrder(ORDER_1, NOW.minusSeconds(3), 2));
+        orderRepository.save(createOrder(ORDER_2, NOW.minusSeconds(2), 1));
+        orderRepository.save(createOrder(ORDER_3, NOW.minusSeconds(2), 3));
+        orderRepository.save(createOrder(ORDER_4, NOW.minusSeconds(1), 1));
+        orderRepository.save(createOrder(ORDER_5, NOW, 2));
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldWalkAllOrdersNewestFirstWithTwoQueriesPerPage() {
+        List<UUID> orderNumbers = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            statistics.clear();
+            OrderPage page = orderQueryService.getOrders(cursor, 2);
+            assertEquals(2, statistics.getPrepareStatementCount());
+            assertEquals(0, statistics.getEntityLoadCount());
+            page.getOrders().forEach(order -> orderNumbers.add(order.getOrderNumber()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(List.of(ORDER_5, ORDER_4, ORDER_3, ORDER_2, ORDER_1), orderNumbers);
+    }
+
+    @Test
+    void shouldReturnOrderWithLineItems() {
+        OrderResponse order = orderQueryService.getOrder(ORDER_3.toString());
+
+        assertEquals(NOW.minusSeconds(2), order.getCreatedAt());
+        assertEquals(3, order.getOrderLineItemsDtoList().size());
+        assertEquals("SKU0", order.getOrderLineItemsDtoList().get(0).getSkuCode());
+    }
+
+    @Test
+    void shouldRejectUnknownOrderAndInvalidCursor() {
+        assertEquals(404, assertThrows(ResponseStatusException.class,
+                () -> orderQueryService.getOrder("missing")).getStatusCode().value());
+        assertEquals(404, assertThrows(ResponseStatusException.class,
+                () -> orderQueryService.getOrder(UUID.randomUUID().toString())).getStatusCode().value());
+        assertEquals(400, assertThrows(ResponseStatusException.class,
+                () -> orderQueryService.getOrders("not-a-cursor", 2)).getStatusCode().value());
+    }
+
+    private Order createOrder(UUID orderNumber, Instant createdAt, int lineItemCount) {
+        Order order = new Order();
+        order.setOrderNumber(orderNumber);
+        order.setCreatedAt(createdAt);
+        List<OrderLineItems> orderLineItems = new ArrayList<>(lineItemCount);
+        for (int i = 0; i < lineItemCount; i++) {
+            OrderLineItems orderLineItem = new OrderLineItems();
+            orderLineItem.setSkuCode("SKU" + i);
+            orderLineItem.setPrice(BigDecimal.TEN);
+            orderLineItem.setQuantity(1);
+            orderLineItem.setOrder(order);
+            orderLineItems.add(orderLineItem);
+        }
+        order.setOrderLineItemsList(orderLineItems);
+        return order;
+    }
+}
@@ -0,0 +1,184 @@
+package com.programmingtechie.orderservice.service;
+
+import com.programmingtechie.orderservice.dto.BulkOrderResult;
+import com.programmingtechie.orderservice.dto.OrderLineItemsDto;
+import com.programmingtechie.orderservice.dto.OrderRequest;
+import com.programmingtechie.orderservice.event.OrderPlacedEvent;
+import com.programmingtechie.orderservice.model.Order;
+import com.programmingtechie.orderservice.repository.OrderRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class OrderServiceTest {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final ApplicationEventPublisher applicationEventPublisher = mock(ApplicationEventPublisher.class);
+    private final AtomicInteger inventoryCalls = new AtomicInteger();
+    private volatile ClientRequest lastInventoryRequest;
+
+    @BeforeEach
+    void setUp() {
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void shouldPlaceOrderWhenAllProductsInStock() {
+        OrderService orderService = createOrderService(HttpStatus.OK, "[{\"skuCode\":\"SKU001\",\"inStock\":true,\"quantity\":10}]");
+
+        assertEquals("Order Placed", orderService.placeOrder(createOrderRequest()).block());
+
+        verify(orderRepository, times(1)).save(any(Order.class));
+        verify(applicationEventPublisher, times(1)).publishEvent(any(OrderPlacedEvent.class));
+        assertEquals(HttpMethod.POST, lastInventoryRequest.method());
+        assertEquals("/api/inventory/check", lastInventoryRequest.url().getPath());
+    }
+
+    @Test
+    void shouldRejectOrderForUnknownSku() {
+        OrderService orderService = createOrderService(HttpStatus.OK, "[{\"skuCode\":\"SKU001\",\"inStock\":false}]");
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.placeOrder(createOrderRequest()).block());
+
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void shouldRejectOrderWhenInventoryOmitsSku() {
+        OrderService orderService = createOrderService(HttpStatus.OK, "[]");
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.placeOrder(createOrderRequest()).block());
+
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void shouldFailWhenProductOutOfStock() {
+        OrderService orderService = createOrderService(HttpStatus.OK, "[{\"skuCode\":\"SKU001\",\"inStock\":false,\"quantity\":0}]");
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.placeOrder(createOrderRequest()).block());
+
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(applicationEventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void shouldRetryOnlyTheInventoryLookup() {
+        OrderService orderService = createOrderService(HttpStatus.SERVICE_UNAVAILABLE, "");
+
+        assertThrows(RuntimeException.class, () -> orderService.placeOrder(createOrderRequest()).block());
+
+        verify(orderRepository, never()).save(any(Order.class));
+        assertEquals(3, inventoryCalls.get());
+    }
+
+    @Test
+    void shouldPlaceInStockOrdersOfChunkWithOneLookup() {
+        OrderService orderService = createOrderService(HttpStatus.OK,
+                "[{\"skuCode\":\"SKU001\",\"inStock\":true,\"quantity\":10},{\"skuCode\":\"SKU002\",\"inStock\":false,\"quantity\":0}]");
+
+        List<BulkOrderResult> results = orderService.placeOrders(List.of(createOrderRequest(),
+                createOrderRequest("SKU002"), createOrderRequest())).block();
+
+        assertEquals(List.of(BulkOrderResult.Status.PLACED, BulkOrderResult.Status.REJECTED,
+                BulkOrderResult.Status.PLACED), results.stream().map(BulkOrderResult::getStatus).toList());
+        assertEquals(1, inventoryCalls.get());
+        verify(orderRepository, times(1)).saveAll(argThat(orders -> ((List<?>) orders).size() == 2));
+        verify(applicationEventPublisher, times(2)).publishEvent(any(OrderPlacedEvent.class));
+    }
+
+    @Test
+    void shouldNotAcceptMoreThanAvailableWithinChunk() {
+        OrderService orderService = createOrderService(HttpStatus.OK,
+                "[{\"skuCode\":\"SKU001\",\"inStock\":false,\"quantity\":1},{\"skuCode\":\"SKU003\",\"inStock\":false}]");
+
+        List<BulkOrderResult> results = orderService.placeOrders(List.of(createOrderRequest(),
+                createOrderRequest(), createOrderRequest("SKU003"))).block();
+
+        assertEquals(List.of(BulkOrderResult.Status.PLACED, BulkOrderResult.Status.REJECTED,
+                BulkOrderResult.Status.REJECTED), results.stream().map(BulkOrderResult::getStatus).toList());
+    }
+
+    @Test
+    void shouldReportOrdersOfChunkAsUnknownWhenCommitFails() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        doThrow(new TransactionSystemException("commit failed")).when(transactionManager).commit(any());
+        OrderService orderService = createOrderService(HttpStatus.OK,
+                "[{\"skuCode\":\"SKU001\",\"inStock\":true,\"quantity\":10},{\"skuCode\":\"SKU002\",\"inStock\":false,\"quantity\":0}]",
+                transactionManager);
+
+        List<BulkOrderResult> results = orderService.placeOrders(List.of(createOrderRequest(),
+                createOrderRequest("SKU002"))).block();
+
+        assertEquals(List.of(BulkOrderResult.Status.UNKNOWN, BulkOrderResult.Status.REJECTED),
+                results.stream().map(BulkOrderResult::getStatus).toList());
+        // The client needs the order number to check whether the order exists
+        assertNotNull(results.get(0).getOrderNumber());
+    }
+
+    private OrderService createOrderService(HttpStatus status, String body) {
+        return createOrderService(status, body, mock(PlatformTransactionManager.class));
+    }
+
+    private OrderService createOrderService(HttpStatus status, String body, PlatformTransactionManager transactionManager) {
+        WebClient.Builder webClientBuilder = WebClient.builder().exchangeFunction(request -> {
+            inventoryCalls.incrementAndGet();
+            lastInventoryRequest = request;
+            return Mono.just(ClientResponse.create(status)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(body)
+                    .build());
+        });
+        RetryRegistry retryRegistry = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(1))
+                .build());
+        InventoryClient inventoryClient = new InventoryClient(webClientBuilder, new SimpleMeterRegistry(),
+                mock(ObjectProvider.class), mock(ObjectProvider.class), false, Duration.ZERO, 0);
+        return new OrderService(orderRepository, inventoryClient, new TimeOrderedOrderNumberGenerator(),
+                ObservationRegistry.NOOP, applicationEventPublisher,
+                new TransactionTemplate(transactionManager), Schedulers.immediate(),
+                CircuitBreakerRegistry.ofDefaults(), retryRegistry, TimeLimiterRegistry.ofDefaults());
+    }
+
+    private OrderRequest createOrderRequest() {
+        return createOrderRequest("SKU001");
+    }
+
+    private OrderRequest createOrderRequest(String skuCode) {
+        OrderLineItemsDto item = new OrderLineItemsDto();
+        item.setSkuCode(skuCode);
+        item.setPrice(BigDecimal.valueOf(100));
+        item.setQuantity(1);
+        return new OrderRequest(List.of(item));
+    }
+}
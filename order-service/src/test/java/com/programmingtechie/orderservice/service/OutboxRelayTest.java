@@ -0,0 +1,147 @@
+package com.programmingtechie.orderservice.service;
+
+import com.programmingtechie.orderservice.event.OrderPlacedEvent;
+import com.programmingtechie.orderservice.model.OutboxEvent;
+import com.programmingtechie.orderservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private KafkaTemplate<String, OrderPlacedEvent> kafkaTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldDeleteDeliveredEvents() {
+        OutboxEvent first = createOutboxEvent(1L, "order-1");
+        OutboxEvent second = createOutboxEvent(2L, "order-2");
+        when(outboxEventRepository.findNextBatch(eq(10), any(Instant.class), any(Pageable.class))).thenReturn(List.of(first, second));
+        when(outboxEventRepository.findFirstByAttemptsLessThanOrderByIdAsc(10)).thenReturn(Optional.empty());
+        when(kafkaTemplate.send(eq("notificationTopic"), anyString(), any(OrderPlacedEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        int relayed = createOutboxRelay().relay();
+
+        assertEquals(2, relayed);
+        verify(outboxEventRepository).claim(eq(List.of(1L, 2L)), any(Instant.class));
+        verify(outboxEventRepository).deleteAllInBatch(List.of(first, second));
+        assertEquals(2.0, meterRegistry.get("order.outbox.relayed").counter().count());
+    }
+
+    @Test
+    void shouldTruncateLongErrorToColumnWidth() {
+        OutboxEvent failed = createOutboxEvent(1L, "order-1");
+        when(outboxEventRepository.findNextBatch(eq(10), any(Instant.class), any(Pageable.class))).thenReturn(List.of(failed));
+        when(outboxEventRepository.findFirstByAttemptsLessThanOrderByIdAsc(10)).thenReturn(Optional.of(failed));
+        when(kafkaTemplate.send(eq("notificationTopic"), eq("order-1"), any(OrderPlacedEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("x".repeat(1000))));
+
+        createOutboxRelay().relay();
+
+        assertEquals(OutboxEvent.LAST_ERROR_LENGTH, failed.getLastError().length());
+    }
+
+    @Test
+    void shouldKeepFailedEventsForRetry() {
+        OutboxEvent delivered = createOutboxEvent(1L, "order-1");
+        OutboxEvent failed = createOutboxEvent(2L, "order-2");
+        when(outboxEventRepository.findNextBatch(eq(10), any(Instant.class), any(Pageable.class))).thenReturn(List.of(delivered, failed));
+        when(outboxEventRepository.findFirstByAttemptsLessThanOrderByIdAsc(10)).thenReturn(Optional.of(failed));
+        when(kafkaTemplate.send(eq("notificationTopic"), eq("order-1"), any(OrderPlacedEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(kafkaTemplate.send(eq("notificationTopic"), eq("order-2"), any(OrderPlacedEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+
+        int relayed = createOutboxRelay().relay();
+
+        assertEquals(1, relayed);
+        verify(outboxEventRepository).deleteAllInBatch(List.of(delivered));
+        assertEquals(1, failed.getAttempts());
+        assertEquals("broker unavailable", failed.getLastError());
+        assertNull(failed.getClaimedUntil());
+        verify(outboxEventRepository).saveAll(List.of(failed));
+        assertEquals(1.0, meterRegistry.get("order.outbox.failed").counter().count());
+    }
+
+    @Test
+    void shouldWaitOnceForWholeBatch() {
+        List<OutboxEvent> batch = List.of(createOutboxEvent(1L, "order-1"), createOutboxEvent(2L, "order-2"),
+                createOutboxEvent(3L, "order-3"));
+        when(outboxEventRepository.findNextBatch(eq(10), any(Instant.class), any(Pageable.class))).thenReturn(batch);
+        when(outboxEventRepository.findFirstByAttemptsLessThanOrderByIdAsc(10)).thenReturn(Optional.of(batch.get(0)));
+        // Acknowledgements that never arrive
+        when(kafkaTemplate.send(eq("notificationTopic"), anyString(), any(OrderPlacedEvent.class)))
+                .thenAnswer(invocation -> new CompletableFuture<>());
+
+        long start = System.nanoTime();
+        int relayed = createOutboxRelay().relay();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertEquals(0, relayed);
+        // A send timeout of 200ms per event would take 600ms
+        assertTrue(elapsedMillis < 500, "Waited " + elapsedMillis + " ms");
+        batch.forEach(outboxEvent -> assertEquals(1, outboxEvent.getAttempts()));
+    }
+
+    @Test
+    void shouldStopSendingWhenSendFailsWithoutReachingBroker() {
+        OutboxEvent first = createOutboxEvent(1L, "order-1");
+        OutboxEvent second = createOutboxEvent(2L, "order-2");
+        when(outboxEventRepository.findNextBatch(eq(10), any(Instant.class), any(Pageable.class))).thenReturn(List.of(first, second));
+        when(outboxEventRepository.findFirstByAttemptsLessThanOrderByIdAsc(10)).thenReturn(Optional.of(first));
+        when(kafkaTemplate.send(eq("notificationTopic"), eq("order-1"), any(OrderPlacedEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("no metadata")));
+
+        assertEquals(0, createOutboxRelay().relay());
+
+        verify(kafkaTemplate, never()).send(eq("notificationTopic"), eq("order-2"), any(OrderPlacedEvent.class));
+        assertEquals(1, first.getAttempts());
+        // Released for the next run without counting an attempt
+        assertEquals(0, second.getAttempts());
+        assertNull(second.getClaimedUntil());
+        verify(outboxEventRepository).saveAll(List.of(second));
+    }
+
+    @Test
+    void shouldNotSendWhenOutboxIsEmpty() {
+        when(outboxEventRepository.findNextBatch(eq(10), any(Instant.class), any(Pageable.class))).thenReturn(List.of());
+        when(outboxEventRepository.findFirstByAttemptsLessThanOrderByIdAsc(10)).thenReturn(Optional.empty());
+
+        assertEquals(0, createOutboxRelay().relay());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    private OutboxRelay createOutboxRelay() {
+        return new OutboxRelay(outboxEventRepository, kafkaTemplate, new TransactionTemplate(transactionManager),
+                meterRegistry, 100, 10, Duration.ofMillis(200), Duration.ofSeconds(60));
+    }
+
+    private OutboxEvent createOutboxEvent(Long id, String orderNumber) {
+        return new OutboxEvent(id, orderNumber, Instant.now(), 0, null, null);
+    }
+}
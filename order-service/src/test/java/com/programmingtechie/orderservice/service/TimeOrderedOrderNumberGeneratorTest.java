@@ -0,0 +1,66 @@
+package com.programmingtechie.orderservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedOrderNumberGeneratorTest {
+
+    private final TimeOrderedOrderNumberGenerator generator = new TimeOrderedOrderNumberGenerator();
+
+    @Test
+    void shouldGenerateVersion7UuidWithCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID orderNumber = generator.generate();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, orderNumber.version());
+        assertEquals(2, orderNumber.variant());
+        long timestamp = orderNumber.getMostSignificantBits() >>> 16;
+        // The counter may push the timestamp forward by at most a millisecond
+        assertTrue(timestamp >= before && timestamp <= after + 1, "Unexpected timestamp " + timestamp);
+    }
+
+    @Test
+    void shouldIncreaseStrictlyInStringAndBinaryOrder() {
+        UUID previous = generator.generate();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = generator.generate();
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0);
+            assertTrue(next.toString().compareTo(previous.toString()) > 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    void shouldStayUniqueAcrossThreads() throws Exception {
+        Set<UUID> orderNumbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        orderNumbers.add(generator.generate());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(80_000, orderNumbers.size());
+    }
+}
@@ -1,15 +1,31 @@
 package com.programmingtechie.productservice.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.programmingtechie.productservice.dto.ProductBatchItemResult;
+import com.programmingtechie.productservice.dto.ProductPage;
 import com.programmingtechie.productservice.dto.ProductRequest;
 import com.programmingtechie.productservice.dto.ProductResponse;
+import com.programmingtechie.productservice.service.ProductBatchService;
 import com.programmingtechie.productservice.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * REST Controller for managing product operations.
@@ -23,9 +39,16 @@ public class ProductController {
 
     // Dependency injection of ProductService to handle business logic
     private final ProductService productService;
+    // Handles batch creation requests
+    private final ProductBatchService productBatchService;
+    // Used to write the product stream incrementally
+    private final ObjectMapper objectMapper;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductBatchService productBatchService,
+                             ObjectMapper objectMapper) {
         this.productService = productService;
+        this.productBatchService = productBatchService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -43,16 +66,156 @@ public class ProductController {
     }
 
     /**
-     * Retrieves all products from the system.
-     * Returns a list of all products with their details.
-     * 
+     * Creates many products from a JSON array or NDJSON upload, read as a stream and inserted in bulk.
+     * The response is newline-delimited JSON with one line per product, in request order, giving its id or the
+     * reason it was not created; lines are written as each batch is inserted.
+     *
+     * Example: curl -X POST -H 'Content-Type: application/x-ndjson' --data-binary @products.ndjson http://localhost:8080/api/product/batch
+     *
+     * @param contentType application/json or application/x-ndjson
+     * @param upload request body, read as a stream
+     * @param response response the outcomes are written to
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Create products in bulk",
+            description = "Creates products from a JSON array or NDJSON upload and reports the outcome of each one as NDJSON")
+    public void createProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                               InputStream upload, HttpServletResponse response) throws IOException {
+        ProductBatchService.Format format = ProductBatchService.Format.of(contentType);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            productBatchService.createProducts(upload, format, results -> {
+                try {
+                    for (ProductBatchItemResult result : results) {
+                        generator.writeObject(result);
+                        generator.writeRaw('\n');
+                    }
+                    // Let the client follow progress batch by batch
+                    generator.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Retrieves one page of products, using the product id as the cursor.
+     * The body is a JSON array; when another page follows, a Link header with rel="next" points to it.
+     *
+     * Example URLs:
+     * - First page: http://localhost:8080/api/product?limit=50
+     * - Next page: http://localhost:8080/api/product?limit=50&after=507f1f77bcf86cd799439011
+     * - Listing view: http://localhost:8080/api/product?fields=name,price
+     *
+     * @param after id of the last product of the previous page; omit for the first page
+     * @param limit number of products per page
+     * @param fields properties to return; omit for all of them
      * @return List of ProductResponse DTOs containing product information
      */
-    @GetMapping // Maps HTTP GET requests to this method
-    @ResponseStatus(HttpStatus.OK) // Returns 200 status code on success
-    @Operation(summary = "Get all products", description = "Retrieves a list of all products")
-    public List<ProductResponse> getAllProducts() {
-        return productService.getAllProducts();
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE) // Maps HTTP GET requests to this method
+    @Operation(summary = "Get products", description = "Retrieves a page of products; the Link header points to the next page")
+    public ResponseEntity<List<ProductResponse>> getProducts(
+            @Parameter(description = "Id of the last product of the previous page") @RequestParam(required = false) String after,
+            @Parameter(description = "Number of products per page (1-1000, default 100)") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Comma-separated properties to return, e.g. name,price; the id is always returned") @RequestParam(required = false) String fields) {
+        ProductPage page = productService.getProducts(after, limit, fields);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.nextCursor())
+                    .build()
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.products());
+    }
+
+    /**
+     * Searches product names and descriptions, best matches first.
+     *
+     * Example URL: http://localhost:8080/api/product/search?q=iphone%20128gb
+     *
+     * @param q words to search for
+     * @param limit maximum number of results
+     * @param fields properties to return; omit for all of them
+     * @return List of ProductResponse DTOs of the matching products
+     */
+    @GetMapping("/search")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Search products", description = "Full-text search over product names and descriptions")
+    public List<ProductResponse> searchProducts(
+            @Parameter(description = "Words to search for") @RequestParam String q,
+            @Parameter(description = "Maximum number of results (1-100, default 20)") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Comma-separated properties to return, e.g. name,price; the id is always returned") @RequestParam(required = false) String fields) {
+        return productService.searchProducts(q, limit, fields);
+    }
+
+    /**
+     * Suggests words starting with a prefix, for search box autocompletion.
+     *
+     * @param prefix start of a word
+     * @param limit maximum number of suggestions
+     * @return suggested words, most common first
+     */
+    @GetMapping("/suggest")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Suggest search words", description = "Completes a prefix to words used in product names and descriptions")
+    public List<String> suggest(
+            @Parameter(description = "Start of a word") @RequestParam String prefix,
+            @Parameter(description = "Maximum number of suggestions (1-50, default 10)") @RequestParam(required = false) Integer limit) {
+        return productService.suggest(prefix, limit);
+    }
+
+    /**
+     * Retrieves a single product by its id.
+     *
+     * @param id product id
+     * @param fields properties to return; omit for all of them
+     * @return ProductResponse DTO of the product
+     */
+    @GetMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Get a product", description = "Retrieves a product by its id")
+    public ProductResponse getProduct(
+            @Parameter(description = "Product id") @PathVariable String id,
+            @Parameter(description = "Comma-separated properties to return, e.g. name,price; the id is always returned") @RequestParam(required = false) String fields) {
+        return productService.getProduct(id, fields);
+    }
+
+    /**
+     * Streams the whole catalog as newline-delimited JSON, one product per line, read from a database cursor
+     * and written as it is read, so that exporting the catalog takes constant memory.
+     *
+     * @param after id to resume after; omit to stream the whole catalog
+     * @param fields properties to return; omit for all of them
+     * @return NDJSON stream of ProductResponse DTOs in id order
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all products", description = "Streams every product as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamProducts(
+            @Parameter(description = "Id to resume after") @RequestParam(required = false) String after,
+            @Parameter(description = "Comma-separated properties to return, e.g. name,price; the id is always returned") @RequestParam(required = false) String fields) {
+        // Validation happens here, so bad requests are rejected before the response is committed
+        Stream<ProductResponse> products = productService.streamProducts(after, fields);
+
+        StreamingResponseBody body = outputStream -> {
+            try (products; JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                // Each product is its own line instead of being separated by the default root value separator
+                generator.setRootValueSeparator(null);
+                for (ProductResponse product : (Iterable<ProductResponse>) products::iterator) {
+                    generator.writeObject(product);
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
 }
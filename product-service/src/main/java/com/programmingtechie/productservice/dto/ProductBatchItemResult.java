@@ -0,0 +1,27 @@
+package com.programmingtechie.productservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one product of a batch creation request.
+ *
+ * @param index position of the product in the request, starting at 0
+ * @param id    id of the created product, or null if it was not created; together with an error, the id the
+ *              product has if its unconfirmed insert went through
+ * @param error why the product was not created, or null if it was
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductBatchItemResult(int index, String id, String error) {
+
+    public static ProductBatchItemResult created(int index, String id) {
+        return new ProductBatchItemResult(index, id, null);
+    }
+
+    public static ProductBatchItemResult failed(int index, String error) {
+        return new ProductBatchItemResult(index, null, error);
+    }
+
+    public static ProductBatchItemResult unknown(int index, String id, String error) {
+        return new ProductBatchItemResult(index, id, error);
+    }
+}
@@ -0,0 +1,12 @@
+package com.programmingtechie.productservice.dto;
+
+import java.util.List;
+
+/**
+ * One page of the product catalog.
+ *
+ * @param products   products of the page, in id order
+ * @param nextCursor id to pass as the cursor for the next page, or null if this is the last page
+ */
+public record ProductPage(List<ProductResponse> products, String nextCursor) {
+}
@@ -1,9 +1,11 @@
 package com.programmingtechie.productservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.math.BigDecimal;
 
 @Schema(description = "Product response")
+@JsonInclude(JsonInclude.Include.NON_NULL) // Properties left out by a fields= projection are not serialized
 public class ProductResponse {
     @Schema(description = "Product ID", example = "507f1f77bcf86cd799439011")
     private String id;
@@ -0,0 +1,25 @@
+package com.programmingtechie.productservice.event;
+
+import java.util.List;
+
+/**
+ * Broadcast on productChangeTopic when products are written, so that peer instances drop their cached copies.
+ * A bulk insert sends one event for all the products of a batch.
+ */
+public class ProductChangedEvent {
+    private List<String> productIds;
+    // Instance that made the change; it has already updated its own cache
+    private String origin;
+
+    public ProductChangedEvent() {}
+
+    public ProductChangedEvent(List<String> productIds, String origin) {
+        this.productIds = productIds;
+        this.origin = origin;
+    }
+
+    public List<String> getProductIds() { return productIds; }
+    public void setProductIds(List<String> productIds) { this.productIds = productIds; }
+    public String getOrigin() { return origin; }
+    public void setOrigin(String origin) { this.origin = origin; }
+}
@@ -0,0 +1,33 @@
+package com.programmingtechie.productservice.listener;
+
+import com.programmingtechie.productservice.event.ProductChangedEvent;
+import com.programmingtechie.productservice.service.ProductChangeBroadcaster;
+import com.programmingtechie.productservice.service.ProductService;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProductChangedEventListener {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ProductChangedEventListener.class);
+    private final ProductService productService;
+    private final ProductChangeBroadcaster productChangeBroadcaster;
+
+    public ProductChangedEventListener(ProductService productService, ProductChangeBroadcaster productChangeBroadcaster) {
+        this.productService = productService;
+        this.productChangeBroadcaster = productChangeBroadcaster;
+    }
+
+    /**
+     * Drops the cached copies of products changed by another instance and indexes them for search.
+     * Every instance uses its own consumer group so each cache and search index sees every event.
+     */
+    @KafkaListener(topics = ProductChangeBroadcaster.TOPIC, groupId = "product-service-cache-${random.uuid}")
+    public void handleProductChangedEvent(ProductChangedEvent event) {
+        if (productChangeBroadcaster.isOwn(event)) {
+            return;
+        }
+        log.debug("{} products changed on another instance, refreshing cached copies", event.getProductIds().size());
+        productService.refreshProducts(event.getProductIds());
+    }
+}
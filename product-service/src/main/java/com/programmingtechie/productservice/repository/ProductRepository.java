@@ -1,7 +1,32 @@
 package com.programmingtechie.productservice.repository;
 
 import com.programmingtechie.productservice.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-public interface ProductRepository extends MongoRepository<Product, String> {
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ProductRepository extends MongoRepository<Product, String>, ProductRepositoryCustom {
+
+    /**
+     * Reads the first page of the catalog; no count query is run, unlike {@link #findAll(Pageable)}.
+     */
+    List<Product> findAllBy(Pageable pageable);
+
+    /**
+     * Reads the page after the given cursor. Paging on _id uses the _id index, so a page costs the same
+     * wherever it is in the catalog, unlike skip/offset paging.
+     */
+    List<Product> findByIdGreaterThan(String id, Pageable pageable);
+
+    /**
+     * Streams the catalog in _id order from a database cursor; the stream must be closed.
+     */
+    Stream<Product> streamAllByOrderByIdAsc();
+
+    /**
+     * Streams the products after the given id in _id order from a database cursor; the stream must be closed.
+     */
+    Stream<Product> streamByIdGreaterThanOrderByIdAsc(String id);
 }
@@ -0,0 +1,32 @@
+package com.programmingtechie.productservice.repository;
+
+import com.programmingtechie.productservice.model.Product;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Catalog reads that fetch only some properties of each product. The projection is applied by MongoDB, so the
+ * properties left out are neither read nor sent over the network; they are null in the returned products.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Reads the page after the given cursor in _id order, with only the given properties and the id.
+     *
+     * @param after id of the last product of the previous page, or null for the first page
+     * @param limit maximum number of products
+     * @param fields properties to read
+     */
+    List<Product> findPage(String after, int limit, Set<String> fields);
+
+    /**
+     * Streams the products after the given id in _id order from a database cursor, with only the given
+     * properties and the id; the stream must be closed.
+     *
+     * @param after id to resume after, or null to stream the whole catalog
+     * @param fields properties to read
+     */
+    Stream<Product> streamProjected(String after, Set<String> fields);
+}
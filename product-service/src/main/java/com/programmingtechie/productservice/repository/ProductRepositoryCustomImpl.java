@@ -0,0 +1,38 @@
+package com.programmingtechie.productservice.repository;
+
+import com.programmingtechie.productservice.model.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    ProductRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Product> findPage(String after, int limit, Set<String> fields) {
+        return mongoTemplate.find(projectedQuery(after, fields).limit(limit), Product.class);
+    }
+
+    @Override
+    public Stream<Product> streamProjected(String after, Set<String> fields) {
+        return mongoTemplate.stream(projectedQuery(after, fields), Product.class);
+    }
+
+    private static Query projectedQuery(String after, Set<String> fields) {
+        Query query = after == null ? new Query() : new Query(Criteria.where("id").gt(after));
+        query.with(Sort.by("id"));
+        // _id is always returned by MongoDB, and the paging cursor needs it anyway
+        query.fields().include(fields.toArray(String[]::new));
+        return query;
+    }
+}
@@ -0,0 +1,338 @@
+package com.programmingtechie.productservice.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mongodb.MongoBulkWriteException;
+import com.programmingtechie.productservice.dto.ProductBatchItemResult;
+import com.programmingtechie.productservice.dto.ProductRequest;
+import com.programmingtechie.productservice.model.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Creates products in bulk, e.g. when onboarding a catalog.
+ * The request is read one product at a time and inserted with unordered bulk writes of
+ * {@code product.batch.size} products, so memory use is bounded by one batch whatever the request size, and a
+ * product that cannot be inserted does not stop the others of its batch. NDJSON lines are read up to
+ * {@code product.batch.max-line-length} characters; longer lines are reported as invalid. The outcome of every
+ * product, its id or the reason it was not created, is handed out after each batch.
+ * A batch whose insert fails or is not confirmed by the database is reported with both ids and errors, since its
+ * products may have been created; after a database failure, the rest of the upload is read and reported but not
+ * inserted.
+ */
+@Service
+public class ProductBatchService {
+
+    // Progress is logged every this many products
+    private static final long PROGRESS_INTERVAL = 100_000;
+    private static final String UNCONFIRMED = "Insert was not confirmed by the database; check whether the product "
+            + "exists before resubmitting it";
+    private static final String NOT_ATTEMPTED = "Not inserted because the database failed earlier in the upload; "
+            + "please resubmit it";
+
+    public enum Format {
+        JSON, NDJSON;
+
+        public static Format of(MediaType mediaType) {
+            if (MediaType.APPLICATION_NDJSON.isCompatibleWith(mediaType)) {
+                return NDJSON;
+            }
+            if (MediaType.APPLICATION_JSON.isCompatibleWith(mediaType)) {
+                return JSON;
+            }
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Products can be created from a JSON array or NDJSON");
+        }
+    }
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ProductBatchService.class);
+    private final MongoTemplate mongoTemplate;
+    // Updates the cache, search index and peers once a batch is inserted
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader requestReader;
+    private final int batchSize;
+    private final int maxLineLength;
+    private final Counter createdCounter;
+    private final Counter failedCounter;
+    private final Counter unknownCounter;
+    private final Timer batchTimer;
+
+    public ProductBatchService(MongoTemplate mongoTemplate, ProductService productService, ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry, @Value("${product.batch.size:1000}") int batchSize,
+                               @Value("${product.batch.max-line-length:65536}") int maxLineLength) {
+        this.mongoTemplate = mongoTemplate;
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.requestReader = objectMapper.readerFor(ProductRequest.class);
+        this.batchSize = batchSize;
+        this.maxLineLength = maxLineLength;
+        this.createdCounter = Counter.builder("product.batch.items")
+                .description("Products of batch creation requests by outcome")
+                .tag("outcome", "created")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("product.batch.items")
+                .description("Products of batch creation requests by outcome")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        this.unknownCounter = Counter.builder("product.batch.items")
+                .description("Products of batch creation requests by outcome")
+                .tag("outcome", "unknown")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("product.batch.write")
+                .description("Time to insert one batch of products")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Creates products from a JSON array or NDJSON ({@code ProductRequest} per line) stream.
+     * Products that cannot be read or are invalid are reported and skipped. A JSON array cannot be read past a
+     * syntax error, so the error is reported against the product it was found in and the rest of the array is
+     * ignored; an NDJSON stream continues with the next line.
+     *
+     * @param upload stream to read; not closed
+     * @param format format of the stream
+     * @param results receives the outcomes of each batch, in request order
+     */
+    public void createProducts(InputStream upload, Format format, Consumer<List<ProductBatchItemResult>> results)
+            throws IOException {
+        long startNanos = System.nanoTime();
+        Batch batch = new Batch(results);
+        if (format == Format.NDJSON) {
+            readNdjson(upload, batch);
+        } else {
+            readJsonArray(upload, batch);
+        }
+        batch.write();
+
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        log.info("Created {} of {} products in {} ms ({} failed, {} unknown)", batch.created, batch.read, durationMillis,
+                batch.failed, batch.unknown);
+    }
+
+    private void readNdjson(InputStream upload, Batch batch) throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new InputStreamReader(upload, StandardCharsets.UTF_8), maxLineLength);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (reader.isTruncated()) {
+                batch.fail("Invalid product: line is longer than " + maxLineLength + " characters");
+                continue;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(requestReader.readValue(line));
+            } catch (JsonProcessingException e) {
+                batch.fail("Invalid product: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readJsonArray(InputStream upload, Batch batch) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(upload)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected a JSON array of products");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    batch.fail("Unexpected end of the product array");
+                    return;
+                }
+                // Each product is read as a tree first, so that a product of the wrong shape leaves the parser
+                // at the next one
+                JsonNode product = parser.readValueAsTree();
+                try {
+                    batch.add(requestReader.readValue(product));
+                } catch (JsonProcessingException e) {
+                    batch.fail("Invalid product: " + e.getOriginalMessage());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            batch.fail("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String validate(ProductRequest request) {
+        if (request == null) {
+            return "Product must be a JSON object";
+        }
+        if (request.getName() == null || request.getName().isBlank()) {
+            return "Name is required";
+        }
+        if (request.getPrice() == null || request.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+            return "Price must be zero or more";
+        }
+        return null;
+    }
+
+    /**
+     * Products read since the last write, with the outcomes of the ones that were rejected before it.
+     */
+    private final class Batch {
+        private final Consumer<List<ProductBatchItemResult>> results;
+        private final List<Product> products = new ArrayList<>();
+        private final List<Integer> indexes = new ArrayList<>();
+        private final List<ProductBatchItemResult> rejected = new ArrayList<>();
+        private int read;
+        private long created;
+        private long failed;
+        private long unknown;
+        // Set once an insert failed in the database; later batches are not attempted
+        private boolean databaseFailed;
+
+        private Batch(Consumer<List<ProductBatchItemResult>> results) {
+            this.results = results;
+        }
+
+        void add(ProductRequest request) {
+            String error = validate(request);
+            if (error != null) {
+                fail(error);
+                return;
+            }
+            // Ids are assigned here so that they can be reported without reading the inserted products back
+            products.add(Product.builder()
+                    .id(new ObjectId().toHexString())
+                    .name(request.getName())
+                    .description(request.getDescription())
+                    .price(request.getPrice())
+                    .build());
+            indexes.add(read);
+            next();
+        }
+
+        void fail(String error) {
+            rejected.add(ProductBatchItemResult.failed(read, error));
+            next();
+        }
+
+        private void next() {
+            read++;
+            if (read % PROGRESS_INTERVAL == 0) {
+                log.info("Product batch progress: {} products read, {} created, {} failed", read, created, failed);
+            }
+            if (products.size() + rejected.size() >= batchSize) {
+                write();
+            }
+        }
+
+        void write() {
+            if (products.isEmpty() && rejected.isEmpty()) {
+                return;
+            }
+            InsertOutcome insertOutcome;
+            if (products.isEmpty()) {
+                insertOutcome = InsertOutcome.CONFIRMED;
+            } else if (databaseFailed) {
+                insertOutcome = InsertOutcome.notAttempted(products.size());
+            } else {
+                insertOutcome = batchTimer.record(this::insert);
+            }
+
+            List<ProductBatchItemResult> outcomes = new ArrayList<>(rejected);
+            List<Product> inserted = new ArrayList<>(products.size());
+            int unconfirmed = 0;
+            for (int i = 0; i < products.size(); i++) {
+                String error = insertOutcome.errors().get(i);
+                if (error != null) {
+                    outcomes.add(ProductBatchItemResult.failed(indexes.get(i), error));
+                } else if (insertOutcome.unconfirmed()) {
+                    outcomes.add(ProductBatchItemResult.unknown(indexes.get(i), products.get(i).getId(), UNCONFIRMED));
+                    unconfirmed++;
+                } else {
+                    inserted.add(products.get(i));
+                    outcomes.add(ProductBatchItemResult.created(indexes.get(i), products.get(i).getId()));
+                }
+            }
+            outcomes.sort(Comparator.comparingInt(ProductBatchItemResult::index));
+            // Products of unconfirmed inserts are left to the next search index rebuild
+            productService.productsCreated(inserted);
+
+            int failedCount = outcomes.size() - inserted.size() - unconfirmed;
+            created += inserted.size();
+            failed += failedCount;
+            unknown += unconfirmed;
+            createdCounter.increment(inserted.size());
+            failedCounter.increment(failedCount);
+            unknownCounter.increment(unconfirmed);
+            products.clear();
+            indexes.clear();
+            rejected.clear();
+            results.accept(outcomes);
+        }
+
+        private InsertOutcome insert() {
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)
+                        .insert(products)
+                        .execute();
+                return InsertOutcome.CONFIRMED;
+            } catch (BulkOperationException e) {
+                // Unordered: the failed inserts are reported by position and the rest of the batch went through,
+                // unless the write concern was not satisfied, in which case they may still be rolled back
+                Map<Integer, String> errors = new HashMap<>();
+                e.getErrors().forEach(error -> errors.put(error.getIndex(), error.getMessage()));
+                boolean writeConcernFailed = e.getErrors().isEmpty()
+                        || e.getCause() instanceof MongoBulkWriteException bulkWriteException
+                        && bulkWriteException.getWriteConcernError() != null;
+                if (writeConcernFailed) {
+                    log.warn("Bulk insert of {} products was not confirmed", products.size(), e);
+                }
+                return new InsertOutcome(errors, writeConcernFailed);
+            } catch (DataAccessException e) {
+                // Timeouts and connection failures leave it open which products were inserted
+                log.warn("Bulk insert of {} products failed, not inserting the rest of the upload", products.size(), e);
+                databaseFailed = true;
+                return new InsertOutcome(Map.of(), true);
+            }
+        }
+    }
+
+    /**
+     * Result of a bulk insert.
+     *
+     * @param errors      why products were not inserted, by position in the batch
+     * @param unconfirmed whether the other products may not have been inserted either
+     */
+    private record InsertOutcome(Map<Integer, String> errors, boolean unconfirmed) {
+        static final InsertOutcome CONFIRMED = new InsertOutcome(Map.of(), false);
+
+        static InsertOutcome notAttempted(int size) {
+            Map<Integer, String> errors = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                errors.put(i, NOT_ATTEMPTED);
+            }
+            return new InsertOutcome(errors, false);
+        }
+    }
+}
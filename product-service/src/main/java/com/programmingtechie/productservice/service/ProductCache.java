@@ -0,0 +1,138 @@
+package com.programmingtechie.productservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.programmingtechie.productservice.dto.ProductPage;
+import com.programmingtechie.productservice.dto.ProductResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process read-through cache of products by id and of catalog pages.
+ * Entries are evicted by size and expire after a TTL; pages are weighed by the number of products they hold,
+ * so a few large pages cannot take as much memory as many small ones. Writes update the product entry and drop the cached
+ * pages, since a new product can change the content of a page; peer instances are invalidated through
+ * {@link ProductChangeBroadcaster}.
+ * Hits, misses, evictions and the hit ratio of both caches are exported, together with the time spent
+ * loading entries from MongoDB.
+ */
+@Component
+public class ProductCache {
+
+    private final Cache<String, ProductResponse> products;
+    private final Cache<PageKey, ProductPage> pages;
+    private final Timer productLoadTimer;
+    private final Timer pageLoadTimer;
+
+    public ProductCache(MeterRegistry meterRegistry,
+                        @Value("${product.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${product.cache.page-maximum-products:50000}") long pageMaximumProducts,
+                        @Value("${product.cache.ttl:10m}") Duration ttl) {
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(pageMaximumProducts)
+                // Empty pages still take an entry
+                .weigher((PageKey key, ProductPage page) -> Math.max(1, page.products().size()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.productLoadTimer = loadTimer(meterRegistry, "products");
+        this.pageLoadTimer = loadTimer(meterRegistry, "pages");
+        bindMetrics(meterRegistry, products, "products");
+        bindMetrics(meterRegistry, pages, "pages");
+    }
+
+    /**
+     * Returns the cached product, loading it on a miss. Products that are not found are not cached.
+     *
+     * @param id product id
+     * @param loader loads the product from the database, returning null if it does not exist
+     * @return the product, or null if it does not exist
+     */
+    public ProductResponse getProduct(String id, Function<String, ProductResponse> loader) {
+        // Concurrent misses on the same id wait for a single load
+        return products.get(id, key -> productLoadTimer.record(() -> loader.apply(key)));
+    }
+
+    /**
+     * Returns the cached products, loading all the missing ones with a single call.
+     *
+     * @param ids product ids
+     * @param loader loads the given products from the database; products that do not exist are left out
+     * @return the products found, by id
+     */
+    public Map<String, ProductResponse> getProducts(List<String> ids,
+                                                    Function<List<String>, Map<String, ProductResponse>> loader) {
+        return products.getAll(ids, missing -> productLoadTimer.record(() -> loader.apply(List.copyOf(missing))));
+    }
+
+    /**
+     * Returns the cached catalog page, loading it on a miss.
+     *
+     * @param after cursor of the page, null for the first page
+     * @param limit page size
+     * @param fields properties the page holds, empty for all of them
+     * @param loader loads the page from the database
+     * @return the page
+     */
+    public ProductPage getPage(String after, int limit, Set<String> fields, Supplier<ProductPage> loader) {
+        return pages.get(new PageKey(after, limit, fields), key -> pageLoadTimer.record(loader));
+    }
+
+    /**
+     * Writes a saved product through to the cache and drops the cached pages.
+     */
+    public void put(ProductResponse product) {
+        products.put(product.getId(), product);
+        pages.invalidateAll();
+    }
+
+    /**
+     * Drops products changed elsewhere, together with the cached pages.
+     */
+    public void invalidate(Collection<String> ids) {
+        products.invalidateAll(ids);
+        pages.invalidateAll();
+    }
+
+    /**
+     * Drops the cached pages, e.g. after products were inserted in bulk without going through the cache.
+     */
+    public void invalidatePages() {
+        pages.invalidateAll();
+    }
+
+    private static Timer loadTimer(MeterRegistry meterRegistry, String cache) {
+        return Timer.builder("product.cache.load")
+                .description("Time spent loading cache misses from MongoDB")
+                .tag("cache", cache)
+                .register(meterRegistry);
+    }
+
+    private static void bindMetrics(MeterRegistry meterRegistry, Cache<?, ?> cache, String name) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        Gauge.builder("product.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of lookups answered from the cache")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    private record PageKey(String after, int limit, Set<String> fields) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.programmingtechie.productservice.service;
+
+import com.programmingtechie.productservice.event.ProductChangedEvent;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tells peer product-service instances to drop their cached copies of products that were written here.
+ * Delivery is best effort: a missed broadcast leaves a peer serving the old entry until its cache TTL.
+ */
+@Component
+public class ProductChangeBroadcaster {
+
+    public static final String TOPIC = "productChangeTopic";
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ProductChangeBroadcaster.class);
+    private final KafkaTemplate<String, ProductChangedEvent> kafkaTemplate;
+    // Identifies this instance's own broadcasts, which it does not need to act on
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public ProductChangeBroadcaster(KafkaTemplate<String, ProductChangedEvent> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    public void broadcast(List<String> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        kafkaTemplate.send(TOPIC, productIds.get(0), new ProductChangedEvent(productIds, instanceId))
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.warn("Could not broadcast change of products {}", productIds, e);
+                    }
+                });
+    }
+
+    public boolean isOwn(ProductChangedEvent event) {
+        return instanceId.equals(event.getOrigin());
+    }
+}
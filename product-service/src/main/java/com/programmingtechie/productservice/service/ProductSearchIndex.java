@@ -0,0 +1,645 @@
+package com.programmingtechie.productservice.service;
+
+import com.programmingtechie.productservice.dto.ProductResponse;
+import com.programmingtechie.productservice.model.Product;
+import com.programmingtechie.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory full-text index over product names and descriptions.
+ * Terms live in a sorted map from term to a posting list of (document, weighted term frequency) pairs held in
+ * primitive arrays. Searches rank products with BM25, counting a term in the name {@value #NAME_BOOST} times,
+ * and skip walking the postings of terms that can no longer change the top results. Suggestions complete a
+ * prefix to its most common terms, kept up to date for short prefixes and otherwise taken from the range of the
+ * sorted term map that starts with it.
+ * The index is built from MongoDB once the application is ready and products are added as they are created,
+ * here or (through their change events) on other instances. Memory is bounded by indexing at most
+ * product.search.max-description-terms words of each description and at most product.search.max-terms
+ * distinct terms, and by leaving out products once the estimated size of the index reaches
+ * product.search.max-memory.
+ */
+@Component
+public class ProductSearchIndex {
+
+    static final float NAME_BOOST = 3f;
+    // BM25 term frequency saturation and document length normalization
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MAX_TERM_LENGTH = 64;
+    // Memory estimate: TreeMap entry, String with its byte[] and the posting list object
+    private static final int TERM_OVERHEAD_BYTES = 40 + 40 + 32;
+    private static final int POSTING_BYTES = Integer.BYTES + Float.BYTES;
+    // Memory estimate: HashMap entry with the boxed document number, list slot and id String
+    private static final int DOCUMENT_OVERHEAD_BYTES = 32 + 16 + 4 + 40;
+    // Prefixes of up to this length keep their most common terms for suggestions
+    private static final int SUGGESTION_PREFIX_LENGTH = 3;
+    private static final int SUGGESTIONS_PER_PREFIX = ProductService.MAX_SUGGEST_LIMIT;
+    // Memory estimate: HashMap entry, prefix String and the suggestion list with its array
+    private static final int SUGGESTIONS_BYTES = 32 + 48 + 32 + SUGGESTIONS_PER_PREFIX * 4;
+    // Allows for float rounding when comparing sums of score bounds with scores
+    private static final double ROUNDING_MARGIN = 1.0001;
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ProductSearchIndex.class);
+    private final ProductRepository productRepository;
+    private final int maxDescriptionTerms;
+    private final int maxTerms;
+    private final long maxBytes;
+    private final Counter rejectedCounter;
+    private final Timer searchTimer;
+    private final Timer suggestTimer;
+    private volatile Index index;
+    // Products created while the index is rebuilt, added to the rebuilt index as well; guarded by this
+    private List<ProductResponse> addedDuringRebuild;
+
+    public ProductSearchIndex(ProductRepository productRepository, MeterRegistry meterRegistry,
+                              @Value("${product.search.max-description-terms:200}") int maxDescriptionTerms,
+                              @Value("${product.search.max-terms:1000000}") int maxTerms,
+                              @Value("${product.search.max-memory:256MB}") DataSize maxMemory) {
+        this.productRepository = productRepository;
+        this.maxDescriptionTerms = maxDescriptionTerms;
+        this.maxTerms = maxTerms;
+        this.maxBytes = maxMemory.toBytes();
+        this.index = new Index();
+        this.rejectedCounter = Counter.builder("product.search.rejected")
+                .description("Products left out of the search index because it is over its memory budget")
+                .register(meterRegistry);
+        this.searchTimer = queryTimer(meterRegistry, "search");
+        this.suggestTimer = queryTimer(meterRegistry, "suggest");
+        Gauge.builder("product.search.documents", this, search -> search.index.documentCount())
+                .description("Products held in the search index")
+                .register(meterRegistry);
+        Gauge.builder("product.search.terms", this, search -> search.index.termCount())
+                .description("Distinct terms held in the search index")
+                .register(meterRegistry);
+        Gauge.builder("product.search.memory", this, search -> search.index.estimatedBytes)
+                .description("Estimated heap used by the search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rebuilds the index from the database and swaps it in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            addedDuringRebuild = new ArrayList<>();
+        }
+        Index rebuilt = new Index();
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+            products.forEach(product -> rebuilt.add(product.getId(), product.getName(), product.getDescription()));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                addedDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            addedDuringRebuild.forEach(product -> rebuilt.add(product.getId(), product.getName(), product.getDescription()));
+            addedDuringRebuild = null;
+            index = rebuilt;
+        }
+        log.info("Indexed {} products ({} terms) for search", rebuilt.documentCount(), rebuilt.termCount());
+    }
+
+    /**
+     * Adds a product to the index. Products that are already indexed are left as they are.
+     */
+    public synchronized void add(ProductResponse product) {
+        index.add(product.getId(), product.getName(), product.getDescription());
+        if (addedDuringRebuild != null) {
+            addedDuringRebuild.add(product);
+        }
+    }
+
+    /**
+     * Finds the products matching any of the words of a query, best matches first.
+     *
+     * @param query words to search for
+     * @param limit maximum number of results
+     * @return ids of the matching products
+     */
+    public List<String> search(String query, int limit) {
+        List<String> terms = List.copyOf(new LinkedHashSet<>(tokenize(query, Integer.MAX_VALUE)));
+        return searchTimer.record(() -> index.search(terms, limit));
+    }
+
+    /**
+     * Completes a prefix to the indexed terms that start with it, most common first.
+     *
+     * @param prefix start of a word
+     * @param limit maximum number of suggestions
+     * @return matching terms
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String normalized = prefix == null ? "" : prefix.strip().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return suggestTimer.record(() -> index.suggest(normalized, limit));
+    }
+
+    /**
+     * Splits text into lower case words of letters and digits, dropping single characters.
+     */
+    static List<String> tokenize(String text, int maxTokens) {
+        if (text == null) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        String lowerCase = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lowerCase.length() && tokens.size() < maxTokens; i++) {
+            boolean wordChar = i < lowerCase.length() && Character.isLetterOrDigit(lowerCase.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start > 1) {
+                    tokens.add(lowerCase.substring(start, Math.min(i, start + MAX_TERM_LENGTH)));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // BM25 weight of a term occurring with the given frequency in a document of the given length
+    private static float impact(float frequency, float documentLength, float averageLength) {
+        return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * documentLength / averageLength));
+    }
+
+    private static Timer queryTimer(MeterRegistry meterRegistry, String type) {
+        return Timer.builder("product.search.queries")
+                .description("Queries answered from the in-memory search index")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private final class Index {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final NavigableMap<String, Postings> terms = new TreeMap<>();
+        // Most common terms of each prefix of up to SUGGESTION_PREFIX_LENGTH characters
+        private final Map<String, Suggestions> suggestions = new HashMap<>();
+        // Document number to product id, and back
+        private final List<String> productIds = new ArrayList<>();
+        private final Map<String, Integer> documents = new HashMap<>();
+        private float[] documentLengths = new float[16];
+        private double totalLength;
+        private volatile long estimatedBytes;
+        private boolean overBudget;
+
+        void add(String productId, String name, String description) {
+            lock.writeLock().lock();
+            try {
+                if (productId == null || documents.containsKey(productId)) {
+                    return;
+                }
+                Map<String, Float> frequencies = new LinkedHashMap<>();
+                for (String term : tokenize(name, Integer.MAX_VALUE)) {
+                    frequencies.merge(term, NAME_BOOST, Float::sum);
+                }
+                for (String term : tokenize(description, maxDescriptionTerms)) {
+                    frequencies.merge(term, 1f, Float::sum);
+                }
+
+                // Work out what the product adds to the index before changing it
+                float length = 0;
+                long bytes = DOCUMENT_OVERHEAD_BYTES + productId.length();
+                int newTerms = 0;
+                for (Iterator<Map.Entry<String, Float>> iterator = frequencies.entrySet().iterator(); iterator.hasNext(); ) {
+                    Map.Entry<String, Float> frequency = iterator.next();
+                    Postings postings = terms.get(frequency.getKey());
+                    if (postings != null) {
+                        bytes += postings.growthBytes();
+                    } else if (terms.size() + newTerms < maxTerms) {
+                        newTerms++;
+                        bytes += TERM_OVERHEAD_BYTES + frequency.getKey().length()
+                                + Postings.INITIAL_CAPACITY * POSTING_BYTES;
+                    } else {
+                        // Over the term budget: new terms are no longer indexed, known ones still are
+                        iterator.remove();
+                        continue;
+                    }
+                    length += frequency.getValue();
+                }
+                if (productIds.size() == documentLengths.length) {
+                    bytes += (long) documentLengths.length * Float.BYTES;
+                }
+                if (estimatedBytes + bytes > maxBytes) {
+                    // Over the memory budget: the product is left out rather than indexed in part
+                    rejectedCounter.increment();
+                    if (!overBudget) {
+                        overBudget = true;
+                        log.warn("Search index is over its memory budget of {} bytes; new products are not indexed",
+                                maxBytes);
+                    }
+                    return;
+                }
+
+                int document = productIds.size();
+                productIds.add(productId);
+                documents.put(productId, document);
+                for (Map.Entry<String, Float> frequency : frequencies.entrySet()) {
+                    Postings postings = terms.computeIfAbsent(frequency.getKey(), Postings::new);
+                    postings.add(document, frequency.getValue(), length);
+                    bytes += offerSuggestion(postings);
+                }
+                if (document == documentLengths.length) {
+                    documentLengths = Arrays.copyOf(documentLengths, document * 2);
+                }
+                documentLengths[document] = length;
+                totalLength += length;
+                estimatedBytes += bytes;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<String> search(List<String> queryTerms, int limit) {
+            lock.readLock().lock();
+            try {
+                int documentCount = productIds.size();
+                if (documentCount == 0 || queryTerms.isEmpty() || limit <= 0) {
+                    return List.of();
+                }
+                float averageLength = (float) (totalLength / documentCount);
+                List<QueryTerm> matched = new ArrayList<>();
+                for (String term : queryTerms) {
+                    Postings postings = terms.get(term);
+                    if (postings != null) {
+                        float idf = (float) Math.log(1 + (documentCount - postings.size + 0.5) / (postings.size + 0.5));
+                        float maxScore = idf * impact(postings.maxFrequency, postings.minDocumentLength, averageLength);
+                        matched.add(new QueryTerm(postings, idf, maxScore));
+                    }
+                }
+
+                // MaxScore: terms that can add the most go first. Once the documents found so far fill the results
+                // and the remaining terms together cannot lift a document past the last of them, the remaining
+                // terms are only looked up for the documents within reach instead of walking their postings
+                matched.sort(Comparator.comparingDouble(QueryTerm::maxScore).reversed());
+                double[] remainingMaxScores = new double[matched.size() + 1];
+                for (int i = matched.size() - 1; i >= 0; i--) {
+                    remainingMaxScores[i] = remainingMaxScores[i + 1] + matched.get(i).maxScore() * ROUNDING_MARGIN;
+                }
+                ScoreTable scores = new ScoreTable();
+                int next = 0;
+                for (; next < matched.size(); next++) {
+                    if (next > 0) {
+                        TopDocuments best = scores.top(limit);
+                        if (best.isFull() && remainingMaxScores[next] < best.minScore()) {
+                            scores = scores.atLeast((float) (best.minScore() - remainingMaxScores[next]));
+                            break;
+                        }
+                    }
+                    QueryTerm term = matched.get(next);
+                    Postings postings = term.postings();
+                    for (int i = 0; i < postings.size; i++) {
+                        int document = postings.documents[i];
+                        scores.add(document, term.idf() * impact(postings.frequencies[i], documentLengths[document], averageLength));
+                    }
+                }
+                for (; next < matched.size(); next++) {
+                    QueryTerm term = matched.get(next);
+                    Postings postings = term.postings();
+                    for (int slot = 0; slot < scores.keys.length; slot++) {
+                        if (scores.keys[slot] != 0) {
+                            int document = scores.keys[slot] - 1;
+                            // Postings are in document order
+                            int i = Arrays.binarySearch(postings.documents, 0, postings.size, document);
+                            if (i >= 0) {
+                                scores.values[slot] += term.idf() * impact(postings.frequencies[i], documentLengths[document], averageLength);
+                            }
+                        }
+                    }
+                }
+
+                int[] best = scores.top(limit).documentsBestFirst();
+                String[] results = new String[best.length];
+                for (int i = 0; i < best.length; i++) {
+                    results[i] = productIds.get(best[i]);
+                }
+                return List.of(results);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<String> suggest(String prefix, int limit) {
+            lock.readLock().lock();
+            try {
+                if (prefix.length() <= SUGGESTION_PREFIX_LENGTH && limit <= SUGGESTIONS_PER_PREFIX) {
+                    // Short prefixes span much of the term map, so their most common terms are kept as terms are added
+                    Suggestions top = suggestions.get(prefix);
+                    return top == null ? List.of() : top.terms(limit);
+                }
+                // Terms starting with the prefix are a contiguous range of the sorted term map
+                Comparator<Map.Entry<String, Postings>> ranking = Comparator
+                        .<Map.Entry<String, Postings>>comparingInt(entry -> entry.getValue().size)
+                        .thenComparing(Map.Entry.<String, Postings>comparingByKey().reversed());
+                PriorityQueue<Map.Entry<String, Postings>> best = new PriorityQueue<>(ranking);
+                for (Map.Entry<String, Postings> term : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+                    best.add(term);
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+                String[] results = new String[best.size()];
+                for (int i = results.length - 1; i >= 0; i--) {
+                    results[i] = best.poll().getKey();
+                }
+                return List.of(results);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int documentCount() {
+            lock.readLock().lock();
+            try {
+                return productIds.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int termCount() {
+            lock.readLock().lock();
+            try {
+                return terms.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Returns the bytes taken by suggestion lists created for new prefixes
+        private long offerSuggestion(Postings postings) {
+            long bytes = 0;
+            for (int length = 1; length <= Math.min(SUGGESTION_PREFIX_LENGTH, postings.term.length()); length++) {
+                String prefix = postings.term.substring(0, length);
+                Suggestions top = suggestions.get(prefix);
+                if (top == null) {
+                    top = new Suggestions();
+                    suggestions.put(prefix, top);
+                    bytes += SUGGESTIONS_BYTES;
+                }
+                top.offer(postings);
+            }
+            return bytes;
+        }
+    }
+
+    private record QueryTerm(Postings postings, float idf, float maxScore) {
+    }
+
+    /**
+     * Documents containing a term, in the order they were indexed, with the weighted frequency of the term.
+     */
+    private static final class Postings {
+        private static final int INITIAL_CAPACITY = 2;
+        private final String term;
+        private int[] documents = new int[INITIAL_CAPACITY];
+        private float[] frequencies = new float[INITIAL_CAPACITY];
+        private int size;
+        // Bounds on the score of the term in any of its documents
+        private float maxFrequency;
+        private float minDocumentLength = Float.MAX_VALUE;
+
+        private Postings(String term) {
+            this.term = term;
+        }
+
+        private void add(int document, float frequency, float documentLength) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            documents[size] = document;
+            frequencies[size] = frequency;
+            size++;
+            maxFrequency = Math.max(maxFrequency, frequency);
+            minDocumentLength = Math.min(minDocumentLength, documentLength);
+        }
+
+        // Bytes the arrays grow by when the next document is added
+        private long growthBytes() {
+            return size == documents.length ? (long) size * POSTING_BYTES : 0;
+        }
+    }
+
+    /**
+     * The most common terms sharing a prefix, most common first and then alphabetically.
+     * Document counts only grow and every posting added is offered, so a term that dropped out comes back as soon as
+     * it overtakes the last one.
+     */
+    private static final class Suggestions {
+        private final Postings[] terms = new Postings[SUGGESTIONS_PER_PREFIX];
+        private int size;
+
+        private void offer(Postings postings) {
+            Postings last = size == 0 ? null : terms[size - 1];
+            if (size == terms.length && postings != last && !ranksAbove(postings, last)) {
+                return;
+            }
+            int i = size - 1;
+            while (i >= 0 && terms[i] != postings) {
+                i--;
+            }
+            if (i < 0) {
+                i = size < terms.length ? size++ : size - 1;
+                terms[i] = postings;
+            }
+            for (; i > 0 && ranksAbove(terms[i], terms[i - 1]); i--) {
+                Postings above = terms[i - 1];
+                terms[i - 1] = terms[i];
+                terms[i] = above;
+            }
+        }
+
+        private List<String> terms(int limit) {
+            String[] results = new String[Math.min(limit, size)];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = terms[i].term;
+            }
+            return List.of(results);
+        }
+
+        private static boolean ranksAbove(Postings postings, Postings other) {
+            return postings.size > other.size || postings.size == other.size && postings.term.compareTo(other.term) < 0;
+        }
+    }
+
+    /**
+     * Scores by document number in an open addressing hash table, so that adding up scores does not box.
+     */
+    private static final class ScoreTable {
+        // Document number + 1, 0 for a free slot
+        private int[] keys = new int[16];
+        private float[] values = new float[16];
+        private int size;
+
+        private void add(int document, float score) {
+            int key = document + 1;
+            int slot = find(key);
+            if (keys[slot] == 0) {
+                if (size * 2 >= keys.length) {
+                    grow();
+                    slot = find(key);
+                }
+                keys[slot] = key;
+                size++;
+            }
+            values[slot] += score;
+        }
+
+        // Documents scoring at least minScore
+        private ScoreTable atLeast(float minScore) {
+            ScoreTable kept = new ScoreTable();
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != 0 && values[slot] >= minScore) {
+                    kept.add(keys[slot] - 1, values[slot]);
+                }
+            }
+            return kept;
+        }
+
+        private TopDocuments top(int limit) {
+            TopDocuments top = new TopDocuments(limit);
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (keys[slot] != 0) {
+                    top.offer(keys[slot] - 1, values[slot]);
+                }
+            }
+            return top;
+        }
+
+        private int find(int key) {
+            int mask = keys.length - 1;
+            int hash = key * 0x9E3779B9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            float[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new float[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = find(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * The best scoring documents offered, in a min-heap of at most limit entries; ties go to older products.
+     */
+    private static final class TopDocuments {
+        private final int[] documents;
+        private final float[] scores;
+        private int size;
+
+        private TopDocuments(int limit) {
+            this.documents = new int[limit];
+            this.scores = new float[limit];
+        }
+
+        private boolean isFull() {
+            return size == documents.length;
+        }
+
+        private float minScore() {
+            return scores[0];
+        }
+
+        private void offer(int document, float score) {
+            if (size < documents.length) {
+                set(size, document, score);
+                siftUp(size++);
+            } else if (ranksBelow(0, document, score)) {
+                set(0, document, score);
+                siftDown(0);
+            }
+        }
+
+        private int[] documentsBestFirst() {
+            int[] results = new int[size];
+            for (int i = results.length - 1; i >= 0; i--) {
+                results[i] = documents[0];
+                size--;
+                set(0, documents[size], scores[size]);
+                siftDown(0);
+            }
+            return results;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0 && ranksBelow(i, documents[(i - 1) / 2], scores[(i - 1) / 2])) {
+                swap(i, (i - 1) / 2);
+                i = (i - 1) / 2;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && ranksBelow(child + 1, documents[child], scores[child])) {
+                    child++;
+                }
+                if (!ranksBelow(child, documents[i], scores[i])) {
+                    return;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        // Whether the entry at i ranks below the given document
+        private boolean ranksBelow(int i, int document, float score) {
+            return scores[i] < score || scores[i] == score && documents[i] > document;
+        }
+
+        private void set(int i, int document, float score) {
+            documents[i] = document;
+            scores[i] = score;
+        }
+
+        private void swap(int i, int j) {
+            int document = documents[i];
+            float score = scores[i];
+            set(i, documents[j], scores[j]);
+            set(j, document, score);
+        }
+    }
+}
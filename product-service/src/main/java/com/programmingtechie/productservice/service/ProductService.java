@@ -1,13 +1,27 @@
 package com.programmingtechie.productservice.service;
 
+import com.programmingtechie.productservice.dto.ProductPage;
 import com.programmingtechie.productservice.dto.ProductRequest;
 import com.programmingtechie.productservice.dto.ProductResponse;
 import com.programmingtechie.productservice.model.Product;
 import com.programmingtechie.productservice.repository.ProductRepository;
 
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service layer for product management operations.
@@ -17,12 +31,33 @@ import java.util.List;
 @Service // Marks this class as a Spring service component
 public class ProductService {
 
+    // Page size used when the client does not ask for one, and the largest page a client can ask for
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+    // Default and largest number of search results and of suggestions
+    static final int DEFAULT_SEARCH_LIMIT = 20;
+    static final int MAX_SEARCH_LIMIT = 100;
+    static final int DEFAULT_SUGGEST_LIMIT = 10;
+    static final int MAX_SUGGEST_LIMIT = 50;
+    // Properties a client can restrict a read to with fields=; the id is always returned, as it is the cursor
+    static final Set<String> FIELDS = Set.of("id", "name", "description", "price");
+
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(ProductService.class);
     // Repository for database operations on Product entities
     private final ProductRepository productRepository;
+    // Read-through cache of products and catalog pages
+    private final ProductCache productCache;
+    // Invalidates the caches of peer instances after a write
+    private final ProductChangeBroadcaster productChangeBroadcaster;
+    // In-memory full-text index for search and suggestions
+    private final ProductSearchIndex productSearchIndex;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ProductCache productCache,
+                          ProductChangeBroadcaster productChangeBroadcaster, ProductSearchIndex productSearchIndex) {
         this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.productChangeBroadcaster = productChangeBroadcaster;
+        this.productSearchIndex = productSearchIndex;
     }
 
     /**
@@ -40,23 +75,214 @@ public class ProductService {
                 .build();
 
         // Persist product to database via JPA repository
-        productRepository.save(product);
+        Product saved = productRepository.save(product);
         // Log successful product creation with generated ID
-        log.info("Product {} is saved", product.getId());
+        log.info("Product {} is saved", saved.getId());
+
+        // Write the new product through to this instance's cache and search index and have peers update theirs
+        ProductResponse response = mapToProductResponse(saved);
+        productCache.put(response);
+        productSearchIndex.add(response);
+        productChangeBroadcaster.broadcast(List.of(saved.getId()));
     }
 
     /**
-     * Retrieves all products from the database.
-     * Transforms Product entities to ProductResponse DTOs for client consumption.
-     * 
-     * @return List of ProductResponse DTOs containing all product information
+     * Makes products inserted in bulk visible: drops the cached pages, indexes the products for search and has
+     * peers do the same with a single event. The products themselves are left to be cached on first read.
+     *
+     * @param products products that were inserted
+     */
+    void productsCreated(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        productCache.invalidatePages();
+        products.forEach(product -> productSearchIndex.add(mapToProductResponse(product)));
+        productChangeBroadcaster.broadcast(products.stream().map(Product::getId).toList());
+    }
+
+    /**
+     * Applies product changes made by another instance: drops the cached copies and indexes the products for
+     * search, reading them with a single query.
+     *
+     * @param ids ids of the changed products
+     */
+    public void refreshProducts(List<String> ids) {
+        productCache.invalidate(ids);
+        productRepository.findAllById(ids).forEach(product -> productSearchIndex.add(mapToProductResponse(product)));
+    }
+
+    /**
+     * Retrieves a product by id, from the cache when it holds it.
+     *
+     * @param id product id
+     * @param fields comma-separated properties to return, or null for all of them
+     * @return ProductResponse DTO of the product
+     * @throws ResponseStatusException 404 if there is no product with this id, 400 if a field is unknown
      */
-    public List<ProductResponse> getAllProducts() {
-        // Fetch all products from database
-        List<Product> products = productRepository.findAll();
+    public ProductResponse getProduct(String id, String fields) {
+        Set<String> projection = parseFields(fields);
+        ProductResponse product = productCache.getProduct(id, key -> productRepository.findById(key)
+                .map(this::mapToProductResponse)
+                .orElse(null));
+        if (product == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product " + id + " not found");
+        }
+        // Whole products are cached, so that one entry serves every projection
+        return project(product, projection);
+    }
+
+    /**
+     * Retrieves one page of the catalog, using the product id as the cursor, from the cache when it holds it.
+     * Only one page of products is read and held in memory at a time; the page is read with one extra
+     * product to find out whether another page follows.
+     *
+     * @param after id of the last product of the previous page, or null for the first page
+     * @param limit number of products per page, {@value #DEFAULT_PAGE_SIZE} if null
+     * @param fields comma-separated properties to return, or null for all of them; the others are not read
+     * @return the page of products and the cursor of the next page
+     * @throws ResponseStatusException 400 if the cursor is not a product id, the limit is out of range or a
+     *                                 field is unknown
+     */
+    public ProductPage getProducts(String after, Integer limit, String fields) {
+        int pageSize = resolveLimit(limit, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+        validateCursor(after);
+        Set<String> projection = parseFields(fields);
+
+        // Pages are cached by cursor, size and projection; creating a product drops them
+        return productCache.getPage(after, pageSize, projection, () -> loadPage(after, pageSize, projection));
+    }
+
+    private ProductPage loadPage(String after, int pageSize, Set<String> projection) {
+        List<Product> products;
+        if (!projection.isEmpty()) {
+            products = productRepository.findPage(after, pageSize + 1, projection);
+        } else {
+            Pageable pageable = PageRequest.of(0, pageSize + 1, Sort.by("id"));
+            products = after == null
+                    ? productRepository.findAllBy(pageable)
+                    : productRepository.findByIdGreaterThan(after, pageable);
+        }
+
+        boolean hasNext = products.size() > pageSize;
+        List<ProductResponse> page = products.stream()
+                .limit(pageSize)
+                .map(this::mapToProductResponse)
+                .toList();
+        return new ProductPage(page, hasNext ? page.get(pageSize - 1).getId() : null);
+    }
+
+    /**
+     * Searches product names and descriptions for the words of a query, best matches first.
+     * The matches come from the in-memory search index and the products themselves from the cache, which
+     * loads the ones it misses with a single query.
+     *
+     * @param query words to search for
+     * @param limit maximum number of results, {@value #DEFAULT_SEARCH_LIMIT} if null
+     * @param fields comma-separated properties to return, or null for all of them
+     * @return ProductResponse DTOs of the matching products
+     * @throws ResponseStatusException 400 if the limit is out of range or a field is unknown
+     */
+    public List<ProductResponse> searchProducts(String query, Integer limit, String fields) {
+        Set<String> projection = parseFields(fields);
+        List<String> ids = productSearchIndex.search(query, resolveLimit(limit, DEFAULT_SEARCH_LIMIT, MAX_SEARCH_LIMIT));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, ProductResponse> products = productCache.getProducts(ids, missing -> {
+            Map<String, ProductResponse> loaded = new HashMap<>();
+            productRepository.findAllById(missing).forEach(product -> loaded.put(product.getId(), mapToProductResponse(product)));
+            return loaded;
+        });
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(product -> project(product, projection))
+                .toList();
+    }
+
+    /**
+     * Completes the start of a word to words used in product names and descriptions, most common first.
+     *
+     * @param prefix start of a word
+     * @param limit maximum number of suggestions, {@value #DEFAULT_SUGGEST_LIMIT} if null
+     * @return suggested words
+     * @throws ResponseStatusException 400 if the limit is out of range
+     */
+    public List<String> suggest(String prefix, Integer limit) {
+        return productSearchIndex.suggest(prefix, resolveLimit(limit, DEFAULT_SUGGEST_LIMIT, MAX_SUGGEST_LIMIT));
+    }
+
+    /**
+     * Parses a fields= parameter into the properties to read.
+     *
+     * @return the requested properties, or an empty set for all of them
+     * @throws ResponseStatusException 400 if a property is unknown
+     */
+    static Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return Set.of();
+        }
+        Set<String> projection = Arrays.stream(fields.split(","))
+                .map(String::strip)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        for (String field : projection) {
+            if (!FIELDS.contains(field)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown field: " + field + ", expected some of " + FIELDS);
+            }
+        }
+        return projection.containsAll(FIELDS) ? Set.of() : projection;
+    }
+
+    private static ProductResponse project(ProductResponse product, Set<String> projection) {
+        if (projection.isEmpty()) {
+            return product;
+        }
+        return ProductResponse.builder()
+                .id(product.getId())
+                .name(projection.contains("name") ? product.getName() : null)
+                .description(projection.contains("description") ? product.getDescription() : null)
+                .price(projection.contains("price") ? product.getPrice() : null)
+                .build();
+    }
+
+    private static int resolveLimit(Integer limit, int defaultLimit, int maxLimit) {
+        int resolved = limit == null ? defaultLimit : limit;
+        if (resolved < 1 || resolved > maxLimit) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + maxLimit);
+        }
+        return resolved;
+    }
+
+    /**
+     * Streams the catalog from a database cursor, so that it can be written out with constant memory
+     * whatever its size. The stream must be closed to release the cursor.
+     *
+     * @param after id to resume after, or null to stream the whole catalog
+     * @param fields comma-separated properties to return, or null for all of them; the others are not read
+     * @return products in id order
+     * @throws ResponseStatusException 400 if the cursor is not a product id or a field is unknown
+     */
+    public Stream<ProductResponse> streamProducts(String after, String fields) {
+        validateCursor(after);
+        Set<String> projection = parseFields(fields);
+        Stream<Product> products;
+        if (!projection.isEmpty()) {
+            products = productRepository.streamProjected(after, projection);
+        } else {
+            products = after == null
+                    ? productRepository.streamAllByOrderByIdAsc()
+                    : productRepository.streamByIdGreaterThanOrderByIdAsc(after);
+        }
+        return products.map(this::mapToProductResponse);
+    }
 
-        // Transform entities to response DTOs using stream API and method reference
-        return products.stream().map(this::mapToProductResponse).toList();
+    private void validateCursor(String after) {
+        // Ids are ObjectIds; anything else would silently compare as a different type and match nothing
+        if (after != null && !ObjectId.isValid(after)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + after);
+        }
     }
 
     /**
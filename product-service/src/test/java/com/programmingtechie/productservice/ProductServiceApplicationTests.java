@@ -1,6 +1,7 @@
 package com.programmingtechie.productservice;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.programmingtechie.productservice.dto.ProductPage;
 import com.programmingtechie.productservice.dto.ProductRequest;
 import com.programmingtechie.productservice.dto.ProductResponse;
 import com.programmingtechie.productservice.model.Product;
@@ -106,13 +107,27 @@ class ProductServiceApplicationTests {
         productService.createProduct(createProductRequest("Product 1", "Desc 1", BigDecimal.valueOf(50)));
         productService.createProduct(createProductRequest("Product 2", "Desc 2", BigDecimal.valueOf(75)));
         
-        List<ProductResponse> responses = productService.getAllProducts();
+        List<ProductResponse> responses = productService.getProducts(null, null, null).products();
         
         assertEquals(2, responses.size());
         assertEquals("Product 1", responses.get(0).getName());
         assertEquals("Product 2", responses.get(1).getName());
     }
 
+    @Test
+    void shouldPageThroughProductsWithCursor() throws Exception {
+        productService.createProduct(createProductRequest("Product 1", "Desc 1", BigDecimal.valueOf(50)));
+        productService.createProduct(createProductRequest("Product 2", "Desc 2", BigDecimal.valueOf(75)));
+
+        ProductPage firstPage = productService.getProducts(null, 1, null);
+        assertEquals("Product 1", firstPage.products().get(0).getName());
+        assertNotNull(firstPage.nextCursor());
+
+        ProductPage secondPage = productService.getProducts(firstPage.nextCursor(), 1, null);
+        assertEquals("Product 2", secondPage.products().get(0).getName());
+        assertNull(secondPage.nextCursor());
+    }
+
     @Test
     void shouldHandleInvalidJsonRequest() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.post("/api/product")
@@ -1,21 +1,30 @@
 package com.programmingtechie.productservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.programmingtechie.productservice.dto.ProductBatchItemResult;
+import com.programmingtechie.productservice.dto.ProductPage;
 import com.programmingtechie.productservice.dto.ProductRequest;
 import com.programmingtechie.productservice.dto.ProductResponse;
+import com.programmingtechie.productservice.service.ProductBatchService;
 import com.programmingtechie.productservice.service.ProductService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -28,6 +37,8 @@ class ProductControllerTest {
     private ObjectMapper objectMapper;
     @MockBean
     private ProductService productService;
+    @MockBean
+    private ProductBatchService productBatchService;
 
     @Test
     void shouldCreateProduct() throws Exception {
@@ -41,32 +52,130 @@ class ProductControllerTest {
         verify(productService, times(1)).createProduct(any(ProductRequest.class));
     }
 
+    @Test
+    void shouldCreateProductsInBatch() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<List<ProductBatchItemResult>> results = invocation.getArgument(2);
+            results.accept(List.of(ProductBatchItemResult.created(0, "1"), ProductBatchItemResult.failed(1, "Name is required")));
+            return null;
+        }).when(productBatchService).createProducts(any(), eq(ProductBatchService.Format.NDJSON), any());
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.post("/api/product/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"iPhone 13\",\"price\":999}\n{\"price\":1}\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals("{\"index\":0,\"id\":\"1\"}\n{\"index\":1,\"error\":\"Name is required\"}\n", body);
+    }
+
     @Test
     void shouldGetAllProducts() throws Exception {
         List<ProductResponse> responses = List.of(
             createProductResponse("1", "iPhone 13", "Apple iPhone", BigDecimal.valueOf(999)),
             createProductResponse("2", "Samsung S21", "Samsung Galaxy", BigDecimal.valueOf(799))
         );
-        when(productService.getAllProducts()).thenReturn(responses);
+        when(productService.getProducts(null, null, null)).thenReturn(new ProductPage(responses, null));
         
         mockMvc.perform(MockMvcRequestBuilders.get("/api/product"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].name").value("iPhone 13"))
                 .andExpect(jsonPath("$[1].name").value("Samsung S21"));
         
-        verify(productService, times(1)).getAllProducts();
+        verify(productService, times(1)).getProducts(null, null, null);
     }
 
     @Test
     void shouldReturnEmptyList() throws Exception {
-        when(productService.getAllProducts()).thenReturn(List.of());
+        when(productService.getProducts(null, null, null)).thenReturn(new ProductPage(List.of(), null));
         
         mockMvc.perform(MockMvcRequestBuilders.get("/api/product"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(0));
     }
 
+    @Test
+    void shouldLinkToNextPage() throws Exception {
+        List<ProductResponse> responses = List.of(createProductResponse("1", "iPhone 13", "Apple iPhone", BigDecimal.valueOf(999)));
+        when(productService.getProducts("0", 1, null)).thenReturn(new ProductPage(responses, "1"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/product?after=0&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK, "<http://localhost/api/product?limit=1&after=1>; rel=\"next\""))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void shouldSearchProducts() throws Exception {
+        when(productService.searchProducts("iphone", null, null))
+                .thenReturn(List.of(createProductResponse("1", "iPhone 13", "Apple iPhone", BigDecimal.valueOf(999))));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/product/search").param("q", "iphone"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("iPhone 13"));
+    }
+
+    @Test
+    void shouldSuggestWords() throws Exception {
+        when(productService.suggest("iph", 5)).thenReturn(List.of("iphone"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/product/suggest")
+                        .param("prefix", "iph")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("iphone"));
+    }
+
+    @Test
+    void shouldGetProductById() throws Exception {
+        when(productService.getProduct("1", null))
+                .thenReturn(createProductResponse("1", "iPhone 13", "Apple iPhone", BigDecimal.valueOf(999)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/product/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("1"))
+                .andExpect(jsonPath("$.name").value("iPhone 13"));
+    }
+
+    @Test
+    void shouldReturnOnlyRequestedFields() throws Exception {
+        when(productService.getProducts(null, null, "name,price"))
+                .thenReturn(new ProductPage(List.of(createProductResponse("1", "iPhone 13", null, BigDecimal.valueOf(999))), null));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/product").param("fields", "name,price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("1"))
+                .andExpect(jsonPath("$[0].name").value("iPhone 13"))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+    }
+
+    @Test
+    void shouldStreamProductsAsNdjson() throws Exception {
+        when(productService.streamProducts(null, null)).thenReturn(Stream.of(
+                createProductResponse("1", "iPhone 13", "Apple iPhone", BigDecimal.valueOf(999)),
+                createProductResponse("2", "Samsung S21", "Samsung Galaxy", BigDecimal.valueOf(799))));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/product")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("iPhone 13", objectMapper.readValue(lines[0], ProductResponse.class).getName());
+        assertEquals("Samsung S21", objectMapper.readValue(lines[1], ProductResponse.class).getName());
+        assertTrue(body.endsWith("\n"));
+    }
+
     private ProductRequest createProductRequest(String name, String description, BigDecimal price) {
         ProductRequest request = new ProductRequest();
         request.setName(name);
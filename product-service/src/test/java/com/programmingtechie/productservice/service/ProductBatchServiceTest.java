@@ -0,0 +1,191 @@
+package com.programmingtechie.productservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.WriteConcernError;
+import com.programmingtechie.productservice.dto.ProductBatchItemResult;
+import com.programmingtechie.productservice.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ProductBatchServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BulkOperations bulkOperations = mock(BulkOperations.class, RETURNS_SELF);
+    private final ProductService productService = mock(ProductService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Copies of the products of each bulk insert
+    private final List<List<Product>> inserts = new ArrayList<>();
+    private final List<List<ProductBatchItemResult>> results = new ArrayList<>();
+    private ProductBatchService productBatchService;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenAnswer(invocation -> {
+            inserts.add(List.copyOf(invocation.<List<Product>>getArgument(0)));
+            return bulkOperations;
+        });
+        productBatchService = new ProductBatchService(mongoTemplate, productService, new ObjectMapper(), meterRegistry, 2, 200);
+    }
+
+    @Test
+    void shouldInsertNdjsonInBatchesAndReportEveryProduct() throws IOException {
+        String upload = """
+                {"name":"iPhone 13","description":"Apple iPhone","price":999}
+                {"name":"Galaxy S21","price":"not a price"}
+
+                {"name":"Pixel 6","price":599}
+                {"name":"","price":1}
+                not json
+                {"name":"iPad Air","price":599}
+                """;
+
+        productBatchService.createProducts(stream(upload), ProductBatchService.Format.NDJSON, results::add);
+
+        List<ProductBatchItemResult> outcomes = results.stream().flatMap(List::stream).toList();
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), outcomes.stream().map(ProductBatchItemResult::index).toList());
+        assertNotNull(outcomes.get(0).id());
+        assertNotNull(outcomes.get(1).error());
+        assertNotNull(outcomes.get(2).id());
+        assertEquals("Name is required", outcomes.get(3).error());
+        assertNotNull(outcomes.get(4).error());
+        assertNotNull(outcomes.get(5).id());
+
+        assertEquals(List.of(List.of("iPhone 13"), List.of("Pixel 6"), List.of("iPad Air")),
+                inserts.stream().map(batch -> batch.stream().map(Product::getName).toList()).toList());
+        assertEquals(outcomes.get(0).id(), inserts.get(0).get(0).getId());
+        verify(productService, times(3)).productsCreated(anyList());
+        assertEquals(3.0, meterRegistry.get("product.batch.items").tag("outcome", "created").counter().count());
+        assertEquals(3.0, meterRegistry.get("product.batch.items").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    void shouldReportFailedInsertsAndKeepTheRestOfTheBatch() throws IOException {
+        when(bulkOperations.execute())
+                .thenThrow(new BulkOperationException("Bulk write failed", new MongoBulkWriteException(
+                        BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()),
+                        List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 1)),
+                        null, new ServerAddress())));
+        String upload = """
+                [{"name":"iPhone 13","price":999}, {"name":"Galaxy S21","price":799}]
+                """;
+
+        productBatchService.createProducts(stream(upload), ProductBatchService.Format.JSON, results::add);
+
+        List<ProductBatchItemResult> outcomes = results.get(0);
+        assertEquals(inserts.get(0).get(0).getId(), outcomes.get(0).id());
+        assertEquals(ProductBatchItemResult.failed(1, "duplicate key"), outcomes.get(1));
+        verify(productService).productsCreated(List.of(inserts.get(0).get(0)));
+    }
+
+    @Test
+    void shouldReportUnacknowledgedInsertAsUnknown() throws IOException {
+        when(bulkOperations.execute())
+                .thenThrow(new BulkOperationException("Bulk write failed", new MongoBulkWriteException(
+                        BulkWriteResult.acknowledged(2, 0, 0, 0, List.of(), List.of()), List.of(),
+                        new WriteConcernError(64, "WriteConcernFailed", "waiting for replication timed out", new BsonDocument()),
+                        new ServerAddress())));
+        String upload = """
+                [{"name":"iPhone 13","price":999}, {"name":"Galaxy S21","price":799}]
+                """;
+
+        productBatchService.createProducts(stream(upload), ProductBatchService.Format.JSON, results::add);
+
+        List<ProductBatchItemResult> outcomes = results.get(0);
+        assertEquals(inserts.get(0).get(1).getId(), outcomes.get(1).id());
+        assertTrue(outcomes.stream().allMatch(outcome -> outcome.id() != null && outcome.error() != null));
+        verify(productService).productsCreated(List.of());
+        assertEquals(2.0, meterRegistry.get("product.batch.items").tag("outcome", "unknown").counter().count());
+    }
+
+    @Test
+    void shouldReportBatchOfFailedInsertAsUnknownAndNotInsertTheRest() throws IOException {
+        when(bulkOperations.execute()).thenThrow(new DataAccessResourceFailureException("Timed out"));
+        String upload = """
+                {"name":"iPhone 13","price":999}
+                {"name":"Galaxy S21","price":799}
+                {"name":"Pixel 6","price":599}
+                """;
+
+        productBatchService.createProducts(stream(upload), ProductBatchService.Format.NDJSON, results::add);
+
+        List<ProductBatchItemResult> outcomes = results.stream().flatMap(List::stream).toList();
+        assertEquals(List.of(0, 1, 2), outcomes.stream().map(ProductBatchItemResult::index).toList());
+        // The first batch may have been inserted; the second was not tried
+        assertEquals(inserts.get(0).get(0).getId(), outcomes.get(0).id());
+        assertNotNull(outcomes.get(0).error());
+        assertNotNull(outcomes.get(1).id());
+        assertNull(outcomes.get(2).id());
+        assertNotNull(outcomes.get(2).error());
+        assertEquals(1, inserts.size());
+    }
+
+    @Test
+    void shouldReportOverLongNdjsonLineAsInvalid() throws IOException {
+        String upload = "{\"name\":\"" + "x".repeat(1000) + "\",\"price\":1}\n{\"name\":\"Pixel 6\",\"price\":599}\n";
+
+        productBatchService.createProducts(stream(upload), ProductBatchService.Format.NDJSON, results::add);
+
+        List<ProductBatchItemResult> outcomes = results.stream().flatMap(List::stream).toList();
+        assertTrue(outcomes.get(0).error().contains("longer than 200 characters"));
+        assertNotNull(outcomes.get(1).id());
+        assertEquals(List.of("Pixel 6"), inserts.get(0).stream().map(Product::getName).toList());
+    }
+
+    @Test
+    void shouldStopReadingJsonArrayAtSyntaxError() throws IOException {
+        String upload = """
+                [{"name":"iPhone 13","price":999}, {"name":"Galaxy S21","price":oops}, {"name":"Pixel 6","price":599}]
+                """;
+
+        productBatchService.createProducts(stream(upload), ProductBatchService.Format.JSON, results::add);
+
+        List<ProductBatchItemResult> outcomes = results.stream().flatMap(List::stream).toList();
+        assertEquals(2, outcomes.size());
+        assertNotNull(outcomes.get(0).id());
+        assertTrue(outcomes.get(1).error().startsWith("Malformed JSON"));
+        assertEquals(1, inserts.size());
+    }
+
+    @Test
+    void shouldRejectUploadThatIsNotAnArray() {
+        assertThrows(ResponseStatusException.class, () -> productBatchService.createProducts(
+                stream("{\"name\":\"iPhone 13\"}"), ProductBatchService.Format.JSON, results::add));
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class));
+    }
+
+    @Test
+    void shouldResolveFormatFromContentType() {
+        assertEquals(ProductBatchService.Format.NDJSON, ProductBatchService.Format.of(MediaType.APPLICATION_NDJSON));
+        assertEquals(ProductBatchService.Format.JSON, ProductBatchService.Format.of(MediaType.APPLICATION_JSON));
+        assertThrows(ResponseStatusException.class, () -> ProductBatchService.Format.of(MediaType.TEXT_PLAIN));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
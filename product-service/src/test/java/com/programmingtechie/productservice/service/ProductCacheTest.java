@@ -0,0 +1,118 @@
+package com.programmingtechie.productservice.service;
+
+import com.programmingtechie.productservice.dto.ProductPage;
+import com.programmingtechie.productservice.dto.ProductResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProductCache cache = new ProductCache(meterRegistry, 100, 100, Duration.ofMinutes(1));
+
+    @Test
+    void shouldLoadProductOnceAndExportHitRatioAndLoadTime() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getProduct("1", id -> {
+            loads.incrementAndGet();
+            return createProductResponse(id);
+        });
+        cache.getProduct("1", id -> {
+            loads.incrementAndGet();
+            return createProductResponse(id);
+        });
+
+        assertEquals(1, loads.get());
+        assertEquals(0.5, meterRegistry.get("product.cache.hit.ratio").tag("cache", "products").gauge().value());
+        assertEquals(1, meterRegistry.get("product.cache.load").tag("cache", "products").timer().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void shouldNotCacheMissingProducts() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.getProduct("1", id -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        cache.getProduct("1", id -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldDropPagesWhenProductIsWritten() {
+        AtomicInteger loads = new AtomicInteger();
+        ProductPage page = new ProductPage(List.of(createProductResponse("1")), null);
+
+        cache.getPage(null, 10, Set.of(), () -> {
+            loads.incrementAndGet();
+            return page;
+        });
+        cache.put(createProductResponse("2"));
+        cache.getPage(null, 10, Set.of(), () -> {
+            loads.incrementAndGet();
+            return page;
+        });
+
+        assertEquals(2, loads.get());
+        assertEquals("2", cache.getProduct("2", id -> null).getId());
+    }
+
+    @Test
+    void shouldBoundPagesByTheProductsTheyHold() throws InterruptedException {
+        // The cache holds at most 100 products' worth of pages
+        for (int i = 0; i < 3; i++) {
+            String after = String.valueOf(i);
+            cache.getPage(after, 60, Set.of(), () -> new ProductPage(createProductResponses(60), null));
+        }
+
+        // Eviction runs asynchronously after the writes
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (cacheSize("pages") > 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, cacheSize("pages"));
+    }
+
+    @Test
+    void shouldInvalidateProductChangedElsewhere() {
+        cache.put(createProductResponse("1"));
+
+        cache.invalidate(List.of("1"));
+
+        assertNull(cache.getProduct("1", id -> null));
+    }
+
+    private double cacheSize(String name) {
+        return meterRegistry.get("cache.size").tag("cache", name).gauge().value();
+    }
+
+    private List<ProductResponse> createProductResponses(int count) {
+        return IntStream.range(0, count).mapToObj(i -> createProductResponse(String.valueOf(i))).toList();
+    }
+
+    private ProductResponse createProductResponse(String id) {
+        return ProductResponse.builder()
+                .id(id)
+                .name("Product " + id)
+                .description("Description " + id)
+                .price(BigDecimal.TEN)
+                .build();
+    }
+}
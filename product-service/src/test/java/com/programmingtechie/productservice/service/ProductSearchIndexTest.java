@@ -0,0 +1,154 @@
+package com.programmingtechie.productservice.service;
+
+import com.programmingtechie.productservice.dto.ProductResponse;
+import com.programmingtechie.productservice.model.Product;
+import com.programmingtechie.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductSearchIndexTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductSearchIndex index = new ProductSearchIndex(productRepository, meterRegistry, 200, 1000, DataSize.ofMegabytes(64));
+
+    @Test
+    void shouldRankNameMatchesAboveDescriptionMatches() {
+        index.add(createProductResponse("1", "Phone case", "Fits the iPhone 13"));
+        index.add(createProductResponse("2", "iPhone 13", "Apple phone with 128GB storage"));
+        index.add(createProductResponse("3", "Galaxy S21", "Samsung phone"));
+
+        assertEquals(List.of("2", "1"), index.search("iphone", 10));
+        assertEquals(List.of("2", "1", "3"), index.search("iPhone phone", 10));
+        assertEquals(List.of("2"), index.search("IPHONE", 1));
+        assertEquals(3, meterRegistry.get("product.search.queries").tag("type", "search").timer().count());
+    }
+
+    @Test
+    void shouldReturnNothingForUnknownOrEmptyQueries() {
+        index.add(createProductResponse("1", "iPhone 13", "Apple iPhone"));
+
+        assertEquals(List.of(), index.search("pixel", 10));
+        assertEquals(List.of(), index.search("  ", 10));
+        assertEquals(List.of(), index.suggest("", 10));
+    }
+
+    @Test
+    void shouldSuggestMostCommonTermsForPrefix() {
+        index.add(createProductResponse("1", "iPhone 13", "Apple iPhone"));
+        index.add(createProductResponse("2", "iPhone 14", "Apple iPad companion"));
+        index.add(createProductResponse("3", "iPad Air", "Apple tablet"));
+        index.add(createProductResponse("4", "iPhone 15", "Apple phone"));
+
+        assertEquals(List.of("iphone", "ipad"), index.suggest("IP", 10));
+        assertEquals(List.of("iphone"), index.suggest("ip", 1));
+        assertEquals(List.of("apple"), index.suggest("app", 10));
+    }
+
+    @Test
+    void shouldReturnSameTopResultsAsFullRanking() {
+        Random random = new Random(42);
+        List<String> words = List.of("phone", "case", "apple", "samsung", "charger", "cable", "usb", "black", "pro", "mini");
+        for (int i = 0; i < 500; i++) {
+            String name = words.get(random.nextInt(words.size())) + " " + words.get(random.nextInt(3));
+            StringBuilder description = new StringBuilder();
+            for (int j = random.nextInt(12); j >= 0; j--) {
+                description.append(words.get(random.nextInt(words.size()))).append(' ');
+            }
+            index.add(createProductResponse(String.valueOf(i), name, description.toString()));
+        }
+
+        // With a limit above the number of products nothing can be skipped
+        for (String query : List.of("phone", "phone case", "apple usb mini", "pro black cable charger")) {
+            List<String> all = index.search(query, 1000);
+            assertEquals(all.subList(0, 5), index.search(query, 5));
+            assertEquals(all.subList(0, 20), index.search(query, 20));
+        }
+    }
+
+    @Test
+    void shouldSuggestTermsThatBecomeCommonLater() {
+        for (int i = 0; i < 60; i++) {
+            index.add(createProductResponse(String.valueOf(i), "term" + i, null));
+        }
+        for (int i = 60; i < 63; i++) {
+            index.add(createProductResponse(String.valueOf(i), "term59 term7", null));
+        }
+
+        assertEquals(List.of("term59", "term7", "term0"), index.suggest("te", 3));
+        assertEquals(List.of("term59", "term7", "term0"), index.suggest("term", 3));
+        assertEquals(50, index.suggest("t", 50).size());
+    }
+
+    @Test
+    void shouldLeaveOutProductsOverMemoryBudget() {
+        SimpleMeterRegistry smallIndexRegistry = new SimpleMeterRegistry();
+        ProductSearchIndex smallIndex = new ProductSearchIndex(productRepository, smallIndexRegistry, 200, 1000,
+                DataSize.ofKilobytes(4));
+
+        for (int i = 0; i < 100; i++) {
+            smallIndex.add(createProductResponse(String.valueOf(i), "product" + i, "description of product " + i));
+        }
+
+        double documents = smallIndexRegistry.get("product.search.documents").gauge().value();
+        assertTrue(documents > 0 && documents < 100);
+        assertEquals(100 - documents, smallIndexRegistry.get("product.search.rejected").counter().count());
+        assertTrue(smallIndexRegistry.get("product.search.memory").gauge().value() <= 4096);
+        assertEquals(List.of("0"), smallIndex.search("product0", 10));
+        assertEquals(List.of(), smallIndex.search("product99", 10));
+    }
+
+    @Test
+    void shouldStayWithinTermBudget() {
+        SimpleMeterRegistry smallIndexRegistry = new SimpleMeterRegistry();
+        ProductSearchIndex smallIndex = new ProductSearchIndex(productRepository, smallIndexRegistry, 2, 3, DataSize.ofMegabytes(64));
+
+        smallIndex.add(createProductResponse("1", "alpha beta", "gamma delta epsilon"));
+        smallIndex.add(createProductResponse("2", "beta", "zeta"));
+
+        // Only the first two description words are indexed and no terms are added past three
+        assertEquals(List.of("1"), smallIndex.search("gamma", 10));
+        assertEquals(List.of(), smallIndex.search("epsilon", 10));
+        assertEquals(List.of(), smallIndex.search("zeta", 10));
+        assertEquals(List.of("2", "1"), smallIndex.search("beta", 10));
+        assertEquals(3.0, smallIndexRegistry.get("product.search.terms").gauge().value());
+    }
+
+    @Test
+    void shouldRebuildFromRepositoryAndIgnoreDuplicates() {
+        when(productRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(
+                new Product("1", "iPhone 13", "Apple iPhone", BigDecimal.TEN),
+                new Product("2", "Galaxy S21", "Samsung phone", BigDecimal.TEN)));
+
+        index.rebuild();
+        index.add(createProductResponse("1", "iPhone 13", "Apple iPhone"));
+
+        assertEquals(List.of("2"), index.search("galaxy", 10));
+        assertEquals(List.of("1"), index.search("iphone", 10));
+        assertEquals(2.0, meterRegistry.get("product.search.documents").gauge().value());
+    }
+
+    @Test
+    void shouldTokenizeIntoLowerCaseWords() {
+        assertEquals(List.of("iphone", "13", "128gb"), ProductSearchIndex.tokenize("iPhone-13 (128GB) a", 10));
+        assertEquals(List.of("iphone"), ProductSearchIndex.tokenize("iPhone 13", 1));
+    }
+
+    private ProductResponse createProductResponse(String id, String name, String description) {
+        return ProductResponse.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .price(BigDecimal.TEN)
+                .build();
+    }
+}
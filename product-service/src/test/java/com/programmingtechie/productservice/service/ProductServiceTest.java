@@ -1,20 +1,32 @@
 package com.programmingtechie.productservice.service;
 
+import com.programmingtechie.productservice.dto.ProductPage;
 import com.programmingtechie.productservice.dto.ProductRequest;
 import com.programmingtechie.productservice.dto.ProductResponse;
 import com.programmingtechie.productservice.model.Product;
 import com.programmingtechie.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,9 +34,18 @@ class ProductServiceTest {
 
     @Mock
     private ProductRepository productRepository;
-    @InjectMocks
+    @Mock
+    private ProductChangeBroadcaster productChangeBroadcaster;
+    private ProductSearchIndex productSearchIndex;
     private ProductService productService;
 
+    @BeforeEach
+    void setUp() {
+        ProductCache productCache = new ProductCache(new SimpleMeterRegistry(), 100, 100, Duration.ofMinutes(1));
+        productSearchIndex = new ProductSearchIndex(productRepository, new SimpleMeterRegistry(), 200, 1000, DataSize.ofMegabytes(64));
+        productService = new ProductService(productRepository, productCache, productChangeBroadcaster, productSearchIndex);
+    }
+
     @Test
     void shouldCreateProduct() {
         ProductRequest request = createProductRequest("iPhone 13", "Apple iPhone", BigDecimal.valueOf(999));
@@ -37,47 +58,244 @@ class ProductServiceTest {
         verify(productRepository, times(1)).save(any(Product.class));
     }
 
+    @Test
+    void shouldWriteCreatedProductThroughToCacheAndBroadcast() {
+        Product savedProduct = createProduct("1", "iPhone 13", "Apple iPhone", BigDecimal.valueOf(999));
+        when(productRepository.save(any(Product.class))).thenReturn(savedProduct);
+
+        productService.createProduct(createProductRequest("iPhone 13", "Apple iPhone", BigDecimal.valueOf(999)));
+
+        assertEquals("iPhone 13", productService.getProduct("1", null).getName());
+        verify(productRepository, never()).findById(any());
+        verify(productChangeBroadcaster).broadcast(List.of("1"));
+    }
+
+    @Test
+    void shouldReadProductThroughCache() {
+        when(productRepository.findById("1"))
+                .thenReturn(Optional.of(createProduct("1", "iPhone 13", "Apple iPhone", BigDecimal.valueOf(999))));
+
+        productService.getProduct("1", null);
+        ProductResponse response = productService.getProduct("1", null);
+
+        assertEquals("iPhone 13", response.getName());
+        verify(productRepository, times(1)).findById("1");
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownProduct() {
+        when(productRepository.findById("1")).thenReturn(Optional.empty());
+
+        assertThrows(ResponseStatusException.class, () -> productService.getProduct("1", null));
+    }
+
+    @Test
+    void shouldServeRepeatedPageFromCacheUntilProductIsCreated() {
+        when(productRepository.findAllBy(any(Pageable.class)))
+                .thenReturn(List.of(createProduct("1", "iPhone 13", "Apple iPhone", BigDecimal.valueOf(999))));
+        when(productRepository.save(any(Product.class)))
+                .thenReturn(createProduct("2", "Samsung S21", "Samsung Galaxy", BigDecimal.valueOf(799)));
+
+        productService.getProducts(null, 10, null);
+        productService.getProducts(null, 10, null);
+        verify(productRepository, times(1)).findAllBy(any(Pageable.class));
+
+        productService.createProduct(createProductRequest("Samsung S21", "Samsung Galaxy", BigDecimal.valueOf(799)));
+        productService.getProducts(null, 10, null);
+        verify(productRepository, times(2)).findAllBy(any(Pageable.class));
+    }
+
+    @Test
+    void shouldSearchCreatedProducts() {
+        when(productRepository.save(any(Product.class)))
+                .thenReturn(createProduct("1", "iPhone 13", "Apple iPhone", BigDecimal.valueOf(999)));
+
+        productService.createProduct(createProductRequest("iPhone 13", "Apple iPhone", BigDecimal.valueOf(999)));
+
+        assertEquals(List.of("iPhone 13"), productService.searchProducts("iphone", null, null).stream().map(ProductResponse::getName).toList());
+        assertEquals(List.of("iphone"), productService.suggest("iph", null));
+        verify(productRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void shouldLoadSearchResultsMissingFromCacheInOneQuery() {
+        productSearchIndex.add(createProductResponse("1", "iPhone 13"));
+        productSearchIndex.add(createProductResponse("2", "iPhone 14"));
+        when(productRepository.findAllById(any())).thenReturn(List.of(
+                createProduct("1", "iPhone 13", "Apple iPhone", BigDecimal.valueOf(999)),
+                createProduct("2", "iPhone 14", "Apple iPhone", BigDecimal.valueOf(1099))));
+
+        List<ProductResponse> responses = productService.searchProducts("iphone", 10, null);
+
+        assertEquals(List.of("1", "2"), responses.stream().map(ProductResponse::getId).toList());
+        verify(productRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void shouldRejectOutOfRangeSearchLimit() {
+        assertThrows(ResponseStatusException.class, () -> productService.searchProducts("iphone", ProductService.MAX_SEARCH_LIMIT + 1, null));
+        assertThrows(ResponseStatusException.class, () -> productService.suggest("iph", 0));
+    }
+
+    @Test
+    void shouldMakeBulkInsertedProductsVisible() {
+        when(productRepository.findAllBy(any(Pageable.class))).thenReturn(List.of());
+        productService.getProducts(null, null, null);
+
+        productService.productsCreated(List.of(
+                createProduct("1", "iPhone 13", "Apple iPhone", BigDecimal.valueOf(999)),
+                createProduct("2", "iPhone 14", "Apple iPhone", BigDecimal.valueOf(1099))));
+        productService.getProducts(null, null, null);
+
+        assertEquals(List.of("iphone"), productService.suggest("iph", null));
+        // Peers are told about the whole batch at once
+        verify(productChangeBroadcaster).broadcast(List.of("1", "2"));
+        verifyNoMoreInteractions(productChangeBroadcaster);
+        // The cached first page was dropped
+        verify(productRepository, times(2)).findAllBy(any(Pageable.class));
+    }
+
+    @Test
+    void shouldIndexProductsChangedElsewhere() {
+        when(productRepository.findAllById(List.of("1", "2"))).thenReturn(List.of(
+                createProduct("1", "iPhone 13", "Apple iPhone", BigDecimal.valueOf(999)),
+                createProduct("2", "Galaxy S21", "Samsung phone", BigDecimal.valueOf(799))));
+
+        productService.refreshProducts(List.of("1", "2"));
+
+        assertEquals(List.of("iphone"), productService.suggest("iph", null));
+        assertEquals(List.of("galaxy"), productService.suggest("gal", null));
+        verify(productRepository, never()).findById(any());
+    }
+
     @Test
     void shouldGetAllProducts() {
         List<Product> products = List.of(
             createProduct("1", "iPhone 13", "Apple iPhone", BigDecimal.valueOf(999)),
             createProduct("2", "Samsung S21", "Samsung Galaxy", BigDecimal.valueOf(799))
         );
-        when(productRepository.findAll()).thenReturn(products);
+        when(productRepository.findAllBy(any(Pageable.class))).thenReturn(products);
         
-        List<ProductResponse> responses = productService.getAllProducts();
+        ProductPage page = productService.getProducts(null, null, null);
         
-        assertEquals(2, responses.size());
-        assertEquals("iPhone 13", responses.get(0).getName());
-        assertEquals("Samsung S21", responses.get(1).getName());
-        verify(productRepository, times(1)).findAll();
+        assertEquals(2, page.products().size());
+        assertEquals("iPhone 13", page.products().get(0).getName());
+        assertEquals("Samsung S21", page.products().get(1).getName());
+        assertNull(page.nextCursor());
+        verify(productRepository, times(1)).findAllBy(PageRequest.of(0, ProductService.DEFAULT_PAGE_SIZE + 1, Sort.by("id")));
+        verify(productRepository, never()).findAll();
     }
 
     @Test
     void shouldReturnEmptyListWhenNoProducts() {
-        when(productRepository.findAll()).thenReturn(List.of());
+        when(productRepository.findAllBy(any(Pageable.class))).thenReturn(List.of());
         
-        List<ProductResponse> responses = productService.getAllProducts();
+        ProductPage page = productService.getProducts(null, null, null);
         
-        assertEquals(0, responses.size());
-        verify(productRepository, times(1)).findAll();
+        assertEquals(0, page.products().size());
+        assertNull(page.nextCursor());
     }
 
     @Test
     void shouldMapProductToResponse() {
         Product product = createProduct("1", "Test Product", "Test Description", BigDecimal.valueOf(100));
-        when(productRepository.findAll()).thenReturn(List.of(product));
+        when(productRepository.findAllBy(any(Pageable.class))).thenReturn(List.of(product));
         
-        List<ProductResponse> responses = productService.getAllProducts();
+        ProductPage page = productService.getProducts(null, null, null);
         
-        assertEquals(1, responses.size());
-        ProductResponse response = responses.get(0);
+        assertEquals(1, page.products().size());
+        ProductResponse response = page.products().get(0);
         assertEquals("1", response.getId());
         assertEquals("Test Product", response.getName());
         assertEquals("Test Description", response.getDescription());
         assertEquals(BigDecimal.valueOf(100), response.getPrice());
     }
 
+    @Test
+    void shouldReturnCursorOfNextPage() {
+        String after = "507f1f77bcf86cd799439011";
+        List<Product> products = List.of(
+            createProduct("507f1f77bcf86cd799439012", "Product 1", "Desc 1", BigDecimal.valueOf(50)),
+            createProduct("507f1f77bcf86cd799439013", "Product 2", "Desc 2", BigDecimal.valueOf(75)),
+            createProduct("507f1f77bcf86cd799439014", "Product 3", "Desc 3", BigDecimal.valueOf(90))
+        );
+        when(productRepository.findByIdGreaterThan(after, PageRequest.of(0, 3, Sort.by("id")))).thenReturn(products);
+
+        ProductPage page = productService.getProducts(after, 2, null);
+
+        assertEquals(2, page.products().size());
+        assertEquals("507f1f77bcf86cd799439013", page.nextCursor());
+    }
+
+    @Test
+    void shouldPushFieldProjectionDownToQuery() {
+        when(productRepository.findPage(null, ProductService.DEFAULT_PAGE_SIZE + 1, Set.of("name", "price")))
+                .thenReturn(List.of(createProduct("1", "iPhone 13", null, BigDecimal.valueOf(999))));
+
+        ProductPage page = productService.getProducts(null, null, "name, price");
+        productService.getProducts(null, null, "price,name");
+
+        assertEquals("iPhone 13", page.products().get(0).getName());
+        assertNull(page.products().get(0).getDescription());
+        // The same projection in another order is the same cached page
+        verify(productRepository, times(1)).findPage(any(), anyInt(), any());
+        verify(productRepository, never()).findAllBy(any(Pageable.class));
+    }
+
+    @Test
+    void shouldReadAllFieldsWhenEveryFieldIsRequested() {
+        assertEquals(Set.of(), ProductService.parseFields(null));
+        assertEquals(Set.of(), ProductService.parseFields("id,name,description,price"));
+        assertEquals(Set.of("name"), ProductService.parseFields("name,"));
+        assertThrows(ResponseStatusException.class, () -> ProductService.parseFields("name,secret"));
+    }
+
+    @Test
+    void shouldProjectCachedProduct() {
+        when(productRepository.findById("1"))
+                .thenReturn(Optional.of(createProduct("1", "iPhone 13", "Apple iPhone", BigDecimal.valueOf(999))));
+
+        ProductResponse projected = productService.getProduct("1", "price");
+        ProductResponse full = productService.getProduct("1", null);
+
+        assertEquals("1", projected.getId());
+        assertEquals(BigDecimal.valueOf(999), projected.getPrice());
+        assertNull(projected.getName());
+        assertEquals("Apple iPhone", full.getDescription());
+        verify(productRepository, times(1)).findById("1");
+    }
+
+    @Test
+    void shouldStreamProjectedProducts() {
+        when(productRepository.streamProjected(null, Set.of("name")))
+                .thenReturn(Stream.of(createProduct("1", "iPhone 13", null, null)));
+
+        try (Stream<ProductResponse> responses = productService.streamProducts(null, "name")) {
+            assertEquals(List.of("iPhone 13"), responses.map(ProductResponse::getName).toList());
+        }
+        verify(productRepository, never()).streamAllByOrderByIdAsc();
+    }
+
+    @Test
+    void shouldRejectInvalidPageRequests() {
+        assertThrows(ResponseStatusException.class, () -> productService.getProducts(null, 0, null));
+        assertThrows(ResponseStatusException.class, () -> productService.getProducts(null, ProductService.MAX_PAGE_SIZE + 1, null));
+        assertThrows(ResponseStatusException.class, () -> productService.getProducts("not-an-id", null, null));
+        assertThrows(ResponseStatusException.class, () -> productService.getProducts(null, null, "secret"));
+        assertThrows(ResponseStatusException.class, () -> productService.streamProducts("not-an-id", null));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void shouldStreamProductsFromCursor() {
+        Product product = createProduct("1", "Test Product", "Test Description", BigDecimal.valueOf(100));
+        when(productRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(product));
+
+        try (Stream<ProductResponse> responses = productService.streamProducts(null, null)) {
+            assertEquals(List.of("Test Product"), responses.map(ProductResponse::getName).toList());
+        }
+    }
+
     private ProductRequest createProductRequest(String name, String description, BigDecimal price) {
         ProductRequest request = new ProductRequest();
         request.setName(name);
@@ -94,4 +312,11 @@ class ProductServiceTest {
                 .price(price)
                 .build();
     }
-}
\ No newline at end of file
+
+    private ProductResponse createProductResponse(String id, String name) {
+        return ProductResponse.builder()
+                .id(id)
+                .name(name)
+                .build();
+    }
+}